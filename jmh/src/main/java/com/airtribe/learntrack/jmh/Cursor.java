@@ -0,0 +1,53 @@
+package com.airtribe.learntrack.jmh;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Per-thread position in the dataset. Each call moves it on, and positions are spread
+ * over the dataset without a shared random generator, so threads do not contend on it.
+ */
+@State(Scope.Thread)
+public class Cursor {
+    private int thread;
+    private int threads;
+    private long iteration;
+
+    @Setup(Level.Trial)
+    public void setUp(ThreadParams params) {
+        thread = params.getThreadIndex();
+        threads = params.getThreadCount();
+    }
+
+    /**
+     * Advances the cursor.
+     * @return how many times this thread advanced it before
+     */
+    long iteration() {
+        return iteration++;
+    }
+
+    /**
+     * Advances the cursor and maps it into a range.
+     * @param bound size of the range
+     * @return a position from 0 to bound - 1
+     */
+    int position(int bound) {
+        long mixed = (iteration() + 1) * 0x9E3779B97F4A7C15L + thread * 0xC2B2AE3D27D4EB4FL;
+        return (int) ((mixed >>> 1) % bound);
+    }
+
+    /**
+     * Advances the cursor and maps it to a position only this thread gets, for operations
+     * that must not run on the same record from two threads at once.
+     * @param bound size of the range; at least the number of threads
+     * @return a position from 0 to bound - 1 that is congruent to this thread's index
+     */
+    int ownPosition(int bound) {
+        int slots = bound / threads;
+        return position(slots) * threads + thread;
+    }
+}
@@ -0,0 +1,95 @@
+package com.airtribe.learntrack.jmh;
+
+import com.airtribe.learntrack.exception.DuplicateEntityException;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.service.CourseService;
+import com.airtribe.learntrack.service.EnrollmentResult;
+import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.StudentService;
+import java.util.Arrays;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Repositories and services filled with the given number of students, 100 courses and
+ * two enrollments per student, shared by every thread of a benchmark run.
+ * Large sizes need a large heap (1,000,000 needs about -Xmx2g, 10,000,000 about -Xmx12g).
+ */
+@State(Scope.Benchmark)
+public class Dataset {
+    static final int COURSES = 100;
+    static final int ENROLLMENTS_PER_STUDENT = 2;
+    static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    public final StudentRepository studentRepository = new StudentRepository();
+    public final CourseRepository courseRepository = new CourseRepository();
+    public final EnrollmentRepository enrollmentRepository = new EnrollmentRepository();
+    public final StudentService studentService = new StudentService(studentRepository);
+    public final CourseService courseService = new CourseService(courseRepository);
+    public final EnrollmentService enrollmentService =
+            new EnrollmentService(enrollmentRepository, studentService, courseService);
+
+    private int[] studentIds;
+    private int[] enrollmentIds;
+    private int firstCourseId;
+
+    @Setup(Level.Trial)
+    public void populate() throws EntityNotFoundException, DuplicateEntityException {
+        // IDs continue from whatever earlier trials used, so they are recorded rather than assumed
+        studentIds = new int[size];
+        for (int i = 0; i < size; i++) {
+            studentIds[i] = studentService.addStudent("First" + i, "Last" + i, email(i), "Batch-" + (i % 40))
+                    .getId();
+        }
+        firstCourseId = courseService.addCourse("Course 0", "Description 0", 4).getId();
+        for (int i = 1; i < COURSES; i++) {
+            courseService.addCourse("Course " + i, "Description " + i, 4 + i % 8);
+        }
+        enrollmentIds = new int[size * ENROLLMENTS_PER_STUDENT];
+        int position = 0;
+        for (int c = 0; c < ENROLLMENTS_PER_STUDENT; c++) {
+            for (EnrollmentResult result : enrollmentService.enrollStudents(firstCourseId + c, studentIds)) {
+                enrollmentIds[position++] = result.getEnrollment().getId();
+            }
+        }
+    }
+
+    static String email(int position) {
+        return "student" + position + "@campus.edu";
+    }
+
+    int studentId(Cursor cursor) {
+        return studentIds[cursor.position(studentIds.length)];
+    }
+
+    int enrollmentId(Cursor cursor) {
+        return enrollmentIds[cursor.position(enrollmentIds.length)];
+    }
+
+    // An enrollment no other thread is given, for operations that change it
+    int ownEnrollmentId(Cursor cursor) {
+        return enrollmentIds[cursor.ownPosition(enrollmentIds.length)];
+    }
+
+    int courseId(Cursor cursor) {
+        return firstCourseId + (int) (cursor.iteration() % COURSES);
+    }
+
+    int offset(Cursor cursor) {
+        return cursor.position(Math.max(1, size - PAGE_SIZE));
+    }
+
+    int[] batchOf100(Cursor cursor) {
+        int start = cursor.position(Math.max(1, size - 100));
+        return Arrays.copyOfRange(studentIds, start, Math.min(start + 100, size));
+    }
+}
@@ -0,0 +1,88 @@
+package com.airtribe.learntrack.jmh;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.util.Page;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read operations of the repositories. None of them change the dataset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    @Benchmark
+    public Student studentFindById(Dataset data, Cursor cursor) {
+        return data.studentRepository.findById(data.studentId(cursor));
+    }
+
+    @Benchmark
+    public List<Student> getAllStudents(Dataset data) {
+        return data.studentRepository.getAllStudents();
+    }
+
+    @Benchmark
+    public Page<Student> getStudentsPage(Dataset data, Cursor cursor) {
+        return data.studentRepository.getStudentsPage(data.offset(cursor), Dataset.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Page<Student> getStudentsAfter(Dataset data, Cursor cursor) {
+        return data.studentRepository.getStudentsAfter(data.studentId(cursor), Dataset.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Student> getActiveStudents(Dataset data) {
+        return data.studentRepository.getActiveStudents();
+    }
+
+    @Benchmark
+    public Student findByEmail(Dataset data, Cursor cursor) {
+        return data.studentRepository.findByEmail(Dataset.email(cursor.position(data.size)));
+    }
+
+    @Benchmark
+    public ActiveCounts getCountsByBatch(Dataset data, Cursor cursor) {
+        return data.studentRepository.getCountsByBatch("Batch-" + cursor.iteration() % 40);
+    }
+
+    @Benchmark
+    public Course courseFindById(Dataset data, Cursor cursor) {
+        return data.courseRepository.findById(data.courseId(cursor));
+    }
+
+    @Benchmark
+    public Enrollment enrollmentFindById(Dataset data, Cursor cursor) {
+        return data.enrollmentRepository.findById(data.enrollmentId(cursor));
+    }
+
+    @Benchmark
+    public List<Enrollment> findByStudentId(Dataset data, Cursor cursor) {
+        return data.enrollmentRepository.findByStudentId(data.studentId(cursor));
+    }
+
+    @Benchmark
+    public Enrollment findOpenEnrollment(Dataset data, Cursor cursor) {
+        return data.enrollmentRepository.findOpenEnrollment(data.studentId(cursor), data.courseId(cursor));
+    }
+
+    @Benchmark
+    public int getCountsByCourse(Dataset data, Cursor cursor) {
+        return data.enrollmentRepository.getCountsByCourse(data.courseId(cursor)).get(EnrollmentStatus.ACTIVE);
+    }
+}
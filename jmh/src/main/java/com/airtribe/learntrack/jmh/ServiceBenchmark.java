@@ -0,0 +1,53 @@
+package com.airtribe.learntrack.jmh;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Service operations that do not grow the dataset.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Benchmark
+    public Student findStudentById(Dataset data, Cursor cursor) throws EntityNotFoundException {
+        return data.studentService.findStudentById(data.studentId(cursor));
+    }
+
+    @Benchmark
+    public Course findCourseById(Dataset data, Cursor cursor) throws EntityNotFoundException {
+        return data.courseService.findCourseById(data.courseId(cursor));
+    }
+
+    @Benchmark
+    public List<Enrollment> getEnrollmentsByStudent(Dataset data, Cursor cursor) throws EntityNotFoundException {
+        return data.enrollmentService.getEnrollmentsByStudent(data.studentId(cursor));
+    }
+
+    // Only an ACTIVE enrollment can be completed, so each call reopens it afterwards and
+    // the score is one completion plus one status update. Each thread has its own enrollments.
+    @Benchmark
+    public boolean markEnrollmentCompleted(Dataset data, Cursor cursor)
+            throws EntityNotFoundException, InvalidInputException {
+        int id = data.ownEnrollmentId(cursor);
+        data.enrollmentService.markEnrollmentCompleted(id);
+        return data.enrollmentRepository.updateStatus(id, EnrollmentStatus.ACTIVE);
+    }
+}
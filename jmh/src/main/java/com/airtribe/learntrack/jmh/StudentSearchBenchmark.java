@@ -0,0 +1,97 @@
+package com.airtribe.learntrack.jmh;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StudentRepository.searchStudents (prefix index) against a linear scan over all students,
+ * for short and long prefixes. Names are built from syllables so first and last names
+ * repeat the way real ones do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StudentSearchBenchmark {
+    private static final String[] SYLLABLES = {
+        "an", "ar", "be", "ca", "da", "el", "fi", "ga", "ha", "is", "jo", "ka", "li", "ma", "ne", "ol",
+        "pa", "ra", "sa", "ta", "vi", "wa", "ya", "zo"
+    };
+    private static final String[] DOMAINS = {"campus.edu", "example.com", "mail.org"};
+    private static final int LIMIT = 10;
+
+    @Param({"1000000"})
+    public int students;
+
+    // From very common to matching nothing
+    @Param({"m", "ma", "mar", "marasa", "zz"})
+    public String query;
+
+    private final StudentRepository repository = new StudentRepository();
+
+    @Setup(Level.Trial)
+    public void populate() {
+        Random random = new Random(42);
+        List<Student> batch = new ArrayList<>(10_000);
+        for (int i = 1; i <= students; i++) {
+            String first = name(random, 2);
+            String last = name(random, 3);
+            String email = first.toLowerCase(Locale.ROOT) + "." + last.toLowerCase(Locale.ROOT) + i + "@"
+                    + DOMAINS[i % DOMAINS.length];
+            batch.add(new Student(i, first, last, email, "Batch-" + (i % 40), true));
+            if (batch.size() == 10_000) {
+                repository.addStudents(batch);
+                batch.clear();
+            }
+        }
+        repository.addStudents(batch);
+    }
+
+    @Benchmark
+    public List<Student> indexed() {
+        return repository.searchStudents(query, LIMIT);
+    }
+
+    // The alternative to the index: check every student
+    @Benchmark
+    public long linearScan() {
+        String prefix = query.toLowerCase(Locale.ROOT);
+        long matches = 0;
+        for (Student student : repository.getAllStudents()) {
+            if (student.getFirstName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                    || student.getLastName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                    || (student.getEmail() != null && student.getEmail().startsWith(prefix))) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String name(Random random, int syllables) {
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package com.airtribe.learntrack.jmh;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.service.EnrollmentResult;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Operations that add records. Each iteration makes exactly its batch size of calls per
+ * thread and reports the time the batch took, so the dataset grows by a known amount:
+ * at most (3 + 5) x batchSize records per thread over a run.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = 100_000)
+@Measurement(iterations = 5, batchSize = 100_000)
+@Fork(1)
+public class WriteBenchmark {
+
+    // Pairs repeat, so this mixes new enrollments with resubmissions turned away as duplicates
+    @Benchmark
+    public Enrollment enrollStudent(Dataset data, Cursor cursor) throws EntityNotFoundException {
+        try {
+            return data.enrollmentService.enrollStudent(data.studentId(cursor), data.courseId(cursor));
+        } catch (DuplicateEntityException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 3, batchSize = 1_000)
+    @Measurement(iterations = 5, batchSize = 1_000)
+    public List<EnrollmentResult> enrollStudents100(Dataset data, Cursor cursor) throws EntityNotFoundException {
+        return data.enrollmentService.enrollStudents(data.courseId(cursor), data.batchOf100(cursor));
+    }
+
+    @Benchmark
+    public Student addStudent(Dataset data) {
+        return data.studentService.addStudent("New", "Student", "Batch-new");
+    }
+}
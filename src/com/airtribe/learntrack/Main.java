@@ -1,42 +1,132 @@
 package com.airtribe.learntrack;
 
+import com.airtribe.learntrack.api.ApiServer;
+import com.airtribe.learntrack.cli.CommandRunner;
+import com.airtribe.learntrack.cli.ScriptReport;
 import com.airtribe.learntrack.constants.AppConstants;
 import com.airtribe.learntrack.constants.MenuOptions;
 import com.airtribe.learntrack.entity.Course;
 import com.airtribe.learntrack.entity.Enrollment;
 import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
 import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.importer.CsvImporter;
+import com.airtribe.learntrack.importer.ImportReport;
+import com.airtribe.learntrack.metrics.ServiceMetrics;
+import com.airtribe.learntrack.persistence.Journal;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.repository.ColumnarEnrollmentStore;
 import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.DictionaryStats;
+import com.airtribe.learntrack.repository.EnrollmentCounts;
 import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.EnrollmentStore;
+import com.airtribe.learntrack.repository.ObjectEnrollmentStore;
+import com.airtribe.learntrack.repository.OffHeapEnrollmentStore;
 import com.airtribe.learntrack.repository.StudentRepository;
 import com.airtribe.learntrack.service.CourseService;
 import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.InstrumentedCourseService;
+import com.airtribe.learntrack.service.InstrumentedEnrollmentService;
+import com.airtribe.learntrack.service.InstrumentedStudentService;
 import com.airtribe.learntrack.service.StudentService;
+import com.airtribe.learntrack.util.IdGenerator;
 import com.airtribe.learntrack.util.InputValidator;
+import com.airtribe.learntrack.util.Page;
+import com.airtribe.learntrack.util.TableRenderer;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.function.IntFunction;
 
 /**
  * Main class - Entry point for LearnTrack application.
  * Provides a menu-driven console interface for managing students, courses, and enrollments.
+ * With --script it runs commands from a file or stdin instead (see {@link CommandRunner}):
+ * <pre>
+ *   java -cp bin com.airtribe.learntrack.Main --script nightly.txt [--verbose]
+ *   java -cp bin com.airtribe.learntrack.Main --script - &lt; nightly.txt
+ * </pre>
+ * With --serve it runs the JSON API instead (see {@link ApiServer}) until the process is stopped.
+ * It listens on loopback only; -Dlearntrack.httpHost names another address to bind to:
+ * <pre>
+ *   java -cp bin com.airtribe.learntrack.Main --serve 8080
+ *   java -Dlearntrack.httpHost=0.0.0.0 -cp bin com.airtribe.learntrack.Main --serve 8080
+ * </pre>
+ * Serving turns on TCP_NODELAY for the JDK's HTTP server through the JVM-wide
+ * sun.net.httpserver.nodelay property, unless it is already set on the command line.
  */
 public class Main {
     private static Scanner scanner = new Scanner(System.in);
+    // Tables bypass System.out, which is synchronized and flushes on every line
+    private static final Writer console = new BufferedWriter(
+            new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), Charset.defaultCharset()), 1 << 16);
     private static StudentService studentService;
     private static CourseService courseService;
     private static EnrollmentService enrollmentService;
+    private static CsvImporter csvImporter;
+    private static final ServiceMetrics metrics = new ServiceMetrics();
 
     public static void main(String[] args) {
+        // Continue ID numbering from the previous run
+        try {
+            IdGenerator.usePersistentStore(Paths.get(AppConstants.DATA_DIR, AppConstants.ID_HIGH_WATER_FILE));
+        } catch (IOException e) {
+            System.out.println("Warning: IDs will not be persisted (" + e.getMessage() + ")\n");
+        }
+
         // Initialize repositories
         StudentRepository studentRepository = new StudentRepository();
         CourseRepository courseRepository = new CourseRepository();
-        EnrollmentRepository enrollmentRepository = new EnrollmentRepository();
+        EnrollmentRepository enrollmentRepository = new EnrollmentRepository(newEnrollmentStore());
+
+        // Restore saved data and record every change from here on
+        Journal journal = null;
+        try {
+            journal = Journal.open(Paths.get(AppConstants.DATA_DIR), studentRepository, courseRepository,
+                    enrollmentRepository);
+        } catch (IOException e) {
+            System.out.println("Warning: changes will not be saved (" + e.getMessage() + ")\n");
+        }
 
-        // Initialize services
-        studentService = new StudentService(studentRepository);
-        courseService = new CourseService(courseRepository);
-        enrollmentService = new EnrollmentService(enrollmentRepository, studentService, courseService);
+        // Initialize services, timing every call (visible in JMX and in the metrics log)
+        studentService = new InstrumentedStudentService(studentRepository, metrics);
+        courseService = new InstrumentedCourseService(courseRepository, metrics);
+        enrollmentService = new InstrumentedEnrollmentService(enrollmentRepository, studentService, courseService,
+            metrics);
+        metrics.registerMBeans();
+        startMetricsLog();
+        csvImporter = new CsvImporter(studentRepository, courseRepository, enrollmentRepository);
+
+        // Server mode: answer HTTP requests until the process is stopped
+        if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args, journal);
+            return;
+        }
+
+        // Headless mode: run the script, save, and exit with a status scripts can check
+        if (args.length > 0) {
+            int exitCode = runScript(args);
+            metrics.close();
+            closeJournal(journal);
+            System.exit(exitCode);
+        }
 
         // Display welcome message
         System.out.println("========================================");
@@ -66,6 +156,12 @@ public class Main {
                     case MenuOptions.ENROLLMENT_MANAGEMENT:
                         handleEnrollmentManagement();
                         break;
+                    case MenuOptions.BULK_IMPORT:
+                        bulkImport();
+                        break;
+                    case MenuOptions.DASHBOARD:
+                        showDashboard();
+                        break;
                     case MenuOptions.EXIT:
                         System.out.println("\nThank you for using " + AppConstants.APP_NAME + "!");
                         running = false;
@@ -79,6 +175,139 @@ public class Main {
         }
 
         scanner.close();
+        metrics.close();
+        closeJournal(journal);
+    }
+
+    /**
+     * Runs the HTTP API given as --serve [port] (default 8080), on loopback unless the
+     * learntrack.httpHost property names another address. The server runs until the
+     * process is stopped (e.g. Ctrl+C); a shutdown hook then stops it and closes the journal.
+     */
+    private static void serve(String[] args, Journal journal) {
+        if (args.length > 2 || (args.length == 2 && !InputValidator.isValidInteger(args[1]))) {
+            System.out.println("Usage: java com.airtribe.learntrack.Main --serve [port]");
+            closeJournal(journal);
+            System.exit(2);
+        }
+        int port = args.length == 2 ? Integer.parseInt(args[1]) : AppConstants.DEFAULT_HTTP_PORT;
+        String host = System.getProperty(AppConstants.HTTP_HOST_PROPERTY);
+        // Headers and body go out in separate writes; without TCP_NODELAY the second one
+        // waits for the client's delayed ACK. JVM-wide, and read when the first server starts.
+        if (System.getProperty(AppConstants.HTTP_NODELAY_PROPERTY) == null) {
+            System.setProperty(AppConstants.HTTP_NODELAY_PROPERTY, "true");
+        }
+        try {
+            ApiServer server = host == null
+                ? ApiServer.start(port, studentService, courseService, enrollmentService)
+                : ApiServer.start(new InetSocketAddress(host, port), studentService, courseService,
+                    enrollmentService);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                metrics.close();
+                closeJournal(journal);
+            }, "learntrack-shutdown"));
+            System.out.println(AppConstants.APP_NAME + " API listening on http://"
+                + (host == null ? "localhost" : host) + ":" + server.getPort() + "/ (Ctrl+C to stop)");
+        } catch (IOException e) {
+            System.out.println("Error starting server: " + e.getMessage());
+            closeJournal(journal);
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Runs a command script given as --script &lt;file&gt; (or - for stdin), printing
+     * failed commands as they happen and a summary at the end.
+     * @return 0 if every command succeeded, 1 if any failed, 2 on a usage or read error
+     */
+    private static int runScript(String[] args) {
+        String script = null;
+        boolean verbose = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--script") && i + 1 < args.length) {
+                script = args[++i];
+            } else if (args[i].equals("--verbose")) {
+                verbose = true;
+            } else {
+                script = null;
+                break;
+            }
+        }
+        if (script == null) {
+            System.out.println("Usage: java com.airtribe.learntrack.Main [--script <file|-> [--verbose]]");
+            return 2;
+        }
+
+        CommandRunner runner = new CommandRunner(studentService, courseService, enrollmentService, csvImporter,
+            verbose);
+        try (BufferedReader reader = script.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, Charset.defaultCharset()))
+                : Files.newBufferedReader(Paths.get(script), Charset.defaultCharset())) {
+            ScriptReport report = runner.run(reader, console);
+            report.print(console);
+            if (verbose) {
+                metrics.print(console);
+            }
+            return report.getFailed() == 0 ? 0 : 1;
+        } catch (IOException e) {
+            System.out.println("Error running script: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    /**
+     * Creates the enrollment store named by the ENROLLMENT_STORE_PROPERTY system property.
+     * The columnar store holds large enrollment sets in a fraction of the heap; the off-heap
+     * store holds them outside it, mapped from ENROLLMENT_STORE_FILE_PROPERTY if that is set.
+     */
+    private static EnrollmentStore newEnrollmentStore() {
+        String store = System.getProperty(AppConstants.ENROLLMENT_STORE_PROPERTY, "");
+        if (store.equals(AppConstants.COLUMNAR_ENROLLMENT_STORE)) {
+            return new ColumnarEnrollmentStore();
+        }
+        if (store.equals(AppConstants.OFF_HEAP_ENROLLMENT_STORE)) {
+            String file = System.getProperty(AppConstants.ENROLLMENT_STORE_FILE_PROPERTY);
+            if (file != null) {
+                try {
+                    return OffHeapEnrollmentStore.mapped(Paths.get(file), 0);
+                } catch (IOException e) {
+                    System.out.println("Warning: enrollments will be kept in direct memory ("
+                            + e.getMessage() + ")\n");
+                }
+            }
+            return new OffHeapEnrollmentStore();
+        }
+        return new ObjectEnrollmentStore();
+    }
+
+    /**
+     * Appends the service metrics table to the metrics log every
+     * METRICS_REPORT_INTERVAL_SECONDS, and once more on exit.
+     */
+    private static void startMetricsLog() {
+        try {
+            Path dataDir = Files.createDirectories(Paths.get(AppConstants.DATA_DIR));
+            Writer log = Files.newBufferedWriter(dataDir.resolve(AppConstants.METRICS_LOG_FILE),
+                Charset.defaultCharset(), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            metrics.startReporter(AppConstants.METRICS_REPORT_INTERVAL_SECONDS, log);
+        } catch (IOException e) {
+            System.out.println("Warning: metrics will only be available over JMX (" + e.getMessage() + ")\n");
+        }
+    }
+
+    /**
+     * Flushes and closes the journal so no recorded change is lost on exit.
+     */
+    private static void closeJournal(Journal journal) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Error saving data: " + e.getMessage());
+        }
     }
 
     /**
@@ -89,10 +318,129 @@ public class Main {
         System.out.println("1. Student Management");
         System.out.println("2. Course Management");
         System.out.println("3. Enrollment Management");
-        System.out.println("4. Exit");
+        System.out.println("4. Bulk Import (CSV)");
+        System.out.println("5. Dashboard");
+        System.out.println("6. Exit");
         System.out.print("Enter your choice: ");
     }
 
+    /**
+     * Shows totals, students per batch and enrollments per course from the running
+     * counters, without scanning students or enrollments.
+     */
+    private static void showDashboard() {
+        try {
+            ActiveCounts students = studentService.getStudentCounts();
+            ActiveCounts courses = courseService.getCourseCounts();
+            EnrollmentCounts enrollments = enrollmentService.getEnrollmentCounts();
+            System.out.flush();
+            TableRenderer table = new TableRenderer(console, 20, 10, 10, 10, 10, 10);
+            table.line("");
+            table.line("--- Dashboard ---");
+            table.header("", "Total", "Active", "Completed", "Cancelled", "Waitlisted");
+            table.cell("Students").cell(students.getTotal()).cell(students.getActive()).cell("").cell("").cell("");
+            table.endRow();
+            table.cell("Courses").cell(courses.getTotal()).cell(courses.getActive()).cell("").cell("").cell("");
+            table.endRow();
+            enrollmentRow(table.cell("Enrollments"), enrollments);
+
+            table.line("");
+            table.header("Batch", "Students", "Active", "", "", "");
+            for (Map.Entry<String, ActiveCounts> batch : studentService.getStudentCountsByBatch().entrySet()) {
+                table.cell(batch.getKey()).cell(batch.getValue().getTotal()).cell(batch.getValue().getActive())
+                    .cell("").cell("").cell("");
+                table.endRow();
+            }
+            DictionaryStats batchNames = studentService.getBatchNameStats();
+            table.line(String.format("%d distinct batch names, shared by %d students (about %d KB of copies saved)",
+                batchNames.getValues(), batchNames.getReferences(), batchNames.getSavedBytes() / 1024));
+
+            table.line("");
+            table.header("Course", "Enrolled", "Active", "Completed", "Cancelled", "Waitlisted");
+            for (Course course : courseService.getAllCourses()) {
+                enrollmentRow(table.cell(course.getCourseName(), 18),
+                    enrollmentService.getEnrollmentCountsByCourse(course.getId()));
+            }
+            table.line("");
+            table.flush();
+        } catch (Exception e) {
+            System.out.println("Error showing dashboard: " + e.getMessage() + "\n");
+        }
+    }
+
+    private static void enrollmentRow(TableRenderer table, EnrollmentCounts counts) throws IOException {
+        table.cell(counts.getTotal())
+            .cell(counts.get(EnrollmentStatus.ACTIVE))
+            .cell(counts.get(EnrollmentStatus.COMPLETED))
+            .cell(counts.get(EnrollmentStatus.CANCELLED))
+            .cell(counts.get(EnrollmentStatus.WAITLISTED));
+        table.endRow();
+    }
+
+    /**
+     * Imports students, courses or enrollments from a CSV file.
+     */
+    private static void bulkImport() {
+        try {
+            System.out.println("\n--- Bulk Import (CSV) ---");
+            System.out.println("1. Students (firstName,lastName[,email],batch)");
+            System.out.println("2. Courses (courseName,description,durationInWeeks)");
+            System.out.println("3. Enrollments (studentId,courseId)");
+            System.out.print("Enter your choice: ");
+            String input = scanner.nextLine().trim();
+            if (!InputValidator.isValidInteger(input)) {
+                System.out.println(AppConstants.INVALID_OPTION + "\n");
+                return;
+            }
+            int choice = Integer.parseInt(input);
+            if (choice < MenuOptions.IMPORT_STUDENTS || choice > MenuOptions.IMPORT_ENROLLMENTS) {
+                System.out.println(AppConstants.INVALID_OPTION + "\n");
+                return;
+            }
+
+            System.out.print("Enter CSV file path: ");
+            String pathInput = scanner.nextLine().trim();
+            if (!InputValidator.isValidString(pathInput)) {
+                System.out.println("File path cannot be empty.\n");
+                return;
+            }
+            Path file = Paths.get(pathInput);
+
+            ImportReport report;
+            switch (choice) {
+                case MenuOptions.IMPORT_STUDENTS:
+                    report = csvImporter.importStudents(file);
+                    break;
+                case MenuOptions.IMPORT_COURSES:
+                    report = csvImporter.importCourses(file);
+                    break;
+                default:
+                    report = csvImporter.importEnrollments(file);
+            }
+            printImportReport(report, file);
+        } catch (IOException e) {
+            System.out.println("Error importing file: " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * Prints an import summary and writes rejected rows next to the input file.
+     */
+    private static void printImportReport(ImportReport report, Path file) throws IOException {
+        System.out.println("\n" + report);
+        List<ImportReport.RowError> errors = report.getErrors();
+        if (!errors.isEmpty()) {
+            int shown = Math.min(errors.size(), 10);
+            for (int i = 0; i < shown; i++) {
+                System.out.println("  " + errors.get(i));
+            }
+            Path errorFile = Paths.get(file + ".errors.csv");
+            report.writeErrorReport(errorFile);
+            System.out.println("All " + errors.size() + " rejected rows written to " + errorFile);
+        }
+        System.out.println();
+    }
+
     /**
      * Handles student management menu and operations.
      */
@@ -103,8 +451,9 @@ public class Main {
             System.out.println("1. Add New Student");
             System.out.println("2. View All Students");
             System.out.println("3. Search Student by ID");
-            System.out.println("4. Deactivate Student");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("4. Search Students by Name or Email");
+            System.out.println("5. Deactivate Student");
+            System.out.println("6. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -125,6 +474,9 @@ public class Main {
                     case MenuOptions.SEARCH_STUDENT_BY_ID:
                         searchStudentById();
                         break;
+                    case MenuOptions.SEARCH_STUDENTS:
+                        searchStudents();
+                        break;
                     case MenuOptions.DEACTIVATE_STUDENT:
                         deactivateStudent();
                         break;
@@ -195,31 +547,62 @@ public class Main {
      */
     private static void viewAllStudents() {
         try {
-            List<Student> students = studentService.getAllStudents();
-            if (students.isEmpty()) {
+            if (studentService.getStudentsPage(0, 0).getTotalCount() == 0) {
                 System.out.println("\nNo students found.\n");
                 return;
             }
 
-            System.out.println("\n--- All Students ---");
-            System.out.println(String.format("%-8s %-20s %-30s %-15s %-8s", 
-                "ID", "Name", "Email", "Batch", "Active"));
-            System.out.println("--------------------------------------------------------------------------------");
-            for (Student student : students) {
-                String email = student.getEmail() != null ? student.getEmail() : "N/A";
-                System.out.println(String.format("%-8d %-20s %-30s %-15s %-8s",
-                    student.getId(),
-                    student.getFirstName() + " " + student.getLastName(),
-                    email,
-                    student.getBatch(),
-                    student.isActive() ? "Yes" : "No"));
-            }
-            System.out.println();
+            browse("--- All Students ---", new int[] {8, 20, 30, 15, 8},
+                new String[] {"ID", "Name", "Email", "Batch", "Active"},
+                offset -> studentService.getStudentsPage(offset, AppConstants.PAGE_SIZE),
+                (table, student) -> table
+                    .cell(student.getId())
+                    .cell(student.getFirstName(), student.getLastName())
+                    .cell(student.getEmail() != null ? student.getEmail() : "N/A")
+                    .cell(student.getBatch())
+                    .cell(student.isActive()));
         } catch (Exception e) {
             System.out.println("Error viewing students: " + e.getMessage() + "\n");
         }
     }
 
+    /**
+     * Searches students by the start of their first name, last name or email.
+     */
+    private static void searchStudents() {
+        try {
+            System.out.print("Enter the start of a name or email: ");
+            String query = scanner.nextLine().trim();
+            if (!InputValidator.isValidString(query)) {
+                System.out.println("Search text cannot be empty.\n");
+                return;
+            }
+
+            List<Student> matches = studentService.searchStudents(query, AppConstants.SEARCH_RESULT_LIMIT);
+            if (matches.isEmpty()) {
+                System.out.println("\nNo students match \"" + query + "\".\n");
+                return;
+            }
+            System.out.flush();
+            TableRenderer table = new TableRenderer(console, 8, 20, 30, 15, 8);
+            table.line("");
+            table.line("--- Students matching \"" + query + "\" ---");
+            table.header("ID", "Name", "Email", "Batch", "Active");
+            for (Student student : matches) {
+                table.cell(student.getId())
+                    .cell(student.getFirstName(), student.getLastName())
+                    .cell(student.getEmail() != null ? student.getEmail() : "N/A")
+                    .cell(student.getBatch())
+                    .cell(student.isActive());
+                table.endRow();
+            }
+            table.line("");
+            table.flush();
+        } catch (Exception e) {
+            System.out.println("Error searching students: " + e.getMessage() + "\n");
+        }
+    }
+
     /**
      * Searches for a student by ID.
      */
@@ -280,7 +663,8 @@ public class Main {
             System.out.println("2. View All Courses");
             System.out.println("3. Activate Course");
             System.out.println("4. Deactivate Course");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. Set Course Capacity");
+            System.out.println("6. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -304,6 +688,9 @@ public class Main {
                     case MenuOptions.DEACTIVATE_COURSE:
                         deactivateCourse();
                         break;
+                    case MenuOptions.SET_COURSE_CAPACITY:
+                        setCourseCapacity();
+                        break;
                     case MenuOptions.BACK_TO_MAIN_COURSE:
                         backToMain = true;
                         System.out.println();
@@ -349,7 +736,18 @@ public class Main {
                 return;
             }
 
-            Course course = courseService.addCourse(courseName, description, duration);
+            System.out.print("Enter Capacity (blank for unlimited): ");
+            String capacityInput = scanner.nextLine().trim();
+            int capacity = Course.UNLIMITED_CAPACITY;
+            if (!capacityInput.isEmpty()) {
+                if (!InputValidator.isValidInteger(capacityInput) || Integer.parseInt(capacityInput) < 0) {
+                    System.out.println("Invalid capacity. Please enter 0 or more.\n");
+                    return;
+                }
+                capacity = Integer.parseInt(capacityInput);
+            }
+
+            Course course = courseService.addCourse(courseName, description, duration, capacity);
             System.out.println("\nCourse added successfully!");
             System.out.println("Course ID: " + course.getId());
             System.out.println("Course Name: " + course.getCourseName() + "\n");
@@ -363,28 +761,21 @@ public class Main {
      */
     private static void viewAllCourses() {
         try {
-            List<Course> courses = courseService.getAllCourses();
-            if (courses.isEmpty()) {
+            if (courseService.getCoursesPage(0, 0).getTotalCount() == 0) {
                 System.out.println("\nNo courses found.\n");
                 return;
             }
 
-            System.out.println("\n--- All Courses ---");
-            System.out.println(String.format("%-8s %-30s %-40s %-12s %-8s",
-                "ID", "Course Name", "Description", "Duration", "Active"));
-            System.out.println("--------------------------------------------------------------------------------");
-            for (Course course : courses) {
-                String desc = course.getDescription().length() > 37 
-                    ? course.getDescription().substring(0, 37) + "..." 
-                    : course.getDescription();
-                System.out.println(String.format("%-8d %-30s %-40s %-12d %-8s",
-                    course.getId(),
-                    course.getCourseName(),
-                    desc,
-                    course.getDurationInWeeks(),
-                    course.isActive() ? "Yes" : "No"));
-            }
-            System.out.println();
+            browse("--- All Courses ---", new int[] {8, 30, 40, 12, 10, 8},
+                new String[] {"ID", "Course Name", "Description", "Duration", "Capacity", "Active"},
+                offset -> courseService.getCoursesPage(offset, AppConstants.PAGE_SIZE),
+                (table, course) -> table
+                    .cell(course.getId())
+                    .cell(course.getCourseName())
+                    .cell(course.getDescription(), 37)
+                    .cell(course.getDurationInWeeks())
+                    .cell(course.hasCapacityLimit() ? String.valueOf(course.getCapacity()) : "-")
+                    .cell(course.isActive()));
         } catch (Exception e) {
             System.out.println("Error viewing courses: " + e.getMessage() + "\n");
         }
@@ -434,6 +825,39 @@ public class Main {
         }
     }
 
+    /**
+     * Changes a course's capacity, promoting waitlisted students into any new seats.
+     */
+    private static void setCourseCapacity() {
+        try {
+            System.out.print("Enter Course ID: ");
+            String input = scanner.nextLine().trim();
+            if (!InputValidator.isValidInteger(input)) {
+                System.out.println("Invalid ID format.\n");
+                return;
+            }
+
+            System.out.print("Enter New Capacity (0 for unlimited): ");
+            String capacityInput = scanner.nextLine().trim();
+            if (!InputValidator.isValidInteger(capacityInput) || Integer.parseInt(capacityInput) < 0) {
+                System.out.println("Invalid capacity. Please enter 0 or more.\n");
+                return;
+            }
+
+            int id = Integer.parseInt(input);
+            List<Enrollment> promoted = enrollmentService.setCourseCapacity(id, Integer.parseInt(capacityInput));
+            System.out.println("Course capacity updated successfully!");
+            if (!promoted.isEmpty()) {
+                System.out.println(promoted.size() + " waitlisted student(s) moved into the new seats.");
+            }
+            System.out.println();
+        } catch (EntityNotFoundException e) {
+            System.out.println(e.getMessage() + "\n");
+        } catch (Exception e) {
+            System.out.println("Error updating capacity: " + e.getMessage() + "\n");
+        }
+    }
+
     /**
      * Handles enrollment management menu and operations.
      */
@@ -445,7 +869,8 @@ public class Main {
             System.out.println("2. View Enrollments by Student");
             System.out.println("3. Mark Enrollment as Completed");
             System.out.println("4. Mark Enrollment as Cancelled");
-            System.out.println("5. Back to Main Menu");
+            System.out.println("5. View Course Waitlist");
+            System.out.println("6. Back to Main Menu");
             System.out.print("Enter your choice: ");
 
             try {
@@ -469,6 +894,9 @@ public class Main {
                     case MenuOptions.MARK_ENROLLMENT_CANCELLED:
                         markEnrollmentCancelled();
                         break;
+                    case MenuOptions.VIEW_COURSE_WAITLIST:
+                        viewCourseWaitlist();
+                        break;
                     case MenuOptions.BACK_TO_MAIN_ENROLLMENT:
                         backToMain = true;
                         System.out.println();
@@ -505,13 +933,17 @@ public class Main {
             int courseId = Integer.parseInt(courseInput);
 
             Enrollment enrollment = enrollmentService.enrollStudent(studentId, courseId);
-            System.out.println("\nEnrollment successful!");
+            if (enrollment.getStatus() == EnrollmentStatus.WAITLISTED) {
+                System.out.println("\nThe course is full; the student has been added to its waitlist.");
+            } else {
+                System.out.println("\nEnrollment successful!");
+            }
             System.out.println("Enrollment ID: " + enrollment.getId());
             System.out.println("Student ID: " + enrollment.getStudentId());
             System.out.println("Course ID: " + enrollment.getCourseId());
             System.out.println("Enrollment Date: " + enrollment.getEnrollmentDate());
             System.out.println("Status: " + enrollment.getStatus() + "\n");
-        } catch (EntityNotFoundException e) {
+        } catch (EntityNotFoundException | DuplicateEntityException e) {
             System.out.println(e.getMessage() + "\n");
         } catch (Exception e) {
             System.out.println("Error enrolling student: " + e.getMessage() + "\n");
@@ -538,19 +970,15 @@ public class Main {
                 return;
             }
 
-            System.out.println("\n--- Enrollments for Student ID: " + studentId + " ---");
-            System.out.println(String.format("%-12s %-12s %-12s %-15s %-12s",
-                "Enrollment ID", "Student ID", "Course ID", "Enrollment Date", "Status"));
-            System.out.println("--------------------------------------------------------------------------------");
-            for (Enrollment enrollment : enrollments) {
-                System.out.println(String.format("%-12d %-12d %-12d %-15s %-12s",
-                    enrollment.getId(),
-                    enrollment.getStudentId(),
-                    enrollment.getCourseId(),
-                    enrollment.getEnrollmentDate(),
-                    enrollment.getStatus()));
-            }
-            System.out.println();
+            browse("--- Enrollments for Student ID: " + studentId + " ---", new int[] {12, 12, 12, 15, 12},
+                new String[] {"Enrollment ID", "Student ID", "Course ID", "Enrollment Date", "Status"},
+                offset -> Page.of(enrollments, offset, AppConstants.PAGE_SIZE),
+                (table, enrollment) -> table
+                    .cell(enrollment.getId())
+                    .cell(enrollment.getStudentId())
+                    .cell(enrollment.getCourseId())
+                    .cell(enrollment.getEnrollmentDate())
+                    .cell(enrollment.getStatus()));
         } catch (EntityNotFoundException e) {
             System.out.println(e.getMessage() + "\n");
         } catch (Exception e) {
@@ -593,13 +1021,109 @@ public class Main {
             }
 
             int enrollmentId = Integer.parseInt(input);
-            enrollmentService.markEnrollmentCancelled(enrollmentId);
-            System.out.println("Enrollment marked as cancelled successfully!\n");
+            Enrollment promoted = enrollmentService.markEnrollmentCancelled(enrollmentId);
+            System.out.println("Enrollment marked as cancelled successfully!");
+            if (promoted != null) {
+                System.out.println("Student " + promoted.getStudentId() + " moved from the waitlist into the freed seat"
+                    + " (enrollment " + promoted.getId() + ").");
+            }
+            System.out.println();
         } catch (EntityNotFoundException e) {
             System.out.println(e.getMessage() + "\n");
         } catch (Exception e) {
             System.out.println("Error updating enrollment: " + e.getMessage() + "\n");
         }
     }
-}
 
+    /**
+     * Displays the waitlist of a course, next to be promoted first.
+     */
+    private static void viewCourseWaitlist() {
+        try {
+            System.out.print("Enter Course ID: ");
+            String input = scanner.nextLine().trim();
+            if (!InputValidator.isValidInteger(input)) {
+                System.out.println("Invalid ID format.\n");
+                return;
+            }
+
+            int courseId = Integer.parseInt(input);
+            List<Enrollment> waitlist = enrollmentService.getWaitlist(courseId);
+
+            if (waitlist.isEmpty()) {
+                System.out.println("\nNobody is waiting for this course.\n");
+                return;
+            }
+
+            browse("--- Waitlist for Course ID: " + courseId + " ---", new int[] {10, 15, 12, 15},
+                new String[] {"Position", "Enrollment ID", "Student ID", "Enrollment Date"},
+                offset -> Page.of(waitlist, offset, AppConstants.PAGE_SIZE),
+                (table, enrollment) -> table
+                    .cell(waitlist.indexOf(enrollment) + 1)
+                    .cell(enrollment.getId())
+                    .cell(enrollment.getStudentId())
+                    .cell(enrollment.getEnrollmentDate()));
+        } catch (EntityNotFoundException e) {
+            System.out.println(e.getMessage() + "\n");
+        } catch (Exception e) {
+            System.out.println("Error viewing waitlist: " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * Shows a listing one page at a time, with next/previous navigation.
+     * @param title title printed above each page
+     * @param widths column widths
+     * @param headers column titles
+     * @param pageAt loads the page starting at an offset
+     * @param rowWriter fills in the cells of one row
+     */
+    private static <T> void browse(String title, int[] widths, String[] headers, IntFunction<Page<T>> pageAt,
+                                   RowWriter<T> rowWriter) throws IOException {
+        TableRenderer table = new TableRenderer(console, widths);
+        int offset = 0;
+        while (true) {
+            Page<T> page = pageAt.apply(offset);
+            System.out.flush();
+            table.line("");
+            table.line(title);
+            table.header(headers);
+            for (T item : page.getItems()) {
+                rowWriter.write(table, item);
+                table.endRow();
+            }
+            table.line("Showing " + (page.getOffset() + 1) + "-" + (page.getOffset() + page.getItems().size())
+                + " of " + page.getTotalCount());
+            table.line("");
+            table.flush();
+            if (!page.hasNext() && !page.hasPrevious()) {
+                return;
+            }
+
+            while (true) {
+                System.out.print((page.hasNext() ? "[N]ext, " : "") + (page.hasPrevious() ? "[P]revious, " : "")
+                    + "[Q]uit: ");
+                String choice = scanner.nextLine().trim().toUpperCase();
+                if (choice.equals("N") && page.hasNext()) {
+                    offset = page.getOffset() + AppConstants.PAGE_SIZE;
+                    break;
+                } else if (choice.equals("P") && page.hasPrevious()) {
+                    offset = Math.max(0, page.getOffset() - AppConstants.PAGE_SIZE);
+                    break;
+                } else if (choice.isEmpty() || choice.equals("Q")) {
+                    System.out.println();
+                    return;
+                }
+                System.out.println(AppConstants.INVALID_OPTION);
+            }
+        }
+    }
+
+    /**
+     * Fills in the cells of one table row.
+     */
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(TableRenderer table, T item) throws IOException;
+    }
+}
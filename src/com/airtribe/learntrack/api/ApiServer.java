@@ -0,0 +1,434 @@
+package com.airtribe.learntrack.api;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.service.CourseService;
+import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.StudentService;
+import com.airtribe.learntrack.util.InputValidator;
+import com.airtribe.learntrack.util.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Embedded JSON API over the services, built on the JDK's HTTP server.
+ * Each request runs on its own virtual thread when the JDK supports them
+ * (see {@link VirtualThreads}), otherwise on a fixed pool.
+ * <pre>
+ *   GET  /students?offset=&amp;limit=         page of students
+ *   GET  /students?q=&amp;limit=              students whose name or email starts with q
+ *   GET  /students?email=                 the student registered with an email
+ *   GET  /students/{id}
+ *   POST /students                        {"firstName","lastName","batch","email"?}
+ *   GET  /courses?offset=&amp;limit=          page of courses
+ *   GET  /courses/{id}
+ *   GET  /courses/{id}/stats              the course's enrollment counts by status
+ *   GET  /courses/{id}/waitlist           the course's waitlisted enrollments, next to be seated first
+ *   POST /courses                         {"courseName","description","durationInWeeks","capacity"?}
+ *   POST /courses/{id}/capacity           {"capacity"}; answers the course and the enrollments promoted
+ *   GET  /enrollments?offset=&amp;limit=      page of enrollments
+ *   GET  /enrollments?studentId= or ?courseId=
+ *   GET  /enrollments/{id}
+ *   POST /enrollments                     {"studentId","courseId"}; WAITLISTED if the course is full.
+ *                                         Resubmitting answers 200 with the open enrollment already there
+ *   POST /enrollments/{id}/complete
+ *   POST /enrollments/{id}/cancel         seats the next waitlisted enrollment, if any
+ *   GET  /stats                           student, course and enrollment totals, students per batch
+ *                                         and the memory saved by sharing batch names
+ * </pre>
+ * Unknown IDs answer 404, invalid input 400 and an email that is already registered 409,
+ * each with an {"error": message} body. Anything else unexpected answers 500 with a
+ * generic message; the exception is logged, not sent to the client.
+ * The server only listens on loopback unless given a host to bind to.
+ * Responses go out as two writes, headers then body, so the accepted sockets need
+ * TCP_NODELAY, or each response waits for the client's delayed ACK (about 40 ms on
+ * Linux). The JDK server takes that from the JVM-wide "sun.net.httpserver.nodelay"
+ * property, which callers set at startup, before the first server is created
+ * (see {@link com.airtribe.learntrack.Main}).
+ */
+public class ApiServer {
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 1000;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final Logger LOG = Logger.getLogger(ApiServer.class.getName());
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+
+    private ApiServer(HttpServer server, ExecutorService executor, StudentService studentService,
+                      CourseService courseService, EnrollmentService enrollmentService) {
+        this.server = server;
+        this.executor = executor;
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+    }
+
+    /**
+     * Starts a server on the loopback interface, reachable from this machine only.
+     * @param port the port, or 0 to pick a free one
+     * @param studentService the student service
+     * @param courseService the course service
+     * @param enrollmentService the enrollment service
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static ApiServer start(int port, StudentService studentService, CourseService courseService,
+                                  EnrollmentService enrollmentService) throws IOException {
+        return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), studentService,
+                courseService, enrollmentService);
+    }
+
+    /**
+     * Starts a server on the given address. Bind to a wildcard or external address only
+     * behind something that controls who can reach it; the API has no authentication.
+     * @param address the address and port, port 0 to pick a free one
+     * @param studentService the student service
+     * @param courseService the course service
+     * @param enrollmentService the enrollment service
+     * @return the running server
+     * @throws IOException if the port cannot be bound
+     */
+    public static ApiServer start(InetSocketAddress address, StudentService studentService,
+                                  CourseService courseService, EnrollmentService enrollmentService)
+            throws IOException {
+        HttpServer server = HttpServer.create(address, 1024);
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("learntrack-http",
+                Math.max(16, Runtime.getRuntime().availableProcessors() * 8));
+        ApiServer api = new ApiServer(server, executor, studentService, courseService, enrollmentService);
+        server.createContext("/students", exchange -> api.handle(exchange, api::students));
+        server.createContext("/courses", exchange -> api.handle(exchange, api::courses));
+        server.createContext("/enrollments", exchange -> api.handle(exchange, api::enrollments));
+        server.createContext("/stats", exchange -> api.handle(exchange, api::stats));
+        server.setExecutor(executor);
+        server.start();
+        return api;
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     * @return the bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the address the server is listening on.
+     * @return the bound address and port
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stops accepting requests, gives running ones up to a second to finish, and stops the workers.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    private String students(Request request)
+            throws EntityNotFoundException, InvalidInputException, DuplicateEntityException, IOException {
+        StringBuilder out = new StringBuilder(256);
+        if (request.path.length == 0 && request.isGet() && request.query.containsKey("email")) {
+            Json.student(out, studentService.findStudentByEmail(request.query.get("email")));
+        } else if (request.path.length == 0 && request.isGet() && request.query.containsKey("q")) {
+            Json.array(out, studentService.searchStudents(request.query.get("q"), request.limit()), Json::student);
+        } else if (request.path.length == 0 && request.isGet()) {
+            Json.page(out, studentService.getStudentsPage(request.offset(), request.limit()), Json::student);
+        } else if (request.path.length == 1 && request.isGet()) {
+            Json.student(out, studentService.findStudentById(request.id(0)));
+        } else if (request.path.length == 0 && request.isPost()) {
+            Map<String, String> body = request.body();
+            String firstName = required(body, "firstName");
+            String lastName = required(body, "lastName");
+            String batch = required(body, "batch");
+            String email = body.get("email");
+            Student student;
+            if (email == null || email.isEmpty()) {
+                student = studentService.addStudent(firstName, lastName, batch);
+            } else if (InputValidator.isValidEmail(email)) {
+                student = studentService.addStudent(firstName, lastName, email, batch);
+            } else {
+                throw new InvalidInputException("Invalid email format: " + email);
+            }
+            request.status = 201;
+            Json.student(out, student);
+        } else {
+            return request.notFound();
+        }
+        return out.toString();
+    }
+
+    private String courses(Request request)
+            throws EntityNotFoundException, InvalidInputException, IOException {
+        StringBuilder out = new StringBuilder(256);
+        if (request.path.length == 0 && request.isGet()) {
+            Json.page(out, courseService.getCoursesPage(request.offset(), request.limit()), Json::course);
+        } else if (request.path.length == 1 && request.isGet()) {
+            Json.course(out, courseService.findCourseById(request.id(0)));
+        } else if (request.path.length == 2 && request.isGet() && request.path[1].equals("stats")) {
+            Json.enrollmentCounts(out, enrollmentService.getEnrollmentCountsByCourse(request.id(0)));
+        } else if (request.path.length == 2 && request.isGet() && request.path[1].equals("waitlist")) {
+            Json.array(out, enrollmentService.getWaitlist(request.id(0)), Json::enrollment);
+        } else if (request.path.length == 2 && request.isPost() && request.path[1].equals("capacity")) {
+            int id = request.id(0);
+            List<Enrollment> promoted = enrollmentService.setCourseCapacity(id,
+                    capacity(required(request.body(), "capacity")));
+            out.append("{\"course\":");
+            Json.course(out, courseService.findCourseById(id));
+            out.append(",\"promoted\":");
+            Json.array(out, promoted, Json::enrollment);
+            out.append('}');
+        } else if (request.path.length == 0 && request.isPost()) {
+            Map<String, String> body = request.body();
+            String courseName = required(body, "courseName");
+            String description = required(body, "description");
+            int duration = integer(required(body, "durationInWeeks"), "durationInWeeks");
+            if (duration <= 0) {
+                throw new InvalidInputException("Duration must be greater than 0.");
+            }
+            String capacity = body.get("capacity");
+            Course course = courseService.addCourse(courseName, description, duration,
+                    capacity == null ? Course.UNLIMITED_CAPACITY : capacity(capacity));
+            request.status = 201;
+            Json.course(out, course);
+        } else {
+            return request.notFound();
+        }
+        return out.toString();
+    }
+
+    private String enrollments(Request request)
+            throws EntityNotFoundException, InvalidInputException, DuplicateEntityException, IOException {
+        StringBuilder out = new StringBuilder(256);
+        if (request.path.length == 0 && request.isGet()) {
+            String studentId = request.query.get("studentId");
+            String courseId = request.query.get("courseId");
+            if (studentId != null) {
+                Json.array(out, enrollmentService.getEnrollmentsByStudent(integer(studentId, "studentId")),
+                        Json::enrollment);
+            } else if (courseId != null) {
+                Json.array(out, enrollmentService.getEnrollmentsByCourse(integer(courseId, "courseId")),
+                        Json::enrollment);
+            } else {
+                Json.page(out, enrollmentService.getEnrollmentsPage(request.offset(), request.limit()),
+                        Json::enrollment);
+            }
+        } else if (request.path.length == 1 && request.isGet()) {
+            Json.enrollment(out, enrollmentService.findEnrollmentById(request.id(0)));
+        } else if (request.path.length == 0 && request.isPost()) {
+            Map<String, String> body = request.body();
+            int studentId = integer(required(body, "studentId"), "studentId");
+            int courseId = integer(required(body, "courseId"), "courseId");
+            Enrollment enrollment;
+            try {
+                enrollment = enrollmentService.enrollStudent(studentId, courseId);
+                request.status = 201;
+            } catch (DuplicateEntityException e) {
+                // Enrolling is idempotent, so a retried request gets the enrollment the first one made
+                enrollment = enrollmentService.findOpenEnrollment(studentId, courseId);
+                if (enrollment == null) {
+                    throw e;
+                }
+            }
+            Json.enrollment(out, enrollment);
+        } else if (request.path.length == 2 && request.isPost() && request.path[1].equals("complete")) {
+            int id = request.id(0);
+            enrollmentService.markEnrollmentCompleted(id);
+            Json.enrollment(out, enrollmentService.findEnrollmentById(id));
+        } else if (request.path.length == 2 && request.isPost() && request.path[1].equals("cancel")) {
+            int id = request.id(0);
+            enrollmentService.markEnrollmentCancelled(id);
+            Json.enrollment(out, enrollmentService.findEnrollmentById(id));
+        } else {
+            return request.notFound();
+        }
+        return out.toString();
+    }
+
+    // Totals come from running counters, so this is cheap enough for a dashboard to poll
+    private String stats(Request request) {
+        if (request.path.length != 0 || !request.isGet()) {
+            return request.notFound();
+        }
+        StringBuilder out = new StringBuilder(256);
+        out.append("{\"students\":");
+        Json.activeCounts(out, studentService.getStudentCounts());
+        out.append(",\"courses\":");
+        Json.activeCounts(out, courseService.getCourseCounts());
+        out.append(",\"enrollments\":");
+        Json.enrollmentCounts(out, enrollmentService.getEnrollmentCounts());
+        out.append(",\"batches\":");
+        Json.map(out, studentService.getStudentCountsByBatch(), Json::activeCounts);
+        out.append(",\"batchNames\":");
+        Json.dictionary(out, studentService.getBatchNameStats());
+        return out.append('}').toString();
+    }
+
+    // Runs a route and maps its outcome to a status code and JSON body
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Request request = new Request(exchange);
+        String body;
+        try {
+            body = route.handle(request);
+        } catch (EntityNotFoundException e) {
+            request.status = 404;
+            body = Json.error(e.getMessage());
+        } catch (InvalidInputException e) {
+            request.status = 400;
+            body = Json.error(e.getMessage());
+        } catch (DuplicateEntityException e) {
+            request.status = 409;
+            body = Json.error(e.getMessage());
+        } catch (RuntimeException | IOException e) {
+            // The message may reveal internals, so the client only learns that it failed
+            LOG.log(Level.SEVERE, exchange.getRequestMethod() + " " + exchange.getRequestURI() + " failed", e);
+            request.status = 500;
+            body = Json.error("Internal server error.");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(request.status, bytes.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(bytes);
+        }
+    }
+
+    private static String required(Map<String, String> body, String field) throws InvalidInputException {
+        String value = body.get(field);
+        if (!InputValidator.isValidString(value)) {
+            throw new InvalidInputException("Field '" + field + "' is required.");
+        }
+        return value.trim();
+    }
+
+    private static int integer(String value, String field) throws InvalidInputException {
+        if (!InputValidator.isValidInteger(value)) {
+            throw new InvalidInputException("Field '" + field + "' is not a valid number: " + value);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static int capacity(String value) throws InvalidInputException {
+        int capacity = integer(value, "capacity");
+        if (capacity < 0) {
+            throw new InvalidInputException("Capacity must not be negative.");
+        }
+        return capacity;
+    }
+
+    /**
+     * Handles one request and returns the JSON response body.
+     */
+    @FunctionalInterface
+    private interface Route {
+        String handle(Request request)
+                throws EntityNotFoundException, InvalidInputException, DuplicateEntityException, IOException;
+    }
+
+    // One parsed request: the path segments after the context, query parameters and status to send
+    private static final class Request {
+        private final HttpExchange exchange;
+        private final String[] path;
+        private final Map<String, String> query;
+        private int status = 200;
+
+        Request(HttpExchange exchange) {
+            this.exchange = exchange;
+            String full = exchange.getRequestURI().getPath();
+            String rest = full.substring(exchange.getHttpContext().getPath().length());
+            if (rest.startsWith("/")) {
+                rest = rest.substring(1);
+            }
+            if (rest.endsWith("/")) {
+                rest = rest.substring(0, rest.length() - 1);
+            }
+            this.path = rest.isEmpty() ? new String[0] : rest.split("/");
+            this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+        }
+
+        boolean isGet() {
+            return exchange.getRequestMethod().equals("GET");
+        }
+
+        boolean isPost() {
+            return exchange.getRequestMethod().equals("POST");
+        }
+
+        int id(int segment) throws InvalidInputException {
+            return integer(path[segment], "id");
+        }
+
+        int offset() throws InvalidInputException {
+            String value = query.get("offset");
+            int offset = value == null ? 0 : integer(value, "offset");
+            if (offset < 0) {
+                throw new InvalidInputException("offset must not be negative");
+            }
+            return offset;
+        }
+
+        int limit() throws InvalidInputException {
+            String value = query.get("limit");
+            int limit = value == null ? DEFAULT_LIMIT : integer(value, "limit");
+            if (limit < 0 || limit > MAX_LIMIT) {
+                throw new InvalidInputException("limit must be between 0 and " + MAX_LIMIT);
+            }
+            return limit;
+        }
+
+        Map<String, String> body() throws InvalidInputException, IOException {
+            try (InputStream in = exchange.getRequestBody()) {
+                byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+                if (bytes.length > MAX_BODY_BYTES) {
+                    throw new InvalidInputException("Request body is too large");
+                }
+                return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+            }
+        }
+
+        String notFound() {
+            status = 404;
+            return Json.error("No route for " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath());
+        }
+
+        private static Map<String, String> parseQuery(String rawQuery) {
+            Map<String, String> parameters = new HashMap<>();
+            if (rawQuery == null || rawQuery.isEmpty()) {
+                return parameters;
+            }
+            for (String pair : rawQuery.split("&")) {
+                int equals = pair.indexOf('=');
+                String name = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+            return parameters;
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.airtribe.learntrack.api;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.repository.DictionaryStats;
+import com.airtribe.learntrack.repository.EnrollmentCounts;
+import com.airtribe.learntrack.util.Page;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the HTTP API: writes entities and pages, and reads the
+ * flat request objects the API accepts (string, number, boolean and null values only).
+ */
+final class Json {
+
+    // Private constructor to prevent instantiation
+    private Json() {
+    }
+
+    /**
+     * Appends a student as a JSON object.
+     * @param out the buffer
+     * @param student the student
+     */
+    static void student(StringBuilder out, Student student) {
+        out.append("{\"id\":").append(student.getId());
+        field(out, "firstName", student.getFirstName());
+        field(out, "lastName", student.getLastName());
+        field(out, "email", student.getEmail());
+        field(out, "batch", student.getBatch());
+        out.append(",\"active\":").append(student.isActive()).append('}');
+    }
+
+    /**
+     * Appends a course as a JSON object.
+     * @param out the buffer
+     * @param course the course
+     */
+    static void course(StringBuilder out, Course course) {
+        out.append("{\"id\":").append(course.getId());
+        field(out, "courseName", course.getCourseName());
+        field(out, "description", course.getDescription());
+        out.append(",\"durationInWeeks\":").append(course.getDurationInWeeks());
+        out.append(",\"capacity\":").append(course.getCapacity());
+        out.append(",\"active\":").append(course.isActive()).append('}');
+    }
+
+    /**
+     * Appends an enrollment as a JSON object.
+     * @param out the buffer
+     * @param enrollment the enrollment
+     */
+    static void enrollment(StringBuilder out, Enrollment enrollment) {
+        out.append("{\"id\":").append(enrollment.getId());
+        out.append(",\"studentId\":").append(enrollment.getStudentId());
+        out.append(",\"courseId\":").append(enrollment.getCourseId());
+        field(out, "enrollmentDate", String.valueOf(enrollment.getEnrollmentDate()));
+        field(out, "status", enrollment.getStatus().name());
+        out.append('}');
+    }
+
+    /**
+     * Appends a dictionary's size as {"values":..,"references":..,"savedBytes":..}.
+     * @param out the buffer
+     * @param stats the dictionary's size
+     */
+    static void dictionary(StringBuilder out, DictionaryStats stats) {
+        out.append("{\"values\":").append(stats.getValues())
+                .append(",\"references\":").append(stats.getReferences())
+                .append(",\"savedBytes\":").append(stats.getSavedBytes()).append('}');
+    }
+
+    /**
+     * Appends counts as {"total":..,"active":..}.
+     * @param out the buffer
+     * @param counts the counts
+     */
+    static void activeCounts(StringBuilder out, ActiveCounts counts) {
+        out.append("{\"total\":").append(counts.getTotal())
+                .append(",\"active\":").append(counts.getActive()).append('}');
+    }
+
+    /**
+     * Appends enrollment counts as {"total":..,"ACTIVE":..,..} with one field per status.
+     * @param out the buffer
+     * @param counts the counts
+     */
+    static void enrollmentCounts(StringBuilder out, EnrollmentCounts counts) {
+        out.append("{\"total\":").append(counts.getTotal());
+        for (EnrollmentStatus status : EnrollmentStatus.values()) {
+            out.append(",\"").append(status.name()).append("\":").append(counts.get(status));
+        }
+        out.append('}');
+    }
+
+    /**
+     * Appends a map with string keys as a JSON object.
+     * @param out the buffer
+     * @param items the entries, written in the map's order
+     * @param writer appends one value
+     */
+    static <T> void map(StringBuilder out, Map<String, T> items, ItemWriter<T> writer) {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, T> entry : items.entrySet()) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+            string(out, entry.getKey());
+            out.append(':');
+            writer.write(out, entry.getValue());
+        }
+        out.append('}');
+    }
+
+    /**
+     * Appends a list as a JSON array.
+     * @param out the buffer
+     * @param items the items
+     * @param writer appends one item
+     */
+    static <T> void array(StringBuilder out, List<T> items, ItemWriter<T> writer) {
+        out.append('[');
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            writer.write(out, items.get(i));
+        }
+        out.append(']');
+    }
+
+    /**
+     * Appends a page as {"offset":..,"total":..,"items":[..]}.
+     * @param out the buffer
+     * @param page the page
+     * @param writer appends one item
+     */
+    static <T> void page(StringBuilder out, Page<T> page, ItemWriter<T> writer) {
+        out.append("{\"offset\":").append(page.getOffset())
+                .append(",\"total\":").append(page.getTotalCount())
+                .append(",\"items\":");
+        array(out, page.getItems(), writer);
+        out.append('}');
+    }
+
+    /**
+     * Builds an {"error": message} body.
+     * @param message the message
+     * @return the JSON text
+     */
+    static String error(String message) {
+        StringBuilder out = new StringBuilder(message.length() + 16).append('{');
+        string(out.append("\"error\":"), message);
+        return out.append('}').toString();
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        out.append(",\"").append(name).append("\":");
+        string(out, value);
+    }
+
+    private static void string(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    /**
+     * Parses a flat JSON object. Values are returned as text (null for JSON null);
+     * nested objects and arrays are rejected.
+     * @param text the request body
+     * @return field name to value
+     * @throws InvalidInputException if the body is not a flat JSON object
+     */
+    static Map<String, String> parseObject(String text) throws InvalidInputException {
+        Parser parser = new Parser(text);
+        Map<String, String> fields = new HashMap<>();
+        parser.skipWhitespace();
+        parser.expect('{');
+        parser.skipWhitespace();
+        if (parser.peek() == '}') {
+            parser.position++;
+        } else {
+            while (true) {
+                parser.skipWhitespace();
+                String name = parser.readString();
+                parser.skipWhitespace();
+                parser.expect(':');
+                parser.skipWhitespace();
+                fields.put(name, parser.readValue());
+                parser.skipWhitespace();
+                if (parser.peek() == ',') {
+                    parser.position++;
+                } else {
+                    parser.expect('}');
+                    break;
+                }
+            }
+        }
+        parser.skipWhitespace();
+        if (parser.position != text.length()) {
+            throw new InvalidInputException("Unexpected content after JSON object");
+        }
+        return fields;
+    }
+
+    /**
+     * Appends one item of an array.
+     */
+    @FunctionalInterface
+    interface ItemWriter<T> {
+        void write(StringBuilder out, T item);
+    }
+
+    // Cursor over the request body
+    private static final class Parser {
+        private final String text;
+        private int position;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        char peek() throws InvalidInputException {
+            if (position >= text.length()) {
+                throw new InvalidInputException("Unexpected end of JSON");
+            }
+            return text.charAt(position);
+        }
+
+        void expect(char c) throws InvalidInputException {
+            if (peek() != c) {
+                throw new InvalidInputException("Expected '" + c + "' at position " + position);
+            }
+            position++;
+        }
+
+        void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        String readValue() throws InvalidInputException {
+            char c = peek();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw new InvalidInputException("Nested JSON values are not supported");
+            }
+            int start = position;
+            while (position < text.length() && ",} \t\r\n".indexOf(text.charAt(position)) < 0) {
+                position++;
+            }
+            String literal = text.substring(start, position);
+            if (literal.isEmpty()) {
+                throw new InvalidInputException("Missing value at position " + start);
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        String readString() throws InvalidInputException {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = peek();
+                position++;
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = peek();
+                position++;
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw new InvalidInputException("Bad unicode escape in JSON string");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw new InvalidInputException("Bad unicode escape in JSON string");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.service.AsyncCourseService;
+import com.airtribe.learntrack.service.AsyncEnrollmentService;
+import com.airtribe.learntrack.service.AsyncStudentService;
+import com.airtribe.learntrack.service.CourseService;
+import com.airtribe.learntrack.service.EnrollmentDetails;
+import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.StudentService;
+import com.airtribe.learntrack.util.VirtualThreads;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Builds enrollment reports (each of a student's enrollments with its course) through the
+ * blocking services, one lookup after another, and through the async services, which
+ * fan out every report's lookups at once and fan them back in.
+ * Runs twice: against the in-memory services, where each lookup takes well under a
+ * microsecond and the async API can only add overhead, and against services whose student
+ * and course lookups wait a fixed time, as a remote store or directory would.
+ * Every async report is checked against the blocking one, and a report for an unknown
+ * student must fail with EntityNotFoundException.
+ * Usage: AsyncServiceBenchmark [reports] [lookupMicros] [fallbackThreads]
+ *   (defaults: 500, 1,000 and 256; fallbackThreads sizes the pool used when the JDK
+ *   has no virtual threads)
+ */
+public class AsyncServiceBenchmark {
+    private static final int STUDENTS = 10_000;
+    private static final int COURSES = 100;
+    private static final int COURSES_PER_STUDENT = 5;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        int reports = BenchmarkSupport.intArg(args, 0, 500);
+        int lookupMicros = BenchmarkSupport.intArg(args, 1, 1_000);
+        int fallbackThreads = BenchmarkSupport.intArg(args, 2, 256);
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor("learntrack-async", fallbackThreads);
+        System.out.println(String.format("Virtual threads: %s",
+                VirtualThreads.isAvailable() ? "yes" : "no, pool of " + fallbackThreads + " platform threads"));
+        try {
+            System.out.println("\n--- In-memory lookups: " + reports * 10 + " reports ---");
+            compare(new StudentService(new StudentRepository()), new CourseService(new CourseRepository()),
+                    reports * 10, executor);
+
+            long lookupNanos = lookupMicros * 1_000L;
+            System.out.println("\n--- Lookups waiting " + lookupMicros + " us: " + reports + " reports ---");
+            compare(new SlowStudentService(new StudentRepository(), lookupNanos),
+                    new SlowCourseService(new CourseRepository(), lookupNanos), reports, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void compare(StudentService studentService, CourseService courseService, int reports,
+                                ExecutorService executor) throws Exception {
+        EnrollmentService enrollmentService = new EnrollmentService(new EnrollmentRepository(), studentService,
+                courseService);
+        int[] studentIds = seed(studentService, courseService, enrollmentService);
+        AsyncStudentService asyncStudents = new AsyncStudentService(studentService, executor);
+        AsyncCourseService asyncCourses = new AsyncCourseService(courseService, executor);
+        AsyncEnrollmentService asyncEnrollments = new AsyncEnrollmentService(enrollmentService, asyncStudents,
+                asyncCourses, executor);
+        int[] targets = new int[reports];
+        for (int i = 0; i < reports; i++) {
+            targets[i] = studentIds[(int) ((i * 7919L) % studentIds.length)];
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            List<List<String>> expected = new ArrayList<>(reports);
+            for (int studentId : targets) {
+                expected.add(blockingReport(studentService, courseService, enrollmentService, studentId));
+            }
+            BenchmarkSupport.report("blocking reports (round " + round + ")", reports, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            List<CompletableFuture<List<EnrollmentDetails>>> pending = new ArrayList<>(reports);
+            for (int studentId : targets) {
+                pending.add(asyncEnrollments.getEnrollmentDetailsByStudent(studentId));
+            }
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).join();
+            BenchmarkSupport.report("async reports (round " + round + ")", reports, System.nanoTime() - start);
+
+            for (int i = 0; i < reports; i++) {
+                check(expected.get(i), pending.get(i).join());
+            }
+        }
+        checkFailure(asyncEnrollments);
+    }
+
+    private static int[] seed(StudentService studentService, CourseService courseService,
+                              EnrollmentService enrollmentService) throws Exception {
+        int[] studentIds = new int[STUDENTS];
+        for (int i = 0; i < STUDENTS; i++) {
+            studentIds[i] = studentService.addStudent("First" + i, "Last" + i, "Batch-" + (i % 40)).getId();
+        }
+        int[] courseIds = new int[COURSES];
+        for (int i = 0; i < COURSES; i++) {
+            courseIds[i] = courseService.addCourse("Course " + i, "Description " + i, 4 + i % 8).getId();
+        }
+        int[] pairedCourses = new int[STUDENTS];
+        for (int c = 0; c < COURSES_PER_STUDENT; c++) {
+            for (int i = 0; i < STUDENTS; i++) {
+                pairedCourses[i] = courseIds[(i + c * 17) % COURSES];
+            }
+            enrollmentService.enrollAll(studentIds, pairedCourses);
+        }
+        return studentIds;
+    }
+
+    // The report built one call at a time, as a caller of the blocking API would
+    private static List<String> blockingReport(StudentService studentService, CourseService courseService,
+                                               EnrollmentService enrollmentService, int studentId)
+            throws EntityNotFoundException {
+        Student student = studentService.findStudentById(studentId);
+        List<Enrollment> enrollments = enrollmentService.getEnrollmentsByStudent(studentId);
+        List<String> report = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            Course course = courseService.findCourseById(enrollment.getCourseId());
+            report.add(line(enrollment, student, course));
+        }
+        return report;
+    }
+
+    private static String line(Enrollment enrollment, Student student, Course course) {
+        return enrollment.getId() + " " + student.getFirstName() + " " + course.getCourseName();
+    }
+
+    private static void check(List<String> expected, List<EnrollmentDetails> actual) {
+        List<String> lines = new ArrayList<>(actual.size());
+        for (EnrollmentDetails details : actual) {
+            lines.add(line(details.getEnrollment(), details.getStudent(), details.getCourse()));
+        }
+        if (!lines.equals(expected)) {
+            throw new IllegalStateException("Async report " + lines + " differs from blocking report " + expected);
+        }
+    }
+
+    private static void checkFailure(AsyncEnrollmentService asyncEnrollments) throws InterruptedException {
+        try {
+            asyncEnrollments.getEnrollmentDetailsByStudent(-1).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EntityNotFoundException) {
+                return;
+            }
+            throw new IllegalStateException("Report for an unknown student failed with " + e.getCause(), e);
+        }
+        throw new IllegalStateException("Report for an unknown student did not fail");
+    }
+
+    /**
+     * StudentService whose lookups by ID wait a fixed time before answering.
+     */
+    private static final class SlowStudentService extends StudentService {
+        private final long lookupNanos;
+
+        private SlowStudentService(StudentRepository studentRepository, long lookupNanos) {
+            super(studentRepository);
+            this.lookupNanos = lookupNanos;
+        }
+
+        @Override
+        public Student findStudentById(int id) throws EntityNotFoundException {
+            LockSupport.parkNanos(lookupNanos);
+            return super.findStudentById(id);
+        }
+    }
+
+    /**
+     * CourseService whose lookups by ID wait a fixed time before answering.
+     */
+    private static final class SlowCourseService extends CourseService {
+        private final long lookupNanos;
+
+        private SlowCourseService(CourseRepository courseRepository, long lookupNanos) {
+            super(courseRepository);
+            this.lookupNanos = lookupNanos;
+        }
+
+        @Override
+        public Course findCourseById(int id) throws EntityNotFoundException {
+            LockSupport.parkNanos(lookupNanos);
+            return super.findCourseById(id);
+        }
+    }
+}
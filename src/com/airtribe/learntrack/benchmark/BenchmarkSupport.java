@@ -0,0 +1,65 @@
+package com.airtribe.learntrack.benchmark;
+
+/**
+ * Shared helpers for the standalone benchmark programs in this package.
+ * Each benchmark is a plain main class so it can run without a build tool:
+ * <pre>
+ *   javac -d bin $(find src -name "*.java")
+ *   java -Xmx4g -cp bin com.airtribe.learntrack.benchmark.IntMapBenchmark
+ * </pre>
+ */
+public class BenchmarkSupport {
+
+    // Private constructor to prevent instantiation
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Returns the heap in use after requesting a few GC cycles.
+     * @return used heap in bytes
+     */
+    public static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Parses an integer program argument, falling back to a default.
+     * @param args program arguments
+     * @param index argument position
+     * @param defaultValue value used when the argument is missing
+     * @return the parsed value
+     */
+    public static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+
+    /**
+     * Formats a byte count in megabytes.
+     * @param bytes the byte count
+     * @return formatted value such as "12.5 MB"
+     */
+    public static String megabytes(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    /**
+     * Prints one result line: name, nanoseconds per operation and operations per second.
+     * @param name the measured operation
+     * @param operations number of operations performed
+     * @param elapsedNanos total elapsed time
+     */
+    public static void report(String name, long operations, long elapsedNanos) {
+        double nanosPerOp = (double) elapsedNanos / operations;
+        double opsPerSecond = operations * 1_000_000_000.0 / elapsedNanos;
+        System.out.println(String.format("%-40s %10.1f ns/op %14.0f ops/s", name, nanosPerOp, opsPerSecond));
+    }
+}
@@ -0,0 +1,205 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.BackpressurePolicy;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.events.ChangeEvent;
+import com.airtribe.learntrack.events.ChangeStream;
+import com.airtribe.learntrack.events.ChangeSubscriber;
+import com.airtribe.learntrack.events.ChangeSubscription;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Three writers, one per repository, publishing into a change stream read by a fast
+ * subscriber and a slow one that pauses after every batch, as a call to a remote system
+ * would. Write throughput with the stream is compared with no subscribers at all, under
+ * each backpressure policy.
+ * Each run checks that every subscriber saw sequence numbers without gaps, that each
+ * event carried the record as that change left it, and, under BLOCK, that nothing was
+ * lost: every enrollment's status change came after its addition, to every subscriber.
+ * Under DROP, every mutation is either delivered or counted as dropped.
+ * Usage: ChangeStreamBenchmark [mutationsPerWriter] [capacity]  (defaults: 200,000 and 1,024)
+ */
+public class ChangeStreamBenchmark {
+    private static final int WRITERS = 3;
+    private static final long SLOW_PAUSE_NANOS = 200_000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) throws InterruptedException {
+        int perWriter = BenchmarkSupport.intArg(args, 0, 200_000) / 2 * 2;
+        int capacity = BenchmarkSupport.intArg(args, 1, 1_024);
+        System.out.println("--- " + WRITERS + " writers x " + perWriter + " mutations, ring of " + capacity + " ---");
+        for (int round = 0; round < ROUNDS; round++) {
+            run("no subscribers (round " + round + ")", perWriter, capacity, null);
+            run("BLOCK (round " + round + ")", perWriter, capacity, BackpressurePolicy.BLOCK);
+            run("DROP (round " + round + ")", perWriter, capacity, BackpressurePolicy.DROP);
+        }
+    }
+
+    // A null policy runs the writers with the stream attached but nobody subscribed
+    private static void run(String name, int perWriter, int capacity, BackpressurePolicy policy)
+            throws InterruptedException {
+        StudentRepository students = new StudentRepository();
+        CourseRepository courses = new CourseRepository();
+        EnrollmentRepository enrollments = new EnrollmentRepository();
+        ChangeStream stream = new ChangeStream(capacity, policy == null ? BackpressurePolicy.BLOCK : policy);
+        stream.attach(students, courses, enrollments);
+        Checker fast = new Checker(0, policy == BackpressurePolicy.BLOCK, perWriter);
+        Checker slow = new Checker(SLOW_PAUSE_NANOS, policy == BackpressurePolicy.BLOCK, perWriter);
+        ChangeSubscription fastSubscription = null;
+        ChangeSubscription slowSubscription = null;
+        if (policy != null) {
+            fastSubscription = stream.subscribe("fast", fast);
+            slowSubscription = stream.subscribe("slow", slow);
+        }
+
+        Thread[] writers = {
+                new Thread(() -> writeStudents(students, perWriter)),
+                new Thread(() -> writeCourses(courses, perWriter)),
+                new Thread(() -> writeEnrollments(enrollments, perWriter))
+        };
+        long start = System.nanoTime();
+        for (Thread writer : writers) {
+            writer.start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        stream.close();
+        BenchmarkSupport.report(name, (long) WRITERS * perWriter, elapsed);
+        if (policy == null) {
+            return;
+        }
+
+        long mutations = (long) WRITERS * perWriter;
+        if (stream.getPublished() + stream.getDropped() != mutations) {
+            throw new IllegalStateException("Published " + stream.getPublished() + " and dropped "
+                    + stream.getDropped() + " of " + mutations + " mutations");
+        }
+        fast.verify("fast", fastSubscription, stream);
+        slow.verify("slow", slowSubscription, stream);
+        System.out.println(String.format("    published %d, dropped %d, blocked writes %d; "
+                        + "fast %d events in %d batches, slow %d events in %d batches",
+                stream.getPublished(), stream.getDropped(), stream.getBlocked(),
+                fastSubscription.getDelivered(), fastSubscription.getBatches(),
+                slowSubscription.getDelivered(), slowSubscription.getBatches()));
+    }
+
+    private static void writeStudents(StudentRepository students, int count) {
+        for (int i = 0; i < count; i++) {
+            students.addStudent(new Student(1001 + i, "First", "Last", "student" + i + "@example.com",
+                    "Batch-" + (i % 20), true));
+        }
+    }
+
+    // Adds half the courses, then deactivates them
+    private static void writeCourses(CourseRepository courses, int count) {
+        for (int i = 0; i < count / 2; i++) {
+            courses.addCourse(new Course(2001 + i, "Course " + i, "Description", 8, true));
+        }
+        for (int i = 0; i < count / 2; i++) {
+            courses.deactivateCourse(2001 + i);
+        }
+    }
+
+    // Completes each enrollment right after adding it
+    private static void writeEnrollments(EnrollmentRepository enrollments, int count) {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < count / 2; i++) {
+            enrollments.addEnrollment(new Enrollment(3001 + i, 1001 + i, 2001 + i % 100, today));
+            enrollments.updateStatus(3001 + i, EnrollmentStatus.COMPLETED);
+        }
+    }
+
+    /**
+     * Checks the events one subscriber receives. Runs only on the subscriber's thread;
+     * the results are read after the stream is closed, which waits for that thread.
+     */
+    private static final class Checker implements ChangeSubscriber {
+        private final long pauseNanos;
+        private final boolean lossless;
+        private final BitSet addedEnrollments;
+        private long lastSequence = -1;
+        private long received;
+        private String problem;
+
+        private Checker(long pauseNanos, boolean lossless, int perWriter) {
+            this.pauseNanos = pauseNanos;
+            this.lossless = lossless;
+            this.addedEnrollments = new BitSet(perWriter / 2);
+        }
+
+        @Override
+        public void onEvents(List<ChangeEvent> events) {
+            for (ChangeEvent event : events) {
+                check(event);
+                received++;
+            }
+            if (pauseNanos > 0) {
+                LockSupport.parkNanos(pauseNanos);
+            }
+        }
+
+        private void check(ChangeEvent event) {
+            if (lastSequence >= 0 && event.getSequence() != lastSequence + 1) {
+                fail("sequence " + event.getSequence() + " after " + lastSequence);
+            }
+            lastSequence = event.getSequence();
+            MutationType type = event.getMutationType();
+            switch (event.getEntityType()) {
+                case COURSE:
+                    if (event.getCourse().isActive() != (type == MutationType.ADDED)) {
+                        fail("course " + event.getEntityId() + " " + type + " with active="
+                                + event.getCourse().isActive());
+                    }
+                    break;
+                case ENROLLMENT:
+                    int index = event.getEntityId() - 3001;
+                    EnrollmentStatus expected = type == MutationType.ADDED
+                            ? EnrollmentStatus.ACTIVE : EnrollmentStatus.COMPLETED;
+                    if (event.getEnrollment().getStatus() != expected) {
+                        fail("enrollment " + event.getEntityId() + " " + type + " with status "
+                                + event.getEnrollment().getStatus());
+                    }
+                    if (type == MutationType.ADDED) {
+                        addedEnrollments.set(index);
+                    } else if (lossless && !addedEnrollments.get(index)) {
+                        fail("enrollment " + event.getEntityId() + " changed before it was added");
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void fail(String message) {
+            if (problem == null) {
+                problem = message;
+            }
+        }
+
+        private void verify(String name, ChangeSubscription subscription, ChangeStream stream) {
+            if (problem != null) {
+                throw new IllegalStateException("Subscriber " + name + ": " + problem);
+            }
+            if (subscription.getFailures() != 0 || received != subscription.getDelivered()) {
+                throw new IllegalStateException("Subscriber " + name + " received " + received + " of "
+                        + subscription.getDelivered() + " events delivered");
+            }
+            if (received != stream.getPublished()) {
+                throw new IllegalStateException("Subscriber " + name + " received " + received + " of "
+                        + stream.getPublished() + " events published");
+            }
+        }
+    }
+}
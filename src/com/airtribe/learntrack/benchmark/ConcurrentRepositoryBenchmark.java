@@ -0,0 +1,84 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Multi-threaded throughput of one shared StudentRepository and EnrollmentRepository
+ * under a read-mostly mix (90% lookups, 10% adds and updates).
+ * At the end it checks that no add was lost.
+ * Usage: ConcurrentRepositoryBenchmark [preloadedStudents] [secondsPerRun]  (defaults: 100,000 and 3)
+ */
+public class ConcurrentRepositoryBenchmark {
+    private static final int FIRST_STUDENT_ID = 1001;
+    private static final int FIRST_ENROLLMENT_ID = 3001;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    public static void main(String[] args) throws InterruptedException {
+        int preloaded = BenchmarkSupport.intArg(args, 0, 100_000);
+        int seconds = BenchmarkSupport.intArg(args, 1, 3);
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        for (int threads : THREAD_COUNTS) {
+            StudentRepository students = new StudentRepository();
+            EnrollmentRepository enrollments = new EnrollmentRepository();
+            for (int i = 0; i < preloaded; i++) {
+                students.addStudent(new Student(FIRST_STUDENT_ID + i, "First" + i, "Last" + i, "Batch-A"));
+            }
+            AtomicInteger nextStudentId = new AtomicInteger(FIRST_STUDENT_ID + preloaded);
+            AtomicInteger nextEnrollmentId = new AtomicInteger(FIRST_ENROLLMENT_ID);
+            AtomicInteger studentAdds = new AtomicInteger();
+            LongAdder operations = new LongAdder();
+            long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+            CountDownLatch done = new CountDownLatch(threads);
+
+            for (int t = 0; t < threads; t++) {
+                Thread worker = new Thread(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long count = 0;
+                    while (System.nanoTime() < deadline) {
+                        int roll = random.nextInt(100);
+                        int studentId = FIRST_STUDENT_ID + random.nextInt(preloaded);
+                        if (roll < 70) {
+                            students.findById(studentId);
+                        } else if (roll < 90) {
+                            enrollments.findByStudentId(studentId);
+                        } else if (roll < 94) {
+                            int id = nextStudentId.getAndIncrement();
+                            students.addStudent(new Student(id, "New", "Student", "Batch-B"));
+                            studentAdds.incrementAndGet();
+                        } else if (roll < 98) {
+                            enrollments.addEnrollment(new Enrollment(nextEnrollmentId.getAndIncrement(),
+                                    studentId, 2001, LocalDate.now(), EnrollmentStatus.ACTIVE));
+                        } else {
+                            students.deactivateStudent(studentId);
+                        }
+                        count++;
+                    }
+                    operations.add(count);
+                    done.countDown();
+                });
+                worker.start();
+            }
+            done.await();
+
+            long ops = operations.sum();
+            int expectedStudents = preloaded + studentAdds.get();
+            int actualStudents = students.getAllStudents().size();
+            if (actualStudents != expectedStudents) {
+                throw new IllegalStateException("Lost adds: expected " + expectedStudents
+                        + " students, found " + actualStudents);
+            }
+            System.out.println(String.format("%2d threads: %,14.0f ops/s  (%,d students, %,d enrollments)",
+                    threads, ops / (double) seconds, actualStudents, enrollments.getAllEnrollments().size()));
+        }
+    }
+}
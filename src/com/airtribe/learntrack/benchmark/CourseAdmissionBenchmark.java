@@ -0,0 +1,174 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.RepositoryListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Many threads enrolling into one course with a seat limit, then cancelling seats
+ * while waitlisted enrollments are promoted into them.
+ * Each run checks that the course was never over capacity at any point, that the
+ * first enrollments to arrive got the seats and the rest were waitlisted in arrival
+ * order, and that freed seats went to the waitlist in that same order. Admission
+ * throughput into the one hot course is compared with the same load spread over
+ * many courses.
+ * Usage: CourseAdmissionBenchmark [enrollmentsPerRun] [capacity]  (defaults: 200,000 and 1,000)
+ */
+public class CourseAdmissionBenchmark {
+    private static final int HOT_COURSE_ID = 1;
+    private static final int SPREAD_COURSES = 1_000;
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8, 16};
+
+    public static void main(String[] args) throws InterruptedException {
+        int enrollments = BenchmarkSupport.intArg(args, 0, 200_000);
+        int capacity = BenchmarkSupport.intArg(args, 1, 1_000);
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+
+        for (int threads : THREAD_COUNTS) {
+            hotCourse(threads, enrollments, capacity);
+            spreadCourses(threads, enrollments, capacity);
+        }
+    }
+
+    private static void hotCourse(int threads, int enrollments, int capacity) throws InterruptedException {
+        EnrollmentRepository repository = new EnrollmentRepository();
+        SeatAudit audit = new SeatAudit();
+        repository.addListener(audit);
+
+        AtomicInteger nextId = new AtomicInteger(1);
+        long admitNanos = runThreads(threads, thread -> {
+            for (int i = thread; i < enrollments; i += threads) {
+                repository.addEnrollment(enrollment(nextId.getAndIncrement(), i, HOT_COURSE_ID), capacity);
+            }
+        });
+
+        // Admission order is the order the listener saw the adds, under the write lock
+        int seated = Math.min(capacity, enrollments);
+        List<Integer> arrivals = audit.added;
+        for (int i = 0; i < arrivals.size(); i++) {
+            EnrollmentStatus expected = i < seated ? EnrollmentStatus.ACTIVE : EnrollmentStatus.WAITLISTED;
+            if (repository.findById(arrivals.get(i)).getStatus() != expected) {
+                throw new IllegalStateException("Arrival " + i + " should be " + expected);
+            }
+        }
+        List<Integer> waitlist = ids(repository.findWaitlistByCourseId(HOT_COURSE_ID));
+        if (!waitlist.equals(arrivals.subList(seated, arrivals.size()))) {
+            throw new IllegalStateException("Waitlist is not in arrival order");
+        }
+
+        // Free seats from every thread at once; each cancel promotes whoever waited longest
+        int cancels = Math.min(seated, waitlist.size());
+        long cancelNanos = runThreads(threads, thread -> {
+            for (int i = thread; i < cancels; i += threads) {
+                repository.updateStatus(arrivals.get(i), EnrollmentStatus.CANCELLED);
+                repository.promoteWaitlisted(HOT_COURSE_ID, capacity);
+            }
+        });
+        if (!audit.promoted.equals(waitlist.subList(0, cancels))) {
+            throw new IllegalStateException("Promotions did not follow the waitlist order");
+        }
+        int active = repository.getCountsByCourse(HOT_COURSE_ID).get(EnrollmentStatus.ACTIVE);
+        if (active != seated || audit.maxSeated > capacity) {
+            throw new IllegalStateException("Course over capacity: " + active + " active, peak "
+                    + audit.maxSeated + ", capacity " + capacity);
+        }
+
+        System.out.println(String.format("%2d threads, one course:   %,12.0f admits/s  %,12.0f cancels+promotes/s"
+                        + "  (%,d seated, %,d waitlisted, peak %,d seats)",
+                threads, enrollments * 1e9 / admitNanos, cancels * 1e9 / cancelNanos, active,
+                repository.getCountsByCourse(HOT_COURSE_ID).get(EnrollmentStatus.WAITLISTED), audit.maxSeated));
+    }
+
+    private static void spreadCourses(int threads, int enrollments, int capacity) throws InterruptedException {
+        EnrollmentRepository repository = new EnrollmentRepository();
+        AtomicInteger nextId = new AtomicInteger(1);
+        long admitNanos = runThreads(threads, thread -> {
+            for (int i = thread; i < enrollments; i += threads) {
+                repository.addEnrollment(enrollment(nextId.getAndIncrement(), i, 1 + i % SPREAD_COURSES), capacity);
+            }
+        });
+        System.out.println(String.format("%2d threads, %,d courses: %,12.0f admits/s  (%,d waitlisted)",
+                threads, SPREAD_COURSES, enrollments * 1e9 / admitNanos,
+                repository.getCounts().get(EnrollmentStatus.WAITLISTED)));
+    }
+
+    private static Enrollment enrollment(int id, int studentId, int courseId) {
+        return new Enrollment(id, studentId, courseId, LocalDate.now(), EnrollmentStatus.ACTIVE);
+    }
+
+    private static List<Integer> ids(List<Enrollment> enrollments) {
+        List<Integer> ids = new ArrayList<>(enrollments.size());
+        for (Enrollment enrollment : enrollments) {
+            ids.add(enrollment.getId());
+        }
+        return ids;
+    }
+
+    // Runs the task on each thread at once and returns the wall-clock time until all finish
+    private static long runThreads(int threads, ThreadTask task) throws InterruptedException {
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                    task.run(thread);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        done.await();
+        return System.nanoTime() - start;
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask {
+        void run(int thread);
+    }
+
+    /**
+     * Follows the hot course's seats from the listener, which the repository calls under
+     * its write lock, so it sees every mutation in order and needs no locking of its own.
+     * Only adds, cancels of seated enrollments and promotions happen in this benchmark.
+     */
+    private static final class SeatAudit implements RepositoryListener<Enrollment> {
+        private final List<Integer> added = new ArrayList<>();
+        private final List<Integer> promoted = new ArrayList<>();
+        private int seated;
+        private int maxSeated;
+
+        @Override
+        public void onMutation(MutationType type, Enrollment enrollment) {
+            if (type == MutationType.ADDED) {
+                added.add(enrollment.getId());
+                if (enrollment.getStatus() == EnrollmentStatus.ACTIVE) {
+                    seated++;
+                }
+            } else if (type == MutationType.STATUS_CHANGED) {
+                if (enrollment.getStatus() == EnrollmentStatus.ACTIVE) {
+                    promoted.add(enrollment.getId());
+                    seated++;
+                } else {
+                    seated--;
+                }
+            }
+            maxSeated = Math.max(maxSeated, seated);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.importer.CsvImporter;
+import com.airtribe.learntrack.importer.ImportReport;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.IntStream;
+
+/**
+ * Measures CsvImporter throughput in rows per second for students and enrollments
+ * at several worker counts. About 1% of generated rows are invalid on purpose.
+ * Usage: CsvImportBenchmark [students] [enrollments]  (defaults: 1,000,000 and 2,000,000)
+ */
+public class CsvImportBenchmark {
+    private static final int COURSES = 200;
+
+    public static void main(String[] args) throws IOException {
+        int studentRows = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int enrollmentRows = BenchmarkSupport.intArg(args, 1, 2_000_000);
+
+        Path students = Files.createTempFile("learntrack-students", ".csv");
+        Path courses = Files.createTempFile("learntrack-courses", ".csv");
+        Path enrollments = Files.createTempFile("learntrack-enrollments", ".csv");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(students, StandardCharsets.UTF_8)) {
+                out.write("firstName,lastName,email,batch\n");
+                for (int i = 0; i < studentRows; i++) {
+                    String email = i % 100 == 0 ? "not-an-email" : "student" + i + "@campus.edu";
+                    out.write("First" + i + ",Last" + i + "," + email + ",Batch-" + (i % 40) + "\n");
+                }
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(courses, StandardCharsets.UTF_8)) {
+                out.write("courseName,description,durationInWeeks\n");
+                for (int i = 0; i < COURSES; i++) {
+                    out.write("Course " + i + ",\"Intro, part " + i + "\"," + (4 + i % 8) + "\n");
+                }
+            }
+
+            int[] workerCounts = IntStream.of(1, 2, Runtime.getRuntime().availableProcessors()).distinct().toArray();
+            for (int workers : workerCounts) {
+                StudentRepository studentRepository = new StudentRepository();
+                CourseRepository courseRepository = new CourseRepository();
+                EnrollmentRepository enrollmentRepository = new EnrollmentRepository();
+                CsvImporter importer = new CsvImporter(studentRepository, courseRepository,
+                        enrollmentRepository, workers);
+
+                ImportReport studentReport = importer.importStudents(students);
+                importer.importCourses(courses);
+                int firstStudentId = studentRepository.getAllStudents().get(0).getId();
+                int firstCourseId = courseRepository.getAllCourses().get(0).getId();
+                try (BufferedWriter out = Files.newBufferedWriter(enrollments, StandardCharsets.UTF_8)) {
+                    out.write("studentId,courseId\n");
+                    for (int i = 0; i < enrollmentRows; i++) {
+                        int studentId = i % 100 == 0 ? -1 : firstStudentId + i % (studentRows * 99 / 100);
+                        out.write(studentId + "," + (firstCourseId + i % COURSES) + "\n");
+                    }
+                }
+                ImportReport enrollmentReport = importer.importEnrollments(enrollments);
+
+                System.out.println(workers + " worker(s):");
+                System.out.println("  " + studentReport);
+                System.out.println("  " + enrollmentReport);
+            }
+        } finally {
+            Files.deleteIfExists(students);
+            Files.deleteIfExists(courses);
+            Files.deleteIfExists(enrollments);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.repository.ColumnarEnrollmentStore;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.EnrollmentStore;
+import com.airtribe.learntrack.repository.ObjectEnrollmentStore;
+import com.airtribe.learntrack.repository.OffHeapEnrollmentStore;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the object, columnar and off-heap enrollment stores. With each store alone it
+ * measures retained heap, off-heap memory and the length of a full GC; with a whole
+ * EnrollmentRepository per store, retained heap including the indexes, then the speed of
+ * a date-range scan, a full listing and random lookups by ID.
+ * Every store is filled with the same enrollments and every query's answers are checked
+ * against the object store's.
+ * Usage: EnrollmentStoreBenchmark [enrollments] [lookups]  (defaults: 2,000,000 and 5,000,000)
+ */
+public class EnrollmentStoreBenchmark {
+    private static final int FIRST_ID = 3001;
+    private static final int STUDENTS = 100_000;
+    private static final int COURSES = 1_000;
+    // Enrollment dates are spread over the last DAYS days
+    private static final int DAYS = 365;
+    private static final int ROUNDS = 5;
+    // The object store comes first; the others are checked against it
+    private static final String[] NAMES = {"object", "columnar", "off-heap"};
+    private static final List<IntFunction<EnrollmentStore>> FACTORIES =
+            List.of(ObjectEnrollmentStore::new, ColumnarEnrollmentStore::new, OffHeapEnrollmentStore::new);
+
+    public static void main(String[] args) {
+        int enrollments = BenchmarkSupport.intArg(args, 0, 2_000_000);
+        int lookups = BenchmarkSupport.intArg(args, 1, 5_000_000);
+        LocalDate today = LocalDate.now();
+
+        System.out.println("--- Store alone: " + enrollments + " enrollments ---");
+        for (int i = 0; i < NAMES.length; i++) {
+            storeFootprint(NAMES[i], FACTORIES.get(i), enrollments, today);
+        }
+
+        System.out.println("\n--- Whole repository: " + enrollments + " enrollments ---");
+        EnrollmentRepository[] repositories = new EnrollmentRepository[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            repositories[i] = repositoryHeap(NAMES[i], FACTORIES.get(i), enrollments, today);
+        }
+
+        // The last 30 days, about one enrollment in twelve
+        LocalDate from = today.minusDays(29);
+        System.out.println("\n--- Scans ---");
+        for (int round = 0; round < ROUNDS; round++) {
+            long expected = scan(NAMES[0], repositories[0], from, today, round);
+            for (int i = 1; i < NAMES.length; i++) {
+                check(i, scan(NAMES[i], repositories[i], from, today, round), expected, "the date-range count");
+            }
+            expected = listing(NAMES[0], repositories[0], round);
+            for (int i = 1; i < NAMES.length; i++) {
+                check(i, listing(NAMES[i], repositories[i], round), expected, "the listing");
+            }
+        }
+
+        System.out.println("\n--- Lookups by ID ---");
+        int[] probeIds = randomIds(lookups, enrollments);
+        for (int round = 0; round < ROUNDS; round++) {
+            long expected = lookups(NAMES[0], repositories[0], probeIds, round);
+            for (int i = 1; i < NAMES.length; i++) {
+                check(i, lookups(NAMES[i], repositories[i], probeIds, round), expected, "lookups");
+            }
+        }
+    }
+
+    // Heap, off-heap memory and a full GC's duration with only this store alive
+    private static void storeFootprint(String name, IntFunction<EnrollmentStore> factory, int enrollments,
+                                       LocalDate today) {
+        long base = BenchmarkSupport.usedHeapAfterGc();
+        EnrollmentStore store = factory.apply(16);
+        Random random = new Random(42);
+        for (int i = 0; i < enrollments; i++) {
+            store.put(enrollment(FIRST_ID + i, random, today));
+        }
+        long heap = BenchmarkSupport.usedHeapAfterGc() - base;
+        long gcMillis = fullGcMillis();
+        long offHeap = store instanceof OffHeapEnrollmentStore ? ((OffHeapEnrollmentStore) store).offHeapBytes() : 0;
+        System.out.println(String.format("%-9s heap %10s %6.1f bytes/enrollment   off-heap %10s   full GC %4d ms",
+                name, BenchmarkSupport.megabytes(heap), (double) heap / store.size(),
+                BenchmarkSupport.megabytes(offHeap), gcMillis));
+    }
+
+    private static EnrollmentRepository repositoryHeap(String name, IntFunction<EnrollmentStore> factory,
+                                                       int enrollments, LocalDate today) {
+        long base = BenchmarkSupport.usedHeapAfterGc();
+        EnrollmentRepository repository = new EnrollmentRepository(factory.apply(16));
+        Random random = new Random(42);
+        for (int i = 0; i < enrollments; i++) {
+            repository.addEnrollment(enrollment(FIRST_ID + i, random, today));
+        }
+        long heap = BenchmarkSupport.usedHeapAfterGc() - base;
+        System.out.println(String.format("%-9s heap %10s %6.1f bytes/enrollment",
+                name, BenchmarkSupport.megabytes(heap), (double) heap / enrollments));
+        return repository;
+    }
+
+    // Median time the collectors report for a full collection
+    private static long fullGcMillis() {
+        long[] times = new long[3];
+        for (int i = 0; i < times.length; i++) {
+            long before = collectionMillis();
+            System.gc();
+            times[i] = collectionMillis() - before;
+        }
+        Arrays.sort(times);
+        return times[1];
+    }
+
+    private static long collectionMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long scan(String name, EnrollmentRepository repository, LocalDate from, LocalDate to,
+                             int round) {
+        long start = System.nanoTime();
+        int count = repository.countEnrolledBetween(from, to, null);
+        int active = repository.countEnrolledBetween(from, to, EnrollmentStatus.ACTIVE);
+        long elapsed = System.nanoTime() - start;
+        int size = repository.getAllEnrollments().size();
+        BenchmarkSupport.report("date-range scan, " + name + " (round " + round + ")", 2L * size, elapsed);
+        return count * 31L + active;
+    }
+
+    // Reads every field of every enrollment through the listing, as an export would
+    private static long listing(String name, EnrollmentRepository repository, int round) {
+        long start = System.nanoTime();
+        List<Enrollment> all = repository.getAllEnrollments();
+        long sum = 0;
+        for (Enrollment enrollment : all) {
+            sum += enrollment.getId() + enrollment.getStudentId() + enrollment.getCourseId()
+                    + enrollment.getEnrollmentDate().toEpochDay() + enrollment.getStatus().ordinal();
+        }
+        BenchmarkSupport.report("full listing, " + name + " (round " + round + ")", all.size(),
+                System.nanoTime() - start);
+        return sum;
+    }
+
+    private static long lookups(String name, EnrollmentRepository repository, int[] probeIds, int round) {
+        long start = System.nanoTime();
+        long sum = 0;
+        for (int id : probeIds) {
+            sum += repository.findById(id).getStudentId();
+        }
+        BenchmarkSupport.report("findById, " + name + " (round " + round + ")", probeIds.length,
+                System.nanoTime() - start);
+        return sum;
+    }
+
+    private static void check(int store, long actual, long expected, String query) {
+        if (actual != expected) {
+            throw new IllegalStateException("The " + NAMES[store] + " store disagrees with the object store on "
+                    + query);
+        }
+    }
+
+    private static Enrollment enrollment(int id, Random random, LocalDate today) {
+        int roll = random.nextInt(10);
+        EnrollmentStatus status = roll < 6 ? EnrollmentStatus.ACTIVE
+                : roll < 9 ? EnrollmentStatus.COMPLETED : EnrollmentStatus.CANCELLED;
+        return new Enrollment(id, 1001 + random.nextInt(STUDENTS), 2001 + random.nextInt(COURSES),
+                today.minusDays(random.nextInt(DAYS)), status);
+    }
+
+    private static int[] randomIds(int count, int range) {
+        Random random = new Random(7);
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = FIRST_ID + random.nextInt(range);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,150 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.api.ApiServer;
+import com.airtribe.learntrack.constants.AppConstants;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.service.CourseService;
+import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.StudentService;
+import com.airtribe.learntrack.util.VirtualThreads;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for the HTTP API on localhost. Seeds the services, starts an ApiServer on
+ * a free port and has client threads send a read-heavy mix for a fixed time:
+ * 80% GET /students/{id}, 15% GET /enrollments?studentId=, 5% POST /enrollments.
+ * Usage: HttpLoadBenchmark [clients] [seconds] [students]  (defaults: 32, 10 and 100,000)
+ */
+public class HttpLoadBenchmark {
+    private static final int COURSES = 100;
+
+    public static void main(String[] args) throws Exception {
+        int clients = BenchmarkSupport.intArg(args, 0, 32);
+        int seconds = BenchmarkSupport.intArg(args, 1, 10);
+        int studentCount = BenchmarkSupport.intArg(args, 2, 100_000);
+
+        StudentService studentService = new StudentService(new StudentRepository());
+        CourseService courseService = new CourseService(new CourseRepository());
+        EnrollmentService enrollmentService = new EnrollmentService(new EnrollmentRepository(), studentService,
+                courseService);
+        int firstStudentId = studentService.addStudent("First0", "Last0", "Batch-0").getId();
+        for (int i = 1; i < studentCount; i++) {
+            studentService.addStudent("First" + i, "Last" + i, "student" + i + "@campus.edu", "Batch-" + (i % 40));
+        }
+        int firstCourseId = courseService.addCourse("Course 0", "Description 0", 4).getId();
+        for (int i = 1; i < COURSES; i++) {
+            courseService.addCourse("Course " + i, "Description " + i, 4 + i % 8);
+        }
+        int[] allStudents = new int[studentCount];
+        for (int i = 0; i < studentCount; i++) {
+            allStudents[i] = firstStudentId + i;
+        }
+        for (int c = 0; c < 3; c++) {
+            enrollmentService.enrollStudents(firstCourseId + c, allStudents);
+        }
+
+        // As Main does for --serve; without it every response waits for a delayed ACK
+        if (System.getProperty(AppConstants.HTTP_NODELAY_PROPERTY) == null) {
+            System.setProperty(AppConstants.HTTP_NODELAY_PROPERTY, "true");
+        }
+        ApiServer server = ApiServer.start(0, studentService, courseService, enrollmentService);
+        String base = "http://localhost:" + server.getPort();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.println(String.format("%d clients for %d s against %s (virtual threads: %s)",
+                clients, seconds, base, VirtualThreads.isAvailable() ? "yes" : "no, platform thread pool"));
+
+        try {
+            // Warm up the server and client before measuring
+            runLoad(client, base, Math.min(clients, 8), 2, studentCount, firstStudentId, firstCourseId);
+            runLoad(client, base, clients, seconds, studentCount, firstStudentId, firstCourseId);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void runLoad(HttpClient client, String base, int clients, int seconds, int studentCount,
+                                int firstStudentId, int firstCourseId) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[][] latencies = new long[clients][];
+        int[] counts = new int[clients];
+        AtomicLong errors = new AtomicLong();
+        Thread[] threads = new Thread[clients];
+        for (int t = 0; t < clients; t++) {
+            int worker = t;
+            threads[t] = new Thread(() -> {
+                long[] samples = new long[1 << 16];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int studentId = firstStudentId + random.nextInt(studentCount);
+                    int roll = random.nextInt(100);
+                    HttpRequest request;
+                    if (roll < 80) {
+                        request = HttpRequest.newBuilder(URI.create(base + "/students/" + studentId)).build();
+                    } else if (roll < 95) {
+                        request = HttpRequest.newBuilder(URI.create(base + "/enrollments?studentId=" + studentId))
+                                .build();
+                    } else {
+                        String body = "{\"studentId\":" + studentId + ",\"courseId\":"
+                                + (firstCourseId + random.nextInt(COURSES)) + "}";
+                        request = HttpRequest.newBuilder(URI.create(base + "/enrollments"))
+                                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        errors.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, count * 2);
+                    }
+                    samples[count++] = System.nanoTime() - start;
+                }
+                latencies[worker] = samples;
+                counts[worker] = count;
+            }, "load-client-" + t);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (int t = 0; t < clients; t++) {
+            System.arraycopy(latencies[t], 0, all, position, counts[t]);
+            position += counts[t];
+        }
+        Arrays.sort(all);
+        System.out.println(String.format("%,d requests in %d s: %,.0f req/s, p50 %.2f ms, p99 %.2f ms, "
+                        + "max %.2f ms, %d errors", total, seconds, total / (double) seconds,
+                percentile(all, 0.50), percentile(all, 0.99), total == 0 ? 0 : all[total - 1] / 1e6, errors.get()));
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))] / 1e6;
+    }
+}
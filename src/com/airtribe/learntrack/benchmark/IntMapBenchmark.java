@@ -0,0 +1,121 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.util.IntListMultimap;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares IntObjectMap and IntListMultimap with their boxed HashMap equivalents:
+ * retained heap and random lookup latency.
+ * Usage: IntMapBenchmark [entries] [lookups]  (defaults: 1,000,000 and 10,000,000)
+ */
+public class IntMapBenchmark {
+    private static final int FIRST_ID = 1001;
+    private static final int KEYS_PER_MULTIMAP_KEY = 10;
+
+    public static void main(String[] args) {
+        int entries = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int lookups = BenchmarkSupport.intArg(args, 1, 10_000_000);
+        int[] probeKeys = randomKeys(lookups, entries);
+        Object value = new Object();
+
+        System.out.println("--- Primary index: " + entries + " entries ---");
+        long base = BenchmarkSupport.usedHeapAfterGc();
+        Map<Integer, Object> hashMap = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            hashMap.put(FIRST_ID + i, value);
+        }
+        long hashMapHeap = BenchmarkSupport.usedHeapAfterGc() - base;
+
+        base = BenchmarkSupport.usedHeapAfterGc();
+        IntObjectMap<Object> intMap = new IntObjectMap<>();
+        for (int i = 0; i < entries; i++) {
+            intMap.put(FIRST_ID + i, value);
+        }
+        long intMapHeap = BenchmarkSupport.usedHeapAfterGc() - base;
+
+        System.out.println("HashMap<Integer, Object> heap:   " + BenchmarkSupport.megabytes(hashMapHeap));
+        System.out.println("IntObjectMap<Object> heap:       " + BenchmarkSupport.megabytes(intMapHeap));
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            int hits = 0;
+            for (int key : probeKeys) {
+                if (hashMap.get(key) != null) {
+                    hits++;
+                }
+            }
+            BenchmarkSupport.report("HashMap.get (round " + round + ")", lookups, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : probeKeys) {
+                if (intMap.get(key) != null) {
+                    hits--;
+                }
+            }
+            BenchmarkSupport.report("IntObjectMap.get (round " + round + ")", lookups, System.nanoTime() - start);
+            if (hits != 0) {
+                throw new IllegalStateException("Maps disagree on " + hits + " lookups");
+            }
+        }
+        hashMap = null;
+        intMap = null;
+
+        int keys = entries / KEYS_PER_MULTIMAP_KEY;
+        System.out.println("\n--- Secondary index: " + entries + " values over " + keys + " keys ---");
+        base = BenchmarkSupport.usedHeapAfterGc();
+        Map<Integer, List<Integer>> boxedMultimap = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            boxedMultimap.computeIfAbsent(FIRST_ID + i % keys, k -> new ArrayList<>()).add(i);
+        }
+        long boxedHeap = BenchmarkSupport.usedHeapAfterGc() - base;
+
+        base = BenchmarkSupport.usedHeapAfterGc();
+        IntListMultimap intMultimap = new IntListMultimap();
+        for (int i = 0; i < entries; i++) {
+            intMultimap.put(FIRST_ID + i % keys, i);
+        }
+        long intMultimapHeap = BenchmarkSupport.usedHeapAfterGc() - base;
+
+        System.out.println("HashMap<Integer, List<Integer>> heap: " + BenchmarkSupport.megabytes(boxedHeap));
+        System.out.println("IntListMultimap heap:                 " + BenchmarkSupport.megabytes(intMultimapHeap));
+
+        int[] multimapProbes = randomKeys(lookups / KEYS_PER_MULTIMAP_KEY, keys);
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long sum = 0;
+            for (int key : multimapProbes) {
+                for (Integer v : boxedMultimap.get(key)) {
+                    sum += v;
+                }
+            }
+            BenchmarkSupport.report("HashMap multimap get (round " + round + ")", multimapProbes.length,
+                    System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int key : multimapProbes) {
+                for (int v : intMultimap.get(key)) {
+                    sum -= v;
+                }
+            }
+            BenchmarkSupport.report("IntListMultimap get (round " + round + ")", multimapProbes.length,
+                    System.nanoTime() - start);
+            if (sum != 0) {
+                throw new IllegalStateException("Multimaps disagree");
+            }
+        }
+    }
+
+    private static int[] randomKeys(int count, int range) {
+        Random random = new Random(42);
+        int[] keys = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = FIRST_ID + random.nextInt(range);
+        }
+        return keys;
+    }
+}
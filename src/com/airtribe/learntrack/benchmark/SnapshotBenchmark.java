@@ -0,0 +1,97 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.persistence.SnapshotFile;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a snapshot of a generated campus and measures how long it takes to map it,
+ * decode every record, and rebuild the repositories from it.
+ * The full-size run needs a large heap, e.g. java -Xmx8g.
+ * Usage: SnapshotBenchmark [students] [enrollments] [courses]  (defaults: 1,000,000, 10,000,000 and 500)
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int studentCount = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int enrollmentCount = BenchmarkSupport.intArg(args, 1, 10_000_000);
+        int courseCount = BenchmarkSupport.intArg(args, 2, 500);
+
+        List<Student> students = new ArrayList<>(studentCount);
+        for (int i = 0; i < studentCount; i++) {
+            students.add(new Student(1001 + i, "First" + i, "Last" + i, "student" + i + "@campus.edu",
+                    "Batch-" + (i % 40), i % 10 != 0));
+        }
+        List<Course> courses = new ArrayList<>(courseCount);
+        for (int i = 0; i < courseCount; i++) {
+            courses.add(new Course(2001 + i, "Course " + i, "Description of course " + i, 4 + i % 12));
+        }
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        EnrollmentStatus[] statuses = EnrollmentStatus.values();
+        List<Enrollment> enrollments = new ArrayList<>(enrollmentCount);
+        for (int i = 0; i < enrollmentCount; i++) {
+            enrollments.add(new Enrollment(3001 + i, 1001 + i % studentCount, 2001 + i % courseCount,
+                    firstDay.plusDays(i % 700), statuses[i % statuses.length]));
+        }
+
+        Path file = Files.createTempFile("learntrack-snapshot", ".bin");
+        try {
+            long start = System.nanoTime();
+            SnapshotFile.write(file, students, courses, enrollments);
+            long writeNanos = System.nanoTime() - start;
+            System.out.println(String.format("Wrote %,d students, %,d courses, %,d enrollments: %s in %d ms",
+                    studentCount, courseCount, enrollmentCount,
+                    BenchmarkSupport.megabytes(Files.size(file)), writeNanos / 1_000_000));
+            students = null;
+            courses = null;
+            enrollments = null;
+            BenchmarkSupport.usedHeapAfterGc();
+
+            for (int round = 0; round < 3; round++) {
+                start = System.nanoTime();
+                SnapshotFile snapshot = SnapshotFile.open(file);
+                long mapNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                long checksum = 0;
+                for (int i = 0; i < snapshot.getEnrollmentCount(); i++) {
+                    checksum += snapshot.getEnrollment(i).getStudentId();
+                }
+                long scanNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                StudentRepository studentRepository = new StudentRepository();
+                CourseRepository courseRepository = new CourseRepository();
+                EnrollmentRepository enrollmentRepository = new EnrollmentRepository();
+                SnapshotFile fresh = SnapshotFile.open(file);
+                for (int i = 0; i < fresh.getStudentCount(); i++) {
+                    studentRepository.addStudent(fresh.getStudent(i));
+                }
+                for (int i = 0; i < fresh.getCourseCount(); i++) {
+                    courseRepository.addCourse(fresh.getCourse(i));
+                }
+                for (int i = 0; i < fresh.getEnrollmentCount(); i++) {
+                    enrollmentRepository.addEnrollment(fresh.getEnrollment(i));
+                }
+                long loadNanos = System.nanoTime() - start;
+
+                System.out.println(String.format("Round %d: map %d ms, decode enrollments %d ms, "
+                                + "rebuild repositories %d ms (checksum %d)", round, mapNanos / 1_000_000,
+                        scanNanos / 1_000_000, loadNanos / 1_000_000, checksum));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.StringDictionary;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures dictionary encoding of batch names. Compares the retained heap of one batch
+ * string per student, as a CSV import or a snapshot load produces them, with one int code
+ * per student plus the dictionary. Also compares the time to group students by batch,
+ * hashing and comparing strings against indexing an array by code.
+ * Usage: StringDictionaryBenchmark [students] [batches]  (defaults: 1,000,000 and 40)
+ */
+public class StringDictionaryBenchmark {
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int students = BenchmarkSupport.intArg(args, 0, 1_000_000);
+        int batches = BenchmarkSupport.intArg(args, 1, 40);
+
+        System.out.println("--- Retained heap: " + students + " students in " + batches + " batches ---");
+        long base = BenchmarkSupport.usedHeapAfterGc();
+        String[] copies = new String[students];
+        for (int i = 0; i < students; i++) {
+            // A new String per student, as parsing each row or record creates one
+            copies[i] = batchName(i % batches);
+        }
+        long copiesHeap = BenchmarkSupport.usedHeapAfterGc() - base;
+
+        base = BenchmarkSupport.usedHeapAfterGc();
+        StringDictionary dictionary = new StringDictionary();
+        int[] codes = new int[students];
+        for (int i = 0; i < students; i++) {
+            codes[i] = dictionary.encode(batchName(i % batches));
+        }
+        long codesHeap = BenchmarkSupport.usedHeapAfterGc() - base;
+
+        System.out.println(String.format("One String per student:  %10s  %5.1f bytes/student",
+                BenchmarkSupport.megabytes(copiesHeap), (double) copiesHeap / students));
+        System.out.println(String.format("Int code + dictionary:   %10s  %5.1f bytes/student",
+                BenchmarkSupport.megabytes(codesHeap), (double) codesHeap / students));
+        System.out.println(String.format("Measured saving:         %10s; dictionary's estimate %s",
+                BenchmarkSupport.megabytes(copiesHeap - codesHeap),
+                BenchmarkSupport.megabytes(dictionary.getSavedBytes())));
+
+        System.out.println("\n--- Group by batch ---");
+        for (int round = 0; round < ROUNDS; round++) {
+            // Each student holding its own copy of the name, as before encoding
+            long start = System.nanoTime();
+            Map<String, int[]> byName = new HashMap<>();
+            for (String batch : copies) {
+                byName.computeIfAbsent(batch, name -> new int[1])[0]++;
+            }
+            BenchmarkSupport.report("by name (round " + round + ")", students, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int[] byCode = new int[dictionary.getCodeLimit()];
+            for (int code : codes) {
+                byCode[code]++;
+            }
+            BenchmarkSupport.report("by code (round " + round + ")", students, System.nanoTime() - start);
+
+            for (Map.Entry<String, int[]> group : byName.entrySet()) {
+                if (byCode[dictionary.find(group.getKey())] != group.getValue()[0]) {
+                    throw new IllegalStateException("Groupings disagree on " + group.getKey());
+                }
+            }
+        }
+    }
+
+    private static String batchName(int batch) {
+        return "Batch-" + batch;
+    }
+}
@@ -0,0 +1,86 @@
+package com.airtribe.learntrack.benchmark;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.util.TableRenderer;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares printing the student table the old way (String.format and println per
+ * row on an auto-flushing PrintStream, as System.out does) with TableRenderer
+ * writing through one buffered writer. Output goes to a temporary file so the
+ * terminal's own speed is not measured.
+ * Usage: TableRenderBenchmark [rows]  (default: 100,000)
+ */
+public class TableRenderBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = BenchmarkSupport.intArg(args, 0, 100_000);
+        List<Student> students = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            students.add(new Student(1001 + i, "First" + i, "Last" + i,
+                    i % 5 == 0 ? null : "student" + i + "@campus.edu", "Batch-" + (i % 40), i % 10 != 0));
+        }
+
+        Path file = Files.createTempFile("learntrack-table", ".txt");
+        try {
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                try (PrintStream out = new PrintStream(
+                        new BufferedOutputStream(new FileOutputStream(file.toFile()), 8192), true)) {
+                    printWithFormat(out, students);
+                }
+                BenchmarkSupport.report("String.format + println (round " + round + ")", rows,
+                        System.nanoTime() - start);
+
+                start = System.nanoTime();
+                try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(file.toFile()), StandardCharsets.UTF_8), 1 << 16)) {
+                    printWithRenderer(out, students);
+                }
+                BenchmarkSupport.report("TableRenderer (round " + round + ")", rows, System.nanoTime() - start);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // The row loop Main used before TableRenderer
+    private static void printWithFormat(PrintStream out, List<Student> students) {
+        out.println(String.format("%-8s %-20s %-30s %-15s %-8s", "ID", "Name", "Email", "Batch", "Active"));
+        out.println("--------------------------------------------------------------------------------");
+        for (Student student : students) {
+            String email = student.getEmail() != null ? student.getEmail() : "N/A";
+            out.println(String.format("%-8d %-20s %-30s %-15s %-8s",
+                    student.getId(),
+                    student.getFirstName() + " " + student.getLastName(),
+                    email,
+                    student.getBatch(),
+                    student.isActive() ? "Yes" : "No"));
+        }
+    }
+
+    private static void printWithRenderer(Writer out, List<Student> students) throws IOException {
+        TableRenderer table = new TableRenderer(out, 8, 20, 30, 15, 8);
+        table.header("ID", "Name", "Email", "Batch", "Active");
+        for (Student student : students) {
+            table.cell(student.getId())
+                    .cell(student.getFirstName(), student.getLastName())
+                    .cell(student.getEmail() != null ? student.getEmail() : "N/A")
+                    .cell(student.getBatch())
+                    .cell(student.isActive());
+            table.endRow();
+        }
+        table.flush();
+    }
+}
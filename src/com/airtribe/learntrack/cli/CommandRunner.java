@@ -0,0 +1,354 @@
+package com.airtribe.learntrack.cli;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.importer.CsvImporter;
+import com.airtribe.learntrack.importer.ImportReport;
+import com.airtribe.learntrack.service.CourseService;
+import com.airtribe.learntrack.service.EnrollmentResult;
+import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.StudentService;
+import com.airtribe.learntrack.util.InputValidator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs LearnTrack commands from a script, one command per line, without menus.
+ * Blank lines and lines starting with # are skipped; arguments are separated by
+ * spaces and may be double-quoted. A failed command is reported with its line
+ * number and the script carries on.
+ * <pre>
+ *   add-student &lt;firstName&gt; &lt;lastName&gt; &lt;batch&gt; [email]
+ *   add-course &lt;name&gt; &lt;description&gt; &lt;weeks&gt; [capacity]
+ *   enroll &lt;studentId&gt; &lt;courseId&gt;
+ *   enroll-many &lt;courseId&gt; &lt;studentId&gt;...
+ *   complete &lt;enrollmentId&gt;
+ *   cancel &lt;enrollmentId&gt;
+ *   deactivate-student &lt;studentId&gt;
+ *   activate-course &lt;courseId&gt;
+ *   deactivate-course &lt;courseId&gt;
+ *   set-capacity &lt;courseId&gt; &lt;capacity&gt;
+ *   import &lt;students|courses|enrollments&gt; &lt;csvFile&gt;
+ *   count-enrolled &lt;fromDate&gt; &lt;toDate&gt; [status]
+ * </pre>
+ * $student, $course and $enrollment stand for the ID most recently created by the
+ * script, so a script can enroll the students it has just added.
+ */
+public class CommandRunner {
+    private final StudentService studentService;
+    private final CourseService courseService;
+    private final EnrollmentService enrollmentService;
+    private final CsvImporter csvImporter;
+    private final boolean verbose;
+
+    // IDs most recently created by the script, for $student, $course and $enrollment
+    private int lastStudentId;
+    private int lastCourseId;
+    private int lastEnrollmentId;
+
+    /**
+     * Creates a runner.
+     * @param studentService the student service
+     * @param courseService the course service
+     * @param enrollmentService the enrollment service
+     * @param csvImporter the importer used by the import command
+     * @param verbose whether to print a line for every successful command
+     */
+    public CommandRunner(StudentService studentService, CourseService courseService,
+                         EnrollmentService enrollmentService, CsvImporter csvImporter, boolean verbose) {
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.enrollmentService = enrollmentService;
+        this.csvImporter = csvImporter;
+        this.verbose = verbose;
+    }
+
+    /**
+     * Runs every command in a script.
+     * @param script the script to read
+     * @param out where errors (and, if verbose, results) are written
+     * @return totals and timings for the run
+     * @throws IOException if the script cannot be read or the output cannot be written
+     */
+    public ScriptReport run(BufferedReader script, Writer out) throws IOException {
+        ScriptReport report = new ScriptReport();
+        long start = System.nanoTime();
+        long lineNumber = 0;
+        String line;
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] tokens = tokenize(trimmed);
+            long commandStart = System.nanoTime();
+            try {
+                String result = execute(tokens);
+                report.record(tokens[0], true, System.nanoTime() - commandStart);
+                if (verbose) {
+                    out.write(result);
+                    out.write(System.lineSeparator());
+                }
+            } catch (EntityNotFoundException | InvalidInputException | DuplicateEntityException | IOException e) {
+                report.record(tokens[0], false, System.nanoTime() - commandStart);
+                out.write("Line " + lineNumber + " (" + tokens[0] + "): " + e.getMessage());
+                out.write(System.lineSeparator());
+            }
+        }
+        report.setElapsedNanos(System.nanoTime() - start);
+        out.flush();
+        return report;
+    }
+
+    private String execute(String[] tokens)
+            throws EntityNotFoundException, InvalidInputException, DuplicateEntityException, IOException {
+        switch (tokens[0]) {
+            case "add-student":
+                return addStudent(tokens);
+            case "add-course":
+                return addCourse(tokens);
+            case "enroll":
+                return enroll(tokens);
+            case "enroll-many":
+                return enrollMany(tokens);
+            case "complete":
+                expectArguments(tokens, 1, "complete <enrollmentId>");
+                int completedId = enrollmentId(tokens[1]);
+                enrollmentService.markEnrollmentCompleted(completedId);
+                return "Completed enrollment " + completedId;
+            case "cancel":
+                expectArguments(tokens, 1, "cancel <enrollmentId>");
+                int cancelledId = enrollmentId(tokens[1]);
+                Enrollment promoted = enrollmentService.markEnrollmentCancelled(cancelledId);
+                return "Cancelled enrollment " + cancelledId
+                        + (promoted == null ? "" : "; promoted enrollment " + promoted.getId() + " from the waitlist");
+            case "deactivate-student":
+                expectArguments(tokens, 1, "deactivate-student <studentId>");
+                int studentId = studentId(tokens[1]);
+                studentService.deactivateStudent(studentId);
+                return "Deactivated student " + studentId;
+            case "activate-course":
+                expectArguments(tokens, 1, "activate-course <courseId>");
+                int activatedId = courseId(tokens[1]);
+                courseService.activateCourse(activatedId);
+                return "Activated course " + activatedId;
+            case "deactivate-course":
+                expectArguments(tokens, 1, "deactivate-course <courseId>");
+                int deactivatedId = courseId(tokens[1]);
+                courseService.deactivateCourse(deactivatedId);
+                return "Deactivated course " + deactivatedId;
+            case "set-capacity":
+                expectArguments(tokens, 2, "set-capacity <courseId> <capacity>");
+                int cappedId = courseId(tokens[1]);
+                int promotedCount = enrollmentService.setCourseCapacity(cappedId, capacity(tokens[2])).size();
+                return "Set capacity of course " + cappedId + " to " + tokens[2]
+                        + (promotedCount == 0 ? "" : "; promoted " + promotedCount + " from the waitlist");
+            case "import":
+                return importFile(tokens);
+            case "count-enrolled":
+                return countEnrolled(tokens);
+            default:
+                throw new InvalidInputException("Unknown command: " + tokens[0]);
+        }
+    }
+
+    private String addStudent(String[] tokens) throws InvalidInputException, DuplicateEntityException {
+        if (tokens.length != 4 && tokens.length != 5) {
+            throw new InvalidInputException("Usage: add-student <firstName> <lastName> <batch> [email]");
+        }
+        requireText(tokens[1], "First name");
+        requireText(tokens[2], "Last name");
+        requireText(tokens[3], "Batch");
+        Student student;
+        if (tokens.length == 5) {
+            if (!InputValidator.isValidEmail(tokens[4])) {
+                throw new InvalidInputException("Invalid email format: " + tokens[4]);
+            }
+            student = studentService.addStudent(tokens[1], tokens[2], tokens[4], tokens[3]);
+        } else {
+            student = studentService.addStudent(tokens[1], tokens[2], tokens[3]);
+        }
+        lastStudentId = student.getId();
+        return "Added student " + student.getId();
+    }
+
+    private String addCourse(String[] tokens) throws InvalidInputException {
+        if (tokens.length != 4 && tokens.length != 5) {
+            throw new InvalidInputException("Usage: add-course <name> <description> <weeks> [capacity]");
+        }
+        requireText(tokens[1], "Course name");
+        requireText(tokens[2], "Description");
+        int weeks = integer(tokens[3], "Duration");
+        if (weeks <= 0) {
+            throw new InvalidInputException("Duration must be greater than 0.");
+        }
+        int capacity = tokens.length == 5 ? capacity(tokens[4]) : Course.UNLIMITED_CAPACITY;
+        Course course = courseService.addCourse(tokens[1], tokens[2], weeks, capacity);
+        lastCourseId = course.getId();
+        return "Added course " + course.getId();
+    }
+
+    private String enroll(String[] tokens)
+            throws EntityNotFoundException, InvalidInputException, DuplicateEntityException {
+        expectArguments(tokens, 2, "enroll <studentId> <courseId>");
+        Enrollment enrollment = enrollmentService.enrollStudent(studentId(tokens[1]), courseId(tokens[2]));
+        lastEnrollmentId = enrollment.getId();
+        return "Added enrollment " + enrollment.getId();
+    }
+
+    private String enrollMany(String[] tokens) throws EntityNotFoundException, InvalidInputException {
+        if (tokens.length < 3) {
+            throw new InvalidInputException("Usage: enroll-many <courseId> <studentId>...");
+        }
+        int courseId = courseId(tokens[1]);
+        int[] studentIds = new int[tokens.length - 2];
+        for (int i = 0; i < studentIds.length; i++) {
+            studentIds[i] = studentId(tokens[i + 2]);
+        }
+        List<String> rejected = new ArrayList<>();
+        for (EnrollmentResult result : enrollmentService.enrollStudents(courseId, studentIds)) {
+            if (result.isSuccess()) {
+                lastEnrollmentId = result.getEnrollment().getId();
+            } else {
+                rejected.add(result.getError());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            throw new InvalidInputException((studentIds.length - rejected.size()) + " enrolled, "
+                    + rejected.size() + " rejected: " + String.join(" ", rejected));
+        }
+        return "Enrolled " + studentIds.length + " students in course " + courseId;
+    }
+
+    private String importFile(String[] tokens) throws InvalidInputException, IOException {
+        expectArguments(tokens, 2, "import <students|courses|enrollments> <csvFile>");
+        ImportReport report;
+        switch (tokens[1]) {
+            case "students":
+                report = csvImporter.importStudents(Paths.get(tokens[2]));
+                break;
+            case "courses":
+                report = csvImporter.importCourses(Paths.get(tokens[2]));
+                break;
+            case "enrollments":
+                report = csvImporter.importEnrollments(Paths.get(tokens[2]));
+                break;
+            default:
+                throw new InvalidInputException("Unknown import type: " + tokens[1]);
+        }
+        if (!report.getErrors().isEmpty()) {
+            throw new InvalidInputException(report + "; first error: " + report.getErrors().get(0));
+        }
+        return report.toString();
+    }
+
+    private String countEnrolled(String[] tokens) throws InvalidInputException {
+        if (tokens.length != 3 && tokens.length != 4) {
+            throw new InvalidInputException("Usage: count-enrolled <fromDate> <toDate> [status]");
+        }
+        LocalDate from = date(tokens[1]);
+        LocalDate to = date(tokens[2]);
+        EnrollmentStatus status = tokens.length == 4 ? status(tokens[3]) : null;
+        int count = enrollmentService.countEnrollmentsBetween(from, to, status);
+        return count + (status == null ? "" : " " + status) + " enrollments from " + from + " to " + to;
+    }
+
+    private int studentId(String token) throws InvalidInputException {
+        return token.equals("$student") ? lastStudentId : integer(token, "Student ID");
+    }
+
+    private int courseId(String token) throws InvalidInputException {
+        return token.equals("$course") ? lastCourseId : integer(token, "Course ID");
+    }
+
+    private int enrollmentId(String token) throws InvalidInputException {
+        return token.equals("$enrollment") ? lastEnrollmentId : integer(token, "Enrollment ID");
+    }
+
+    private static int integer(String token, String field) throws InvalidInputException {
+        if (!InputValidator.isValidInteger(token)) {
+            throw new InvalidInputException(field + " is not a valid number: " + token);
+        }
+        return Integer.parseInt(token);
+    }
+
+    private static LocalDate date(String token) throws InvalidInputException {
+        try {
+            return LocalDate.parse(token);
+        } catch (DateTimeParseException e) {
+            throw new InvalidInputException("Date is not in YYYY-MM-DD form: " + token);
+        }
+    }
+
+    private static EnrollmentStatus status(String token) throws InvalidInputException {
+        try {
+            return EnrollmentStatus.valueOf(token.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException("Unknown enrollment status: " + token);
+        }
+    }
+
+    private static int capacity(String token) throws InvalidInputException {
+        int capacity = integer(token, "Capacity");
+        if (capacity < 0) {
+            throw new InvalidInputException("Capacity must not be negative.");
+        }
+        return capacity;
+    }
+
+    private static void requireText(String value, String field) throws InvalidInputException {
+        if (!InputValidator.isValidString(value)) {
+            throw new InvalidInputException(field + " cannot be empty.");
+        }
+    }
+
+    private static void expectArguments(String[] tokens, int count, String usage) throws InvalidInputException {
+        if (tokens.length != count + 1) {
+            throw new InvalidInputException("Usage: " + usage);
+        }
+    }
+
+    /**
+     * Splits a command line on spaces; double-quoted arguments may contain spaces.
+     * @param line the command line
+     * @return the command name followed by its arguments
+     */
+    static String[] tokenize(String line) {
+        List<String> tokens = new ArrayList<>(4);
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (inToken) {
+            tokens.add(token.toString());
+        }
+        return tokens.toArray(new String[0]);
+    }
+}
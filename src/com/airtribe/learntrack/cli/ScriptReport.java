@@ -0,0 +1,86 @@
+package com.airtribe.learntrack.cli;
+
+import com.airtribe.learntrack.util.TableRenderer;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Totals and timings for one script run, per command name.
+ */
+public class ScriptReport {
+    private final Map<String, CommandStats> statsByCommand = new LinkedHashMap<>();
+    private long succeeded;
+    private long failed;
+    private long elapsedNanos;
+
+    void record(String command, boolean success, long nanos) {
+        CommandStats stats = statsByCommand.computeIfAbsent(command, name -> new CommandStats());
+        stats.count++;
+        stats.totalNanos += nanos;
+        if (success) {
+            succeeded++;
+        } else {
+            stats.failed++;
+            failed++;
+        }
+    }
+
+    void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calculates throughput over all commands run, including failed ones.
+     * @return commands per second
+     */
+    public double getCommandsPerSecond() {
+        return elapsedNanos == 0 ? 0 : (succeeded + failed) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Writes a per-command summary table followed by the totals.
+     * @param out where to write
+     * @throws IOException if the writer fails
+     */
+    public void print(Writer out) throws IOException {
+        TableRenderer table = new TableRenderer(out, 20, 10, 10, 12);
+        table.header("Command", "Count", "Failed", "Avg (us)");
+        for (Map.Entry<String, CommandStats> entry : statsByCommand.entrySet()) {
+            CommandStats stats = entry.getValue();
+            table.cell(entry.getKey())
+                    .cell(stats.count)
+                    .cell(stats.failed)
+                    .cell(String.format("%.1f", stats.totalNanos / 1000.0 / stats.count));
+            table.endRow();
+        }
+        table.line(toString());
+        table.flush();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%,d commands (%,d succeeded, %,d failed) in %d ms (%,.0f commands/s)",
+                succeeded + failed, succeeded, failed, elapsedNanos / 1_000_000, getCommandsPerSecond());
+    }
+
+    // Running totals for one command name
+    private static final class CommandStats {
+        private int count;
+        private int failed;
+        private long totalNanos;
+    }
+}
@@ -6,7 +6,35 @@ package com.airtribe.learntrack.constants;
 public class AppConstants {
     public static final String APP_NAME = "LearnTrack";
     public static final String VERSION = "1.0.0";
+
+    // Files written by the application live under this directory
+    public static final String DATA_DIR = "learntrack-data";
+    public static final String ID_HIGH_WATER_FILE = "id-high-water.properties";
     
+    // Service metrics are appended to this file in DATA_DIR on a fixed interval
+    public static final String METRICS_LOG_FILE = "metrics.log";
+    public static final int METRICS_REPORT_INTERVAL_SECONDS = 60;
+
+    // System property choosing how enrollments are stored: "object" (default), "columnar" or "offheap"
+    public static final String ENROLLMENT_STORE_PROPERTY = "learntrack.enrollmentStore";
+    public static final String COLUMNAR_ENROLLMENT_STORE = "columnar";
+    public static final String OFF_HEAP_ENROLLMENT_STORE = "offheap";
+    // With "offheap", a file to memory-map instead of using direct memory (emptied at startup)
+    public static final String ENROLLMENT_STORE_FILE_PROPERTY = "learntrack.enrollmentStoreFile";
+
+    // Port used by --serve when none is given
+    public static final int DEFAULT_HTTP_PORT = 8080;
+    // System property naming the address --serve binds to; loopback only unless it is set
+    public static final String HTTP_HOST_PROPERTY = "learntrack.httpHost";
+    // JDK HTTP server setting for TCP_NODELAY on accepted sockets; read once, JVM-wide
+    public static final String HTTP_NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    // Rows shown per page in listing screens
+    public static final int PAGE_SIZE = 20;
+
+    // Matches shown by the student name/email search
+    public static final int SEARCH_RESULT_LIMIT = 10;
+
     // Display messages
     public static final String INVALID_OPTION = "Invalid option. Please try again.";
     public static final String OPERATION_SUCCESS = "Operation completed successfully!";
@@ -9,28 +9,38 @@ public class MenuOptions {
     public static final int STUDENT_MANAGEMENT = 1;
     public static final int COURSE_MANAGEMENT = 2;
     public static final int ENROLLMENT_MANAGEMENT = 3;
-    public static final int EXIT = 4;
+    public static final int BULK_IMPORT = 4;
+    public static final int DASHBOARD = 5;
+    public static final int EXIT = 6;
 
     // Student management options
     public static final int ADD_STUDENT = 1;
     public static final int VIEW_ALL_STUDENTS = 2;
     public static final int SEARCH_STUDENT_BY_ID = 3;
-    public static final int DEACTIVATE_STUDENT = 4;
-    public static final int BACK_TO_MAIN = 5;
+    public static final int SEARCH_STUDENTS = 4;
+    public static final int DEACTIVATE_STUDENT = 5;
+    public static final int BACK_TO_MAIN = 6;
 
     // Course management options
     public static final int ADD_COURSE = 1;
     public static final int VIEW_ALL_COURSES = 2;
     public static final int ACTIVATE_COURSE = 3;
     public static final int DEACTIVATE_COURSE = 4;
-    public static final int BACK_TO_MAIN_COURSE = 5;
+    public static final int SET_COURSE_CAPACITY = 5;
+    public static final int BACK_TO_MAIN_COURSE = 6;
 
     // Enrollment management options
     public static final int ENROLL_STUDENT = 1;
     public static final int VIEW_ENROLLMENTS_BY_STUDENT = 2;
     public static final int MARK_ENROLLMENT_COMPLETED = 3;
     public static final int MARK_ENROLLMENT_CANCELLED = 4;
-    public static final int BACK_TO_MAIN_ENROLLMENT = 5;
+    public static final int VIEW_COURSE_WAITLIST = 5;
+    public static final int BACK_TO_MAIN_ENROLLMENT = 6;
+
+    // Bulk import options
+    public static final int IMPORT_STUDENTS = 1;
+    public static final int IMPORT_COURSES = 2;
+    public static final int IMPORT_ENROLLMENTS = 3;
 
     // Private constructor to prevent instantiation
     private MenuOptions() {
@@ -4,10 +4,14 @@ package com.airtribe.learntrack.entity;
  * Course entity class representing a course in the system.
  */
 public class Course {
+    // Capacity of a course without a seat limit
+    public static final int UNLIMITED_CAPACITY = 0;
+
     private int id;
     private String courseName;
     private String description;
     private int durationInWeeks;
+    private int capacity;
     private boolean active;
 
     // Default constructor
@@ -23,6 +27,17 @@ public class Course {
         this.active = active;
     }
 
+    // Constructor with a seat limit (UNLIMITED_CAPACITY for none)
+    public Course(int id, String courseName, String description, int durationInWeeks, int capacity,
+                  boolean active) {
+        this.id = id;
+        this.courseName = courseName;
+        this.description = description;
+        this.durationInWeeks = durationInWeeks;
+        this.capacity = capacity;
+        this.active = active;
+    }
+
     // Constructor without active flag (defaults to true)
     public Course(int id, String courseName, String description, int durationInWeeks) {
         this.id = id;
@@ -65,6 +80,18 @@ public class Course {
         this.durationInWeeks = durationInWeeks;
     }
 
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public boolean hasCapacityLimit() {
+        return capacity != UNLIMITED_CAPACITY;
+    }
+
     public boolean isActive() {
         return active;
     }
@@ -80,6 +107,7 @@ public class Course {
                 ", courseName='" + courseName + '\'' +
                 ", description='" + description + '\'' +
                 ", durationInWeeks=" + durationInWeeks +
+                ", capacity=" + capacity +
                 ", active=" + active +
                 '}';
     }
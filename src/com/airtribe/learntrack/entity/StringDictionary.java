@@ -0,0 +1,168 @@
+package com.airtribe.learntrack.entity;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary encoding for low-cardinality string fields, such as a student's batch.
+ * Each distinct value is stored once and given a small int code, so holders of the value
+ * can share the stored copy, and grouping or matching by the field costs an int comparison.
+ * Values are reference counted: {@link #encode(String)} takes a reference and
+ * {@link #release(int)} gives it back. A value nobody references is removed and its code
+ * reused, so the dictionary only ever holds the values in use.
+ * Encoding and releasing must not run at the same time as each other, or as the
+ * statistics; the owner runs them under its write lock. Finding and decoding never block
+ * and are safe alongside them.
+ */
+public class StringDictionary {
+    /** Code of a null value. */
+    public static final int NONE = -1;
+
+    // Estimated heap of a String and its byte[] beyond the value's bytes (compressed oops)
+    private static final int STRING_OVERHEAD_BYTES = 40;
+
+    private final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    // values[code] is the value, or null if the code is free; set before the code is published
+    private volatile String[] values = new String[16];
+    // references[code] counts the encodes of values[code] not yet released
+    private int[] references = new int[16];
+    // Codes handed out so far, in use or free
+    private int limit;
+    // Freed codes, reused before new ones
+    private int[] freeCodes = new int[16];
+    private int freeCount;
+
+    /**
+     * Returns the code of a value, adding the value if it is new, and takes a reference
+     * to it. Release the reference when the holder no longer has the value.
+     * @param value the value, or null
+     * @return the value's code, or NONE for null
+     */
+    public int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        int encoded = code == null ? add(value) : code;
+        references[encoded]++;
+        return encoded;
+    }
+
+    /**
+     * Gives back a reference taken by {@link #encode(String)}. The last one removes the value.
+     * @param code the value's code, or NONE
+     */
+    public void release(int code) {
+        if (code == NONE) {
+            return;
+        }
+        if (references[code] <= 0) {
+            throw new IllegalStateException("Code " + code + " is not in use");
+        }
+        if (--references[code] == 0) {
+            codes.remove(values[code]);
+            values[code] = null;
+            if (freeCount == freeCodes.length) {
+                freeCodes = Arrays.copyOf(freeCodes, freeCount * 2);
+            }
+            freeCodes[freeCount++] = code;
+        }
+    }
+
+    /**
+     * Returns the code of a value without adding it.
+     * @param value the value, or null
+     * @return the value's code, NONE for null, or NONE if the value is not in use
+     */
+    public int find(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        Integer code = codes.get(value);
+        return code == null ? NONE : code;
+    }
+
+    /**
+     * Returns the value of a code.
+     * @param code a code returned by {@link #encode(String)} and not yet released, or NONE
+     * @return the value, or null for NONE
+     */
+    public String decode(int code) {
+        return code == NONE ? null : values[code];
+    }
+
+    /**
+     * Returns the number of distinct values in use.
+     * @return distinct value count
+     */
+    public int size() {
+        return codes.size();
+    }
+
+    /**
+     * Returns the largest code handed out so far, plus one. Codes below it can index an
+     * array; freed ones are reused before it grows.
+     * @return the code limit
+     */
+    public int getCodeLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns how many references to the values are held.
+     * @return references taken and not yet released
+     */
+    public long getReferences() {
+        long total = 0;
+        for (int code = 0; code < limit; code++) {
+            total += references[code];
+        }
+        return total;
+    }
+
+    /**
+     * Estimates the heap saved by keeping one copy of each value: the size of a copy of
+     * the value for every reference beyond the first, as if each holder kept its own.
+     * @return estimated bytes saved
+     */
+    public long getSavedBytes() {
+        String[] values = this.values;
+        long saved = 0;
+        for (int code = 0; code < limit; code++) {
+            if (references[code] > 1) {
+                saved += (references[code] - 1) * estimatedBytes(values[code]);
+            }
+        }
+        return saved;
+    }
+
+    private int add(String value) {
+        int code;
+        if (freeCount > 0) {
+            code = freeCodes[--freeCount];
+        } else {
+            code = limit;
+            if (code == references.length) {
+                references = Arrays.copyOf(references, code * 2);
+                values = Arrays.copyOf(values, code * 2);
+            }
+            limit = code + 1;
+        }
+        values[code] = value;
+        codes.put(value, code);
+        return code;
+    }
+
+    // Latin-1 strings take a byte per char, others two; objects are padded to 8 bytes
+    private static long estimatedBytes(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long bytes = STRING_OVERHEAD_BYTES + (long) bytesPerChar * value.length();
+        return (bytes + 7) & ~7L;
+    }
+}
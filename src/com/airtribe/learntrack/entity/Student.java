@@ -3,6 +3,8 @@ package com.airtribe.learntrack.entity;
 /**
  * Student class extending Person.
  * Demonstrates inheritance and method overriding.
+ * A StudentRepository swaps the batch name of each student it stores for its own shared
+ * copy, so thousands of students in a handful of batches hold one copy of each name.
  */
 public class Student extends Person {
     private String batch;
@@ -34,6 +36,13 @@ public class Student extends Person {
         this.active = true; // Default to active
     }
 
+    // Copy constructor; shares the batch name
+    public Student(Student other) {
+        super(other.getId(), other.getFirstName(), other.getLastName(), other.getEmail());
+        this.batch = other.batch;
+        this.active = other.active;
+    }
+
     // Getters and Setters
     public String getBatch() {
         return batch;
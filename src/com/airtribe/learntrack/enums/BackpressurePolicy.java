@@ -0,0 +1,13 @@
+package com.airtribe.learntrack.enums;
+
+/**
+ * Enum representing what a change stream does with a new event when its slowest
+ * subscriber is a whole buffer behind.
+ */
+public enum BackpressurePolicy {
+    // Wait for the slowest subscriber to free a slot; no subscriber misses an event,
+    // but the write that raised the event is held up, and so are writes queued behind it
+    BLOCK,
+    // Discard the event and count it; writes never wait, but every subscriber misses it
+    DROP
+}
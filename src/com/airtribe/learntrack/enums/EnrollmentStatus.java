@@ -2,10 +2,22 @@ package com.airtribe.learntrack.enums;
 
 /**
  * Enum representing the status of an enrollment.
+ * Ordinals are stored by the journal and snapshots, so new values go at the end.
  */
 public enum EnrollmentStatus {
     ACTIVE,
     COMPLETED,
-    CANCELLED
+    CANCELLED,
+    // Waiting for a seat in a full course; promoted to ACTIVE in arrival order
+    WAITLISTED;
+
+    /**
+     * Checks whether an enrollment in this status is still open, holding or waiting for
+     * a seat. A student has at most one open enrollment per course.
+     * @return true for ACTIVE and WAITLISTED
+     */
+    public boolean isOpen() {
+        return this == ACTIVE || this == WAITLISTED;
+    }
 }
 
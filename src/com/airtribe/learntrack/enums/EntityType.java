@@ -0,0 +1,10 @@
+package com.airtribe.learntrack.enums;
+
+/**
+ * Enum representing the kind of record a change event describes.
+ */
+public enum EntityType {
+    STUDENT,
+    COURSE,
+    ENROLLMENT
+}
@@ -0,0 +1,12 @@
+package com.airtribe.learntrack.enums;
+
+/**
+ * Enum representing the kind of change made to a repository record.
+ */
+public enum MutationType {
+    ADDED,
+    UPDATED,
+    ACTIVATED,
+    DEACTIVATED,
+    STATUS_CHANGED
+}
@@ -0,0 +1,92 @@
+package com.airtribe.learntrack.events;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EntityType;
+import com.airtribe.learntrack.enums.MutationType;
+
+/**
+ * One change to a student, course or enrollment, as published on a {@link ChangeStream}.
+ * The record is a copy taken when the change happened, so a subscriber reading it later
+ * sees the record as the change left it, not as later changes have made it.
+ * Sequence numbers rise by one per published event. Events for the same record arrive in
+ * the order the changes were made; a dropped event leaves no gap, see {@link ChangeStream#getDropped()}.
+ */
+public final class ChangeEvent {
+    private final long sequence;
+    private final EntityType entityType;
+    private final MutationType mutationType;
+    private final Object entity;
+
+    ChangeEvent(long sequence, EntityType entityType, MutationType mutationType, Object entity) {
+        this.sequence = sequence;
+        this.entityType = entityType;
+        this.mutationType = mutationType;
+        this.entity = entity;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public MutationType getMutationType() {
+        return mutationType;
+    }
+
+    /**
+     * Returns the ID of the changed record.
+     * @return a student, course or enrollment ID, depending on the entity type
+     */
+    public int getEntityId() {
+        switch (entityType) {
+            case STUDENT:
+                return ((Student) entity).getId();
+            case COURSE:
+                return ((Course) entity).getId();
+            default:
+                return ((Enrollment) entity).getId();
+        }
+    }
+
+    /**
+     * Returns the changed student.
+     * @return the student as the change left it
+     * @throws ClassCastException if the event is not about a student
+     */
+    public Student getStudent() {
+        return (Student) entity;
+    }
+
+    /**
+     * Returns the changed course.
+     * @return the course as the change left it
+     * @throws ClassCastException if the event is not about a course
+     */
+    public Course getCourse() {
+        return (Course) entity;
+    }
+
+    /**
+     * Returns the changed enrollment.
+     * @return the enrollment as the change left it
+     * @throws ClassCastException if the event is not about an enrollment
+     */
+    public Enrollment getEnrollment() {
+        return (Enrollment) entity;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeEvent{" +
+                "sequence=" + sequence +
+                ", entityType=" + entityType +
+                ", mutationType=" + mutationType +
+                ", entityId=" + getEntityId() +
+                '}';
+    }
+}
@@ -0,0 +1,336 @@
+package com.airtribe.learntrack.events;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.BackpressurePolicy;
+import com.airtribe.learntrack.enums.EntityType;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.RepositoryListener;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Stream of changes to students, courses and enrollments, for systems that need to react
+ * to them (an LMS, email, analytics) without polling and diffing the repositories.
+ * {@link #attach} registers a listener on each repository; every mutation then publishes a
+ * {@link ChangeEvent} into a bounded ring buffer, and each {@link #subscribe subscriber}
+ * reads the ring on its own thread, from its own cursor, in batches.
+ * The ring is lock-free: a writer claims the next sequence, stores the event in slot
+ * (sequence mod capacity), then marks the slot published with that sequence. Writers to
+ * different repositories never wait for each other, and a subscriber never blocks a writer
+ * unless it is a whole ring behind, when the {@link BackpressurePolicy} decides whether the
+ * writer waits or the event is dropped.
+ * Sequences are claimed inside the repository's write lock, so each repository's events
+ * keep the order of its writes, but a writer never waits there: under BLOCK, an event
+ * whose slot is still unread is stored after the write lock is released
+ * ({@link RepositoryListener#afterWrite()}). Readers of the repositories, subscribers
+ * included, are therefore never stuck behind a writer waiting for a subscriber.
+ * With no subscribers nothing is copied or stored at all.
+ */
+public class ChangeStream implements AutoCloseable {
+    /** Default number of events the ring holds. */
+    public static final int DEFAULT_CAPACITY = 4096;
+    /** Default largest batch handed to a subscriber. */
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    // A writer waiting for space spins briefly, then parks for short intervals
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long BLOCKED_PARK_NANOS = 50_000;
+
+    private final ChangeEvent[] events;
+    // published[slot] is the sequence of the event in events[slot], or -1; the volatile
+    // write of the sequence publishes the event to subscribers
+    private final AtomicLongArray published;
+    private final int mask;
+    private final BackpressurePolicy policy;
+    // Next sequence to claim
+    private final AtomicLong nextSequence = new AtomicLong();
+    // Lowest subscriber cursor last seen. Cursors only rise, so a stale value is too low,
+    // never too high: it can make a writer look again, never overwrite an unread event.
+    private volatile long gatingSequence;
+    private final CopyOnWriteArrayList<ChangeSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder blocked = new LongAdder();
+    // Events this thread claimed under a write lock while their slots were unread, in
+    // sequence order; stored once the lock is released
+    private final ThreadLocal<List<ChangeEvent>> waiting = ThreadLocal.withInitial(ArrayList::new);
+    private volatile boolean closed;
+
+    public ChangeStream() {
+        this(DEFAULT_CAPACITY, BackpressurePolicy.BLOCK);
+    }
+
+    /**
+     * Creates a stream.
+     * @param capacity events the ring holds, rounded up to a power of two
+     * @param policy what a write does when the slowest subscriber is a whole ring behind
+     */
+    public ChangeStream(int capacity, BackpressurePolicy policy) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.events = new ChangeEvent[size];
+        this.published = new AtomicLongArray(size);
+        for (int slot = 0; slot < size; slot++) {
+            published.set(slot, -1);
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+    }
+
+    /**
+     * Publishes every later change to the given repositories. Call once per repository.
+     * @param studentRepository the student repository
+     * @param courseRepository the course repository
+     * @param enrollmentRepository the enrollment repository
+     */
+    public void attach(StudentRepository studentRepository, CourseRepository courseRepository,
+                       EnrollmentRepository enrollmentRepository) {
+        // Records are mutable and changed in place, so each event carries a copy
+        studentRepository.addListener(new Publisher<>(EntityType.STUDENT, Student::new));
+        courseRepository.addListener(new Publisher<>(EntityType.COURSE,
+                course -> new Course(course.getId(), course.getCourseName(), course.getDescription(),
+                        course.getDurationInWeeks(), course.getCapacity(), course.isActive())));
+        enrollmentRepository.addListener(new Publisher<>(EntityType.ENROLLMENT,
+                enrollment -> new Enrollment(enrollment.getId(), enrollment.getStudentId(),
+                        enrollment.getCourseId(), enrollment.getEnrollmentDate(), enrollment.getStatus())));
+    }
+
+    /**
+     * Subscribes with the default batch size.
+     * @param name names the subscriber's thread and its statistics
+     * @param subscriber receives the events
+     * @return the running subscription
+     */
+    public ChangeSubscription subscribe(String name, ChangeSubscriber subscriber) {
+        return subscribe(name, DEFAULT_BATCH_SIZE, subscriber);
+    }
+
+    /**
+     * Starts delivering events published from now on to a subscriber, on a new thread.
+     * @param name names the subscriber's thread and its statistics
+     * @param batchSize largest number of events per call to the subscriber
+     * @param subscriber receives the events
+     * @return the running subscription
+     * @throws IllegalStateException if the stream is closed
+     */
+    public ChangeSubscription subscribe(String name, int batchSize, ChangeSubscriber subscriber) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        if (closed) {
+            throw new IllegalStateException("Change stream is closed");
+        }
+        ChangeSubscription subscription = new ChangeSubscription(this, name, batchSize, subscriber,
+                nextSequence.get());
+        subscriptions.add(subscription);
+        // A writer that looked for space before the add did not see this cursor, and may
+        // still claim the sequence current at the add and overwrite older slots. Starting
+        // from the sequence current after the add means no unread slot can be overwritten.
+        subscription.start(nextSequence.get());
+        return subscription;
+    }
+
+    /**
+     * Returns how many events have been published, including any a blocked writer has yet
+     * to store.
+     * @return the next sequence number
+     */
+    public long getPublished() {
+        return nextSequence.get();
+    }
+
+    /**
+     * Returns how many events were discarded because the ring was full, under the DROP policy.
+     * No subscriber received them.
+     * @return dropped event count
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Returns how many writes had to wait for space, after releasing the write lock, under
+     * the BLOCK policy.
+     * @return blocked write count
+     */
+    public long getBlocked() {
+        return blocked.sum();
+    }
+
+    public int getCapacity() {
+        return events.length;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the running subscriptions.
+     * @return a snapshot of the subscriptions
+     */
+    public List<ChangeSubscription> getSubscriptions() {
+        return new ArrayList<>(subscriptions);
+    }
+
+    /**
+     * Stops publishing, delivers what was already published and stops every subscriber.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.close();
+        }
+    }
+
+    private boolean hasSubscribers() {
+        return !closed && !subscriptions.isEmpty();
+    }
+
+    // Runs with the repository's write lock held, so must not wait
+    void publish(EntityType entityType, MutationType mutationType, Object entity) {
+        long sequence = claim();
+        if (sequence < 0) {
+            return;
+        }
+        ChangeEvent event = new ChangeEvent(sequence, entityType, mutationType, entity);
+        if (hasSpace(sequence)) {
+            store(event);
+        } else {
+            blocked.increment();
+            waiting.get().add(event);
+        }
+    }
+
+    // Runs after the write lock is released: waits for the slot of each event the write
+    // could not store, oldest first
+    void storeWaiting() {
+        List<ChangeEvent> pending = waiting.get();
+        if (pending.isEmpty()) {
+            return;
+        }
+        for (ChangeEvent event : pending) {
+            int spins = 0;
+            while (!hasSpace(event.getSequence())) {
+                if (++spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+                }
+            }
+            store(event);
+        }
+        pending.clear();
+    }
+
+    private void store(ChangeEvent event) {
+        int slot = (int) event.getSequence() & mask;
+        events[slot] = event;
+        published.set(slot, event.getSequence());
+        for (ChangeSubscription subscription : subscriptions) {
+            subscription.wake();
+        }
+    }
+
+    // Returns the claimed sequence, or -1 if the event was dropped. Under BLOCK the
+    // sequence is claimed even if its slot is unread; the event then waits to be stored.
+    private long claim() {
+        if (policy == BackpressurePolicy.BLOCK) {
+            return nextSequence.getAndIncrement();
+        }
+        while (true) {
+            long next = nextSequence.get();
+            if (!hasSpace(next)) {
+                dropped.increment();
+                return -1;
+            }
+            if (nextSequence.compareAndSet(next, next + 1)) {
+                return next;
+            }
+        }
+    }
+
+    // Whether every subscriber has read the event that last used the sequence's slot
+    private boolean hasSpace(long sequence) {
+        long wrapPoint = sequence - events.length;
+        if (wrapPoint < gatingSequence) {
+            return true;
+        }
+        long lowest = lowestCursor(sequence);
+        gatingSequence = lowest;
+        return wrapPoint < lowest;
+    }
+
+    private long lowestCursor(long next) {
+        long lowest = next;
+        for (ChangeSubscription subscription : subscriptions) {
+            lowest = Math.min(lowest, subscription.getCursor());
+        }
+        return lowest;
+    }
+
+    /**
+     * Copies the published events from a sequence on, up to a limit, stopping at the first
+     * event not yet published.
+     * @return how many events were added
+     */
+    int poll(long from, List<ChangeEvent> batch, int limit) {
+        int count = 0;
+        while (count < limit) {
+            long sequence = from + count;
+            int slot = (int) sequence & mask;
+            if (published.get(slot) != sequence) {
+                break;
+            }
+            batch.add(events[slot]);
+            count++;
+        }
+        return count;
+    }
+
+    boolean isPublished(long sequence) {
+        return published.get((int) sequence & mask) == sequence;
+    }
+
+    void remove(ChangeSubscription subscription) {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     * Publishes one repository's mutations, copying each record.
+     */
+    private final class Publisher<T> implements RepositoryListener<T> {
+        private final EntityType entityType;
+        private final UnaryOperator<T> copier;
+
+        private Publisher(EntityType entityType, UnaryOperator<T> copier) {
+            this.entityType = entityType;
+            this.copier = copier;
+        }
+
+        @Override
+        public void onMutation(MutationType type, T entity) {
+            if (hasSubscribers()) {
+                publish(entityType, type, copier.apply(entity));
+            }
+        }
+
+        @Override
+        public void afterWrite() {
+            storeWaiting();
+        }
+    }
+}
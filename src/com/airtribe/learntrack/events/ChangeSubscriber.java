@@ -0,0 +1,23 @@
+package com.airtribe.learntrack.events;
+
+import java.util.List;
+
+/**
+ * Receives batches of change events from a {@link ChangeStream}.
+ * Each subscriber runs on its own thread, at its own pace: a slow subscriber delays only
+ * itself, until it falls a whole buffer behind and the stream's backpressure policy applies.
+ */
+@FunctionalInterface
+public interface ChangeSubscriber {
+
+    /**
+     * Called with the next events in sequence order, at least one and at most the
+     * subscription's batch size. The list is reused after the call returns, so copy it to
+     * keep it. An exception is counted and the events are not delivered again.
+     * Reading the repositories feeding the stream is safe. Under
+     * {@link com.airtribe.learntrack.enums.BackpressurePolicy#BLOCK} this must not write to
+     * them: the write could wait for this subscriber to read its own events.
+     * @param events the events, in order
+     */
+    void onEvents(List<ChangeEvent> events);
+}
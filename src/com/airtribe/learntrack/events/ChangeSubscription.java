@@ -0,0 +1,156 @@
+package com.airtribe.learntrack.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A subscriber's place in a {@link ChangeStream}: its cursor, the daemon thread that
+ * delivers its batches, and its delivery statistics.
+ * While caught up the thread parks; a writer that publishes wakes it.
+ */
+public class ChangeSubscription implements AutoCloseable {
+    // Upper bound on a park, in case a wake-up is missed
+    private static final long IDLE_PARK_NANOS = 10_000_000;
+
+    private final ChangeStream stream;
+    private final String name;
+    private final int batchSize;
+    private final ChangeSubscriber subscriber;
+    private final Thread thread;
+    // Next sequence to deliver; writers must not overwrite its slot or any later one
+    private volatile long cursor;
+    private volatile boolean sleeping;
+    private volatile boolean running = true;
+    // Under close, the sequence delivery stops at
+    private volatile long stopSequence = Long.MAX_VALUE;
+    private volatile long delivered;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    ChangeSubscription(ChangeStream stream, String name, int batchSize, ChangeSubscriber subscriber,
+                       long cursor) {
+        this.stream = stream;
+        this.name = name;
+        this.batchSize = batchSize;
+        this.subscriber = subscriber;
+        this.cursor = cursor;
+        this.thread = new Thread(this::run, "learntrack-changes-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    void start(long cursor) {
+        this.cursor = cursor;
+        thread.start();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    long getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Returns how many events the subscriber has been given.
+     * @return delivered event count
+     */
+    public long getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Returns how many batches the subscriber has been given.
+     * @return delivered batch count
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * Returns how many batches the subscriber threw an exception on.
+     * @return failed batch count
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Returns how far the subscriber is behind the stream.
+     * @return events published but not yet delivered
+     */
+    public long getLag() {
+        return Math.max(0, stream.getPublished() - cursor);
+    }
+
+    public boolean isClosed() {
+        return !thread.isAlive();
+    }
+
+    /**
+     * Delivers the events published before this call, then stops the subscription and
+     * waits for its thread to finish, unless called from the subscriber itself.
+     */
+    @Override
+    public void close() {
+        stopSequence = stream.getPublished();
+        running = false;
+        LockSupport.unpark(thread);
+        if (Thread.currentThread() != thread) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void wake() {
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        List<ChangeEvent> batch = new ArrayList<>(batchSize);
+        List<ChangeEvent> view = Collections.unmodifiableList(batch);
+        long next = cursor;
+        try {
+            while (running || next < stopSequence) {
+                int limit = running ? batchSize : (int) Math.min(batchSize, stopSequence - next);
+                int count = stream.poll(next, batch, limit);
+                if (count == 0) {
+                    idle(next);
+                    continue;
+                }
+                try {
+                    subscriber.onEvents(view);
+                } catch (RuntimeException e) {
+                    failures.increment();
+                }
+                batch.clear();
+                next += count;
+                delivered += count;
+                batches.increment();
+                // Frees the slots for writers
+                cursor = next;
+            }
+        } finally {
+            // Stop gating writers only once this thread no longer reads the ring
+            stream.remove(this);
+        }
+    }
+
+    // Announce the park before the last check; a writer publishes before checking the flag,
+    // so either this check sees the event or the writer sees the flag
+    private void idle(long next) {
+        sleeping = true;
+        if (!stream.isPublished(next) && running) {
+            LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+        }
+        sleeping = false;
+    }
+}
@@ -0,0 +1,16 @@
+package com.airtribe.learntrack.exception;
+
+/**
+ * Custom exception thrown when an entity would duplicate a value that must be unique,
+ * such as a student's email.
+ */
+public class DuplicateEntityException extends Exception {
+
+    public DuplicateEntityException(String message) {
+        super(message);
+    }
+
+    public DuplicateEntityException(String entityType, String field, String value) {
+        super(entityType + " with " + field + " " + value + " already exists.");
+    }
+}
@@ -0,0 +1,389 @@
+package com.airtribe.learntrack.importer;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.util.IdGenerator;
+import com.airtribe.learntrack.util.InputValidator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk CSV import for students, courses and enrollments.
+ * The calling thread streams the file in chunks of lines; worker threads parse and
+ * validate chunks in parallel; the calling thread then inserts each chunk's valid rows
+ * into the repository as one batch, in file order, so IDs follow the file.
+ * A student whose email is already registered, or appears earlier in the file, is
+ * rejected with its line number, and so is an enrollment for a student who already
+ * has an open enrollment in the course. Enrollments into a full course are imported
+ * as WAITLISTED, in file order.
+ * Only a bounded number of chunks is in flight, so memory stays flat for any file size.
+ *
+ * Expected columns (a header row is detected and skipped; fields may be double-quoted):
+ * <pre>
+ *   students:    firstName,lastName[,email],batch   (email may be empty or left out)
+ *   courses:     courseName,description,durationInWeeks[,capacity]   (no capacity means unlimited)
+ *   enrollments: studentId,courseId
+ * </pre>
+ */
+public class CsvImporter {
+    private static final int CHUNK_SIZE = 4096;
+
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final int parallelism;
+
+    public CsvImporter(StudentRepository studentRepository, CourseRepository courseRepository,
+                       EnrollmentRepository enrollmentRepository) {
+        this(studentRepository, courseRepository, enrollmentRepository, Runtime.getRuntime().availableProcessors());
+    }
+
+    public CsvImporter(StudentRepository studentRepository, CourseRepository courseRepository,
+                       EnrollmentRepository enrollmentRepository, int parallelism) {
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Imports students (firstName,lastName,email,batch, or firstName,lastName,batch).
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importStudents(Path file) throws IOException {
+        return run(file, "firstName", this::parseStudent, batch -> {
+            for (Student student : batch) {
+                student.setId(IdGenerator.getNextStudentId());
+            }
+            boolean[] added = studentRepository.addStudents(batch);
+            String[] rejected = null;
+            for (int i = 0; i < added.length; i++) {
+                if (!added[i]) {
+                    if (rejected == null) {
+                        rejected = new String[added.length];
+                    }
+                    rejected[i] = "Student with email " + batch.get(i).getEmail() + " already exists.";
+                }
+            }
+            return rejected;
+        });
+    }
+
+    /**
+     * Imports courses (courseName,description,durationInWeeks[,capacity]).
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importCourses(Path file) throws IOException {
+        return run(file, "courseName", this::parseCourse, batch -> {
+            for (Course course : batch) {
+                course.setId(IdGenerator.getNextCourseId());
+            }
+            courseRepository.addCourses(batch);
+            return null;
+        });
+    }
+
+    /**
+     * Imports enrollments (studentId,courseId). Rows naming an unknown student or course,
+     * or a student already enrolled in the course, are rejected.
+     * @param file the CSV file
+     * @return the import report
+     * @throws IOException if the file cannot be read
+     */
+    public ImportReport importEnrollments(Path file) throws IOException {
+        return run(file, "studentId", this::parseEnrollment, batch -> {
+            int nextId = IdGenerator.reserveEnrollmentIds(batch.size());
+            int[] courseIds = new int[batch.size()];
+            for (int i = 0; i < courseIds.length; i++) {
+                batch.get(i).setId(nextId++);
+                courseIds[i] = batch.get(i).getCourseId();
+            }
+            Course[] courses = courseRepository.findByIds(courseIds);
+            int[] capacities = new int[courses.length];
+            for (int i = 0; i < capacities.length; i++) {
+                capacities[i] = courses[i].getCapacity();
+            }
+            Enrollment[] added = enrollmentRepository.addEnrollments(batch, capacities);
+            String[] rejected = null;
+            for (int i = 0; i < added.length; i++) {
+                if (added[i] != batch.get(i)) {
+                    if (rejected == null) {
+                        rejected = new String[added.length];
+                    }
+                    rejected[i] = "Student " + added[i].getStudentId() + " is already enrolled in course "
+                            + added[i].getCourseId() + " (enrollment " + added[i].getId() + ").";
+                }
+            }
+            return rejected;
+        });
+    }
+
+    private Student parseStudent(String[] fields) throws InvalidInputException {
+        if (fields.length != 3 && fields.length != 4) {
+            throw new InvalidInputException("Expected 3 or 4 columns (firstName,lastName,batch or "
+                    + "firstName,lastName,email,batch) but found " + fields.length);
+        }
+        String firstName = requireText(fields[0], "First name");
+        String lastName = requireText(fields[1], "Last name");
+        String email = fields.length == 4 ? fields[2] : "";
+        String batch = requireText(fields[fields.length - 1], "Batch");
+        if (email.isEmpty()) {
+            return new Student(0, firstName, lastName, batch, true);
+        }
+        if (!InputValidator.isValidEmail(email)) {
+            throw new InvalidInputException("Invalid email format: " + email);
+        }
+        return new Student(0, firstName, lastName, email, batch, true);
+    }
+
+    private Course parseCourse(String[] fields) throws InvalidInputException {
+        if (fields.length != 3 && fields.length != 4) {
+            throw new InvalidInputException(
+                    "Expected 3 or 4 columns (courseName,description,durationInWeeks,capacity) but found "
+                    + fields.length);
+        }
+        String courseName = requireText(fields[0], "Course name");
+        String description = requireText(fields[1], "Description");
+        int duration = requireInteger(fields[2], "Duration");
+        if (duration <= 0) {
+            throw new InvalidInputException("Duration must be greater than 0.");
+        }
+        int capacity = Course.UNLIMITED_CAPACITY;
+        if (fields.length == 4 && !fields[3].isEmpty()) {
+            capacity = requireInteger(fields[3], "Capacity");
+            if (capacity < 0) {
+                throw new InvalidInputException("Capacity must not be negative.");
+            }
+        }
+        return new Course(0, courseName, description, duration, capacity, true);
+    }
+
+    private Enrollment parseEnrollment(String[] fields) throws InvalidInputException {
+        if (fields.length != 2) {
+            throw new InvalidInputException("Expected 2 columns (studentId,courseId) but found " + fields.length);
+        }
+        int studentId = requireInteger(fields[0], "Student ID");
+        int courseId = requireInteger(fields[1], "Course ID");
+        if (studentRepository.findById(studentId) == null) {
+            throw new InvalidInputException("Student with ID " + studentId + " not found.");
+        }
+        if (courseRepository.findById(courseId) == null) {
+            throw new InvalidInputException("Course with ID " + courseId + " not found.");
+        }
+        return new Enrollment(0, studentId, courseId, LocalDate.now(), EnrollmentStatus.ACTIVE);
+    }
+
+    private static String requireText(String value, String field) throws InvalidInputException {
+        if (!InputValidator.isValidString(value)) {
+            throw new InvalidInputException(field + " cannot be empty.");
+        }
+        return value;
+    }
+
+    private static int requireInteger(String value, String field) throws InvalidInputException {
+        if (!InputValidator.isValidInteger(value)) {
+            throw new InvalidInputException(field + " is not a valid number: " + value);
+        }
+        return Integer.parseInt(value);
+    }
+
+    // Reads, parses in parallel and inserts in file order, keeping at most 2 chunks per worker in flight
+    private <T> ImportReport run(Path file, String headerField, RowParser<T> parser, RowInserter<T> inserter)
+            throws IOException {
+        long start = System.nanoTime();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "learntrack-import");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ArrayDeque<Future<ParsedChunk<T>>> inFlight = new ArrayDeque<>();
+        List<ImportReport.RowError> errors = new ArrayList<>();
+        long rowsRead = 0;
+        long rowsImported = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(CHUNK_SIZE);
+            long chunkFirstLine = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && isHeader(line, headerField)) {
+                    chunkFirstLine = 2;
+                    continue;
+                }
+                lines.add(line);
+                if (lines.size() == CHUNK_SIZE) {
+                    inFlight.add(submit(workers, parser, lines, chunkFirstLine));
+                    lines = new ArrayList<>(CHUNK_SIZE);
+                    chunkFirstLine = lineNumber + 1;
+                    if (inFlight.size() >= parallelism * 2) {
+                        ParsedChunk<T> parsed = await(inFlight.poll());
+                        rowsRead += parsed.rowsRead;
+                        rowsImported += insert(parsed, inserter, errors);
+                    }
+                }
+            }
+            if (!lines.isEmpty()) {
+                inFlight.add(submit(workers, parser, lines, chunkFirstLine));
+            }
+            while (!inFlight.isEmpty()) {
+                ParsedChunk<T> parsed = await(inFlight.poll());
+                rowsRead += parsed.rowsRead;
+                rowsImported += insert(parsed, inserter, errors);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return new ImportReport(file.toString(), rowsRead, rowsImported, errors, System.nanoTime() - start);
+    }
+
+    // Inserts a chunk's rows, adding its parse errors and rejected rows to errors in line order
+    private static <T> int insert(ParsedChunk<T> parsed, RowInserter<T> inserter,
+                                  List<ImportReport.RowError> errors) {
+        String[] rejected = parsed.rows.isEmpty() ? null : inserter.insert(parsed.rows);
+        if (rejected == null) {
+            errors.addAll(parsed.errors);
+            return parsed.rows.size();
+        }
+        // Both lists are in line order already, so merge them
+        int inserted = 0;
+        int parseErrors = 0;
+        for (int i = 0; i < rejected.length; i++) {
+            if (rejected[i] == null) {
+                inserted++;
+                continue;
+            }
+            while (parseErrors < parsed.errors.size()
+                    && parsed.errors.get(parseErrors).getLineNumber() < parsed.rowLines[i]) {
+                errors.add(parsed.errors.get(parseErrors++));
+            }
+            errors.add(new ImportReport.RowError(parsed.rowLines[i], rejected[i]));
+        }
+        errors.addAll(parsed.errors.subList(parseErrors, parsed.errors.size()));
+        return inserted;
+    }
+
+    private static <T> Future<ParsedChunk<T>> submit(ExecutorService workers, RowParser<T> parser,
+                                                     List<String> lines, long firstLine) {
+        return workers.submit(() -> {
+            ParsedChunk<T> parsed = new ParsedChunk<>(lines.size());
+            long lineNumber = firstLine;
+            for (String line : lines) {
+                if (!line.isBlank()) {
+                    parsed.rowsRead++;
+                    try {
+                        T row = parser.parse(splitCsvLine(line));
+                        parsed.rowLines[parsed.rows.size()] = lineNumber;
+                        parsed.rows.add(row);
+                    } catch (InvalidInputException e) {
+                        parsed.errors.add(new ImportReport.RowError(lineNumber, e.getMessage()));
+                    }
+                }
+                lineNumber++;
+            }
+            return parsed;
+        });
+    }
+
+    private static <T> ParsedChunk<T> await(Future<ParsedChunk<T>> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static boolean isHeader(String line, String headerField) {
+        String[] fields = splitCsvLine(line);
+        return fields.length > 0 && fields[0].equalsIgnoreCase(headerField);
+    }
+
+    /**
+     * Splits one CSV line into trimmed fields. Double-quoted fields may contain
+     * commas and doubled quotes; quoted line breaks are not supported.
+     * @param line the line
+     * @return the fields
+     */
+    static String[] splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>(6);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+
+    /**
+     * Turns one row's fields into an entity, or rejects the row.
+     */
+    @FunctionalInterface
+    private interface RowParser<T> {
+        T parse(String[] fields) throws InvalidInputException;
+    }
+
+    /**
+     * Inserts one chunk's valid rows as a batch.
+     * Returns null if every row was inserted, otherwise the reason each rejected row was
+     * turned down (null for the rows that were inserted).
+     */
+    @FunctionalInterface
+    private interface RowInserter<T> {
+        String[] insert(List<T> rows);
+    }
+
+    // Valid rows with their line numbers, and rejected-row errors, from one chunk
+    private static final class ParsedChunk<T> {
+        private final List<T> rows;
+        private final long[] rowLines;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+        private long rowsRead;
+
+        ParsedChunk(int capacity) {
+            this.rows = new ArrayList<>(capacity);
+            this.rowLines = new long[capacity];
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.airtribe.learntrack.importer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one CSV import: row counts, timing and one error per rejected row.
+ */
+public class ImportReport {
+    private final String source;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final List<RowError> errors;
+    private final long elapsedNanos;
+
+    public ImportReport(String source, long rowsRead, long rowsImported, List<RowError> errors, long elapsedNanos) {
+        this.source = source;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Calculates throughput over all rows read, including rejected ones.
+     * @return rows per second
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsRead * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Writes the per-row errors as CSV (line,error).
+     * @param path the report file
+     * @throws IOException if the file cannot be written
+     */
+    public void writeErrorReport(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("line,error");
+            writer.newLine();
+            for (RowError error : errors) {
+                writer.write(Long.toString(error.getLineNumber()));
+                writer.write(",\"");
+                writer.write(error.getMessage().replace("\"", "\"\""));
+                writer.write('"');
+                writer.newLine();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %,d rows read, %,d imported, %,d rejected in %d ms (%,.0f rows/s)",
+                source, rowsRead, rowsImported, errors.size(), elapsedNanos / 1_000_000, getRowsPerSecond());
+    }
+
+    /**
+     * A rejected row and the reason it was rejected.
+     */
+    public static class RowError {
+        private final long lineNumber;
+        private final String message;
+
+        public RowError(long lineNumber, String message) {
+            this.lineNumber = lineNumber;
+            this.message = message;
+        }
+
+        public long getLineNumber() {
+            return lineNumber;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Line " + lineNumber + ": " + message;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.airtribe.learntrack.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Call count, error count and latency histogram for one service operation.
+ * Instances come from {@link ServiceMetrics#operation(String)}; callers keep the
+ * reference so recording a call never looks the operation up by name.
+ */
+public class OperationStats implements OperationStatsMXBean {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Runs a call, recording its duration and whether it threw.
+     * @param call the call
+     * @param <T> the call's result type
+     * @param <E> the checked exception the call may throw
+     * @return the call's result
+     * @throws E if the call throws it; the call is counted as an error
+     */
+    public <T, E extends Exception> T time(TimedCall<T, E> call) throws E {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.call();
+            failed = false;
+            return result;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Runs a call with no result, recording its duration and whether it threw.
+     * @param action the call
+     * @param <E> the checked exception the call may throw
+     * @throws E if the call throws it; the call is counted as an error
+     */
+    public <E extends Exception> void run(TimedAction<E> action) throws E {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            action.run();
+            failed = false;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * Records one call.
+     * @param nanos how long it took
+     * @param failed whether it ended with an exception
+     */
+    public void record(long nanos, boolean failed) {
+        latency.record(nanos);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCalls() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getErrorRate() {
+        long calls = getCalls();
+        return calls == 0 ? 0 : Math.min(1.0, getErrors() / (double) calls);
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMeanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.getPercentileNanos(50) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getPercentileNanos(99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.getPercentileNanos(99.9) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMaxNanos() / 1_000.0;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+    }
+
+    /**
+     * A call whose duration is recorded.
+     * @param <T> the result type
+     * @param <E> the checked exception it may throw
+     */
+    @FunctionalInterface
+    public interface TimedCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * A call with no result whose duration is recorded.
+     * @param <E> the checked exception it may throw
+     */
+    @FunctionalInterface
+    public interface TimedAction<E extends Exception> {
+        void run() throws E;
+    }
+}
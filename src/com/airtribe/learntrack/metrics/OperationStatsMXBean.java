@@ -0,0 +1,33 @@
+package com.airtribe.learntrack.metrics;
+
+/**
+ * JMX view of one service operation's call count, errors and latency.
+ * Latencies are in microseconds.
+ */
+public interface OperationStatsMXBean {
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    /**
+     * @return errors as a fraction of calls, from 0 to 1
+     */
+    double getErrorRate();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaxMicros();
+
+    /**
+     * Clears the counts and the histogram.
+     */
+    void reset();
+}
@@ -0,0 +1,171 @@
+package com.airtribe.learntrack.metrics;
+
+import com.airtribe.learntrack.util.TableRenderer;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registry of per-operation service metrics. Each operation gets an
+ * {@link OperationStats}; once {@link #registerMBeans()} is called every operation
+ * is also visible in JMX (e.g. jconsole) as
+ * com.airtribe.learntrack:type=ServiceMetrics,name=&lt;Service.method&gt;.
+ * {@link #startReporter(long, Writer)} writes the same numbers as a text table on a
+ * fixed interval.
+ */
+public class ServiceMetrics implements AutoCloseable {
+    private static final String DOMAIN = "com.airtribe.learntrack";
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+    private volatile boolean jmxEnabled;
+    private ScheduledExecutorService reporter;
+    private Writer reportTarget;
+
+    /**
+     * Returns the stats for an operation, creating them on first use.
+     * @param name operation name, by convention "ServiceClass.method"
+     * @return the stats
+     */
+    public OperationStats operation(String name) {
+        OperationStats stats = operations.get(name);
+        if (stats != null) {
+            return stats;
+        }
+        OperationStats created = new OperationStats(name);
+        stats = operations.putIfAbsent(name, created);
+        if (stats != null) {
+            return stats;
+        }
+        if (jmxEnabled) {
+            register(created);
+        }
+        return created;
+    }
+
+    /**
+     * Publishes every operation, current and future, as a platform MBean.
+     * Operations whose names are already registered (e.g. by a second registry in
+     * the same JVM) are skipped.
+     */
+    public synchronized void registerMBeans() {
+        jmxEnabled = true;
+        for (OperationStats stats : operations.values()) {
+            register(stats);
+        }
+    }
+
+    private synchronized void register(OperationStats stats) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=ServiceMetrics,name=" + stats.getName());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(stats, name);
+                registered.add(name);
+            }
+        } catch (JMException e) {
+            // Metrics stay available through the text report
+        }
+    }
+
+    /**
+     * Writes every operation that has been called as a table, preceded by a timestamp line.
+     * @param out where the table is written; it is flushed at the end
+     * @throws IOException if the writer fails
+     */
+    public void print(Writer out) throws IOException {
+        List<OperationStats> sorted = new ArrayList<>(operations.values());
+        sorted.sort(Comparator.comparing(OperationStats::getName));
+        out.write("Service metrics at " + LocalDateTime.now().format(TIMESTAMP) + " (latency in microseconds)\n");
+        TableRenderer table = new TableRenderer(out, 46, 12, 8, 8, 10, 10, 10, 10, 10);
+        table.header("Operation", "Calls", "Errors", "Err %", "Mean", "p50", "p99", "p99.9", "Max");
+        for (OperationStats stats : sorted) {
+            long calls = stats.getCalls();
+            if (calls == 0) {
+                continue;
+            }
+            table.cell(stats.getName())
+                    .cell(Long.toString(calls))
+                    .cell(Long.toString(stats.getErrors()))
+                    .cell(String.format("%.2f", stats.getErrorRate() * 100))
+                    .cell(String.format("%.1f", stats.getMeanMicros()))
+                    .cell(String.format("%.1f", stats.getP50Micros()))
+                    .cell(String.format("%.1f", stats.getP99Micros()))
+                    .cell(String.format("%.1f", stats.getP999Micros()))
+                    .cell(String.format("%.1f", stats.getMaxMicros()));
+            table.endRow();
+        }
+        table.line("");
+        table.flush();
+    }
+
+    /**
+     * Starts writing {@link #print(Writer)} to the writer every intervalSeconds on a
+     * daemon thread. Write errors are ignored so a full disk does not stop the application.
+     * @param intervalSeconds seconds between reports
+     * @param out where reports are written; closed by {@link #close()}
+     */
+    public synchronized void startReporter(long intervalSeconds, Writer out) {
+        if (reporter != null) {
+            throw new IllegalStateException("Reporter already started");
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            try {
+                print(out);
+            } catch (IOException e) {
+                // Try again at the next interval
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        reportTarget = out;
+    }
+
+    /**
+     * Stops the reporter after a final report and unregisters the MBeans.
+     */
+    @Override
+    public synchronized void close() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            try {
+                // Let a report in progress finish so the final one is not interleaved with it
+                reporter.awaitTermination(1, TimeUnit.SECONDS);
+                print(reportTarget);
+                reportTarget.close();
+            } catch (IOException e) {
+                // Nothing more can be reported
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            reporter = null;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                // Already gone
+            }
+        }
+        registered.clear();
+        jmxEnabled = false;
+    }
+}
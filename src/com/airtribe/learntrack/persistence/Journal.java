@@ -0,0 +1,502 @@
+package com.airtribe.learntrack.persistence;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.util.IdGenerator;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal for the three repositories.
+ * Every add, update, activation, deactivation and status change is recorded
+ * as the full state of the changed entity. Appends only copy bytes into memory;
+ * a background thread writes them and fsyncs once per flush interval, so many
+ * mutations share one fsync (group commit). Use {@link #sync()} to wait for
+ * everything appended so far to be durable.
+ * Every {@code checkpointEvery} records the log is rotated and a checkpoint of
+ * all repositories is written, which keeps recovery time bounded.
+ *
+ * Files in the journal directory:
+ * <pre>
+ *   checkpoint.snapshot - full state at the last checkpoint, as a {@link SnapshotFile}
+ *   journal.log.old     - log being folded into a checkpoint (only during a checkpoint)
+ *   journal.log         - mutations since the last rotation
+ * </pre>
+ * Each record is [int payloadLength][int crc32][byte entity][byte mutation][entity fields].
+ *
+ * Records are appended by repository listeners, after the repository has applied the
+ * change in memory. Once the journal is closed or has failed, an append throws from the
+ * listener: the write's caller sees the exception, but the change stays applied in memory
+ * without being journaled, and listeners registered after the journal are not told of it.
+ * A failure is also reported by {@link #sync()} and {@link #close()}, so check them before
+ * treating earlier writes as durable.
+ */
+public class Journal implements Closeable {
+    private static final String LOG_FILE = "journal.log";
+    private static final String OLD_LOG_FILE = "journal.log.old";
+    private static final String CHECKPOINT_FILE = "checkpoint.snapshot";
+    // Checkpoints used to be written in the log record format; still read once for upgrades
+    private static final String LEGACY_CHECKPOINT_FILE = "checkpoint.dat";
+
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5;
+    private static final int DEFAULT_CHECKPOINT_EVERY = 100_000;
+    // Pending bytes that wake the flusher before the interval is up
+    private static final int FLUSH_THRESHOLD_BYTES = 256 * 1024;
+    private static final int HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 1 << 20;
+
+    private final Path directory;
+    private final StudentRepository studentRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final long flushIntervalMillis;
+    private final int checkpointEvery;
+    private final Thread flusher;
+
+    // Only touched by the flusher thread once it is running
+    private FileChannel log;
+
+    // Guarded by this
+    private RecordBuffer pending = new RecordBuffer();
+    private RecordBuffer spare = new RecordBuffer();
+    private long appendedRecords;
+    private long durableRecords;
+    private int recordsSinceCheckpoint;
+    private int syncWaiters;
+    private boolean closed;
+    // Set when the flusher stops on an error; no record appended since is written
+    private IOException failure;
+
+    private Journal(Path directory, StudentRepository studentRepository, CourseRepository courseRepository,
+                    EnrollmentRepository enrollmentRepository, long flushIntervalMillis, int checkpointEvery) {
+        this.directory = directory;
+        this.studentRepository = studentRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.checkpointEvery = checkpointEvery;
+        this.flusher = new Thread(this::runFlusher, "learntrack-journal");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens the journal with default settings. See
+     * {@link #open(Path, StudentRepository, CourseRepository, EnrollmentRepository, long, int)}.
+     */
+    public static Journal open(Path directory, StudentRepository studentRepository,
+                               CourseRepository courseRepository, EnrollmentRepository enrollmentRepository)
+            throws IOException {
+        return open(directory, studentRepository, courseRepository, enrollmentRepository,
+                DEFAULT_FLUSH_INTERVAL_MILLIS, DEFAULT_CHECKPOINT_EVERY);
+    }
+
+    /**
+     * Restores the repositories from the journal directory, then starts recording
+     * their mutations. The repositories should be empty and not yet in use.
+     * @param directory the journal directory (created if missing)
+     * @param studentRepository student repository to restore and record
+     * @param courseRepository course repository to restore and record
+     * @param enrollmentRepository enrollment repository to restore and record
+     * @param flushIntervalMillis how long appends may wait before being fsynced
+     * @param checkpointEvery records between checkpoints
+     * @return the open journal
+     * @throws IOException if the journal cannot be read or created
+     */
+    public static Journal open(Path directory, StudentRepository studentRepository,
+                               CourseRepository courseRepository, EnrollmentRepository enrollmentRepository,
+                               long flushIntervalMillis, int checkpointEvery) throws IOException {
+        Files.createDirectories(directory);
+        Journal journal = new Journal(directory, studentRepository, courseRepository, enrollmentRepository,
+                flushIntervalMillis, checkpointEvery);
+        journal.recover();
+        journal.log = openLog(directory.resolve(LOG_FILE));
+        journal.registerListeners();
+        journal.flusher.start();
+        return journal;
+    }
+
+    /**
+     * Blocks until every record appended before this call is on disk.
+     * @throws IOException if the journal failed to write
+     */
+    public void sync() throws IOException {
+        synchronized (this) {
+            long target = appendedRecords;
+            syncWaiters++;
+            notifyAll();
+            try {
+                while (durableRecords < target && failure == null && flusher.isAlive()) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the journal", e);
+            } finally {
+                syncWaiters--;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (durableRecords < target) {
+                throw new IOException("Journal stopped before the records were written");
+            }
+        }
+    }
+
+    /**
+     * Flushes outstanding records and stops the journal. Later mutations are rejected.
+     * Calling close more than once has no effect.
+     * @throws IOException if the final flush failed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private void registerListeners() {
+        studentRepository.addListener((type, student) ->
+                append(RecordCodec.STUDENT, type, out -> RecordCodec.writeStudent(out, student)));
+        courseRepository.addListener((type, course) ->
+                append(RecordCodec.COURSE_WITH_CAPACITY, type, out -> RecordCodec.writeCourse(out, course)));
+        enrollmentRepository.addListener((type, enrollment) ->
+                append(RecordCodec.ENROLLMENT, type, out -> RecordCodec.writeEnrollment(out, enrollment)));
+    }
+
+    // Called from repository listeners, after the change is applied in memory; only copies
+    // bytes into the pending buffer. Throws if the journal is closed or has failed.
+    private synchronized void append(byte entity, MutationType type, EntityWriter writer) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            throw new UncheckedIOException("Journal is no longer writable", failure);
+        }
+        try {
+            pending.appendRecord(entity, type, writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // Not expected: the buffer is in memory
+        }
+        appendedRecords++;
+        recordsSinceCheckpoint++;
+        if (pending.size() >= FLUSH_THRESHOLD_BYTES) {
+            notifyAll();
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            RecordBuffer batch;
+            long batchRecords;
+            boolean stopping;
+            boolean checkpointDue;
+            synchronized (this) {
+                if (!closed && syncWaiters == 0 && pending.size() < FLUSH_THRESHOLD_BYTES) {
+                    try {
+                        wait(flushIntervalMillis);
+                    } catch (InterruptedException e) {
+                        closed = true;
+                    }
+                }
+                batch = pending;
+                pending = spare;
+                batchRecords = appendedRecords;
+                stopping = closed;
+                checkpointDue = recordsSinceCheckpoint >= checkpointEvery;
+            }
+            try {
+                writeBatch(batch, batchRecords);
+                if (checkpointDue && !stopping) {
+                    checkpoint();
+                }
+            } catch (IOException | RuntimeException e) {
+                // Anything that stops the flusher must be seen by sync(), close() and append()
+                synchronized (this) {
+                    failure = e instanceof IOException ? (IOException) e
+                            : new IOException("Journal flusher failed: " + e, e);
+                    notifyAll();
+                }
+                return;
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    // Writes and fsyncs one batch, then hands the buffer back for reuse
+    private void writeBatch(RecordBuffer batch, long batchRecords) throws IOException {
+        if (batch.size() > 0) {
+            batch.writeTo(log);
+            log.force(false);
+        }
+        synchronized (this) {
+            batch.reset();
+            spare = batch;
+            durableRecords = batchRecords;
+            notifyAll();
+        }
+    }
+
+    // Runs on the flusher thread while appends continue into the pending buffer
+    private void checkpoint() throws IOException {
+        RecordBuffer batch;
+        long batchRecords;
+        synchronized (this) {
+            batch = pending;
+            pending = spare;
+            batchRecords = appendedRecords;
+            recordsSinceCheckpoint = 0;
+        }
+        // Everything appended so far ends up in the old log; later appends go to a new one
+        writeBatch(batch, batchRecords);
+        log.close();
+        Path logPath = directory.resolve(LOG_FILE);
+        Path oldLogPath = directory.resolve(OLD_LOG_FILE);
+        Files.move(logPath, oldLogPath, StandardCopyOption.ATOMIC_MOVE);
+        log = openLog(logPath);
+
+        // The snapshot is taken after the rotation, so it covers everything in the old log.
+        // Mutations that race the snapshot are also in the new log, and replaying them is idempotent.
+        writeCheckpoint();
+        Files.delete(oldLogPath);
+    }
+
+    private void writeCheckpoint() throws IOException {
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        SnapshotFile.write(temp, studentRepository.getAllStudents(), courseRepository.getAllCourses(),
+                enrollmentRepository.getAllEnrollments());
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+        Files.deleteIfExists(directory.resolve(LEGACY_CHECKPOINT_FILE));
+    }
+
+    // Replays checkpoint, old log and log in that order, then folds them into a fresh checkpoint
+    private void recover() throws IOException {
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        Path oldLogPath = directory.resolve(OLD_LOG_FILE);
+        Path logPath = directory.resolve(LOG_FILE);
+        Path legacyCheckpointPath = directory.resolve(LEGACY_CHECKPOINT_FILE);
+        Replay replay = new Replay();
+        long logRecords = replay.apply(legacyCheckpointPath);
+        replay.applySnapshot(checkpointPath);
+        logRecords += replay.apply(oldLogPath) + replay.apply(logPath);
+        IdGenerator.advancePast(replay.maxStudentId, replay.maxCourseId, replay.maxEnrollmentId);
+
+        if (logRecords > 0 || Files.exists(oldLogPath) || Files.exists(legacyCheckpointPath)) {
+            writeCheckpoint();
+            Files.deleteIfExists(oldLogPath);
+            Files.deleteIfExists(logPath);
+        }
+    }
+
+    private static FileChannel openLog(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return channel;
+    }
+
+    // Makes a rename durable; not every platform allows opening a directory
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Best effort
+        }
+    }
+
+    /**
+     * Writes one entity's fields.
+     */
+    @FunctionalInterface
+    private interface EntityWriter {
+        void write(DataOutput out) throws IOException;
+    }
+
+    /**
+     * Growable byte buffer that frames records and computes their checksums in place.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream data = new DataOutputStream(this);
+        private final CRC32 crc = new CRC32();
+
+        RecordBuffer() {
+            super(64 * 1024);
+        }
+
+        void appendRecord(byte entity, MutationType type, EntityWriter writer) throws IOException {
+            int start = count;
+            data.writeLong(0L); // Header placeholder, patched below
+            data.writeByte(entity);
+            data.writeByte(type.ordinal());
+            writer.write(data);
+            int payloadLength = count - start - HEADER_SIZE;
+            crc.reset();
+            crc.update(buf, start + HEADER_SIZE, payloadLength);
+            putInt(start, payloadLength);
+            putInt(start + 4, (int) crc.getValue());
+        }
+
+        void writeTo(FileChannel channel) throws IOException {
+            ByteBuffer bytes = ByteBuffer.wrap(buf, 0, count);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        private void putInt(int position, int value) {
+            buf[position] = (byte) (value >>> 24);
+            buf[position + 1] = (byte) (value >>> 16);
+            buf[position + 2] = (byte) (value >>> 8);
+            buf[position + 3] = (byte) value;
+        }
+    }
+
+    /**
+     * Applies journal files to the repositories as upserts.
+     */
+    private final class Replay {
+        private int maxStudentId;
+        private int maxCourseId;
+        private int maxEnrollmentId;
+
+        // Returns the number of records applied; a torn or corrupt tail is cut off
+        long apply(Path path) throws IOException {
+            if (!Files.exists(path)) {
+                return 0;
+            }
+            long records = 0;
+            long validBytes = 0;
+            CRC32 crc = new CRC32();
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(path), 1 << 16);
+                 DataInputStream in = new DataInputStream(input)) {
+                byte[] payload = new byte[256];
+                while (true) {
+                    int length;
+                    int checksum;
+                    try {
+                        length = in.readInt();
+                        checksum = in.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    if (length < 2 || length > MAX_PAYLOAD_SIZE) {
+                        break;
+                    }
+                    if (payload.length < length) {
+                        payload = new byte[Math.max(length, payload.length * 2)];
+                    }
+                    if (in.readNBytes(payload, 0, length) < length) {
+                        break;
+                    }
+                    crc.reset();
+                    crc.update(payload, 0, length);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    applyRecord(new DataInputStream(new ByteArrayInputStream(payload, 0, length)));
+                    validBytes += HEADER_SIZE + length;
+                    records++;
+                }
+            }
+            if (validBytes < Files.size(path)) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(validBytes);
+                }
+            }
+            return records;
+        }
+
+        void applySnapshot(Path path) throws IOException {
+            if (!Files.exists(path)) {
+                return;
+            }
+            SnapshotFile snapshot = SnapshotFile.open(path);
+            for (int i = 0; i < snapshot.getStudentCount(); i++) {
+                upsert(snapshot.getStudent(i));
+            }
+            for (int i = 0; i < snapshot.getCourseCount(); i++) {
+                upsert(snapshot.getCourse(i));
+            }
+            for (int i = 0; i < snapshot.getEnrollmentCount(); i++) {
+                upsert(snapshot.getEnrollment(i));
+            }
+        }
+
+        private void applyRecord(DataInputStream in) throws IOException {
+            byte entity = in.readByte();
+            in.readByte(); // Mutation type; every record carries full state, so replay is an upsert
+            switch (entity) {
+                case RecordCodec.STUDENT:
+                    upsert(RecordCodec.readStudent(in));
+                    break;
+                case RecordCodec.COURSE:
+                case RecordCodec.COURSE_WITH_CAPACITY:
+                    upsert(RecordCodec.readCourse(in, entity));
+                    break;
+                case RecordCodec.ENROLLMENT:
+                    upsert(RecordCodec.readEnrollment(in));
+                    break;
+                default:
+                    throw new IOException("Unknown journal entity type " + entity);
+            }
+        }
+
+        private void upsert(Student student) {
+            maxStudentId = Math.max(maxStudentId, student.getId());
+            studentRepository.restoreStudent(student);
+        }
+
+        private void upsert(Course course) {
+            maxCourseId = Math.max(maxCourseId, course.getId());
+            if (!courseRepository.updateCourse(course)) {
+                courseRepository.addCourse(course);
+            }
+        }
+
+        private void upsert(Enrollment enrollment) {
+            maxEnrollmentId = Math.max(maxEnrollmentId, enrollment.getId());
+            if (!enrollmentRepository.updateEnrollment(enrollment)) {
+                enrollmentRepository.addEnrollment(enrollment);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.airtribe.learntrack.persistence;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Binary encoding of entities used by the journal.
+ * Every record carries the full state of one entity, so replaying a record
+ * is an idempotent upsert.
+ * An entity that gains a field gets a new record tag, so logs written before the
+ * change still replay: COURSE records predate course capacities and read as unlimited.
+ */
+class RecordCodec {
+    static final byte STUDENT = 1;
+    static final byte COURSE = 2;
+    static final byte ENROLLMENT = 3;
+    static final byte COURSE_WITH_CAPACITY = 4;
+
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+
+    // Private constructor to prevent instantiation
+    private RecordCodec() {
+    }
+
+    static void writeStudent(DataOutput out, Student student) throws IOException {
+        out.writeInt(student.getId());
+        out.writeUTF(student.getFirstName());
+        out.writeUTF(student.getLastName());
+        writeNullable(out, student.getEmail());
+        writeNullable(out, student.getBatch());
+        out.writeBoolean(student.isActive());
+    }
+
+    static Student readStudent(DataInput in) throws IOException {
+        int id = in.readInt();
+        String firstName = in.readUTF();
+        String lastName = in.readUTF();
+        String email = readNullable(in);
+        String batch = readNullable(in);
+        boolean active = in.readBoolean();
+        return new Student(id, firstName, lastName, email, batch, active);
+    }
+
+    // Written with the COURSE_WITH_CAPACITY tag
+    static void writeCourse(DataOutput out, Course course) throws IOException {
+        out.writeInt(course.getId());
+        out.writeUTF(course.getCourseName());
+        writeNullable(out, course.getDescription());
+        out.writeInt(course.getDurationInWeeks());
+        out.writeBoolean(course.isActive());
+        out.writeInt(course.getCapacity());
+    }
+
+    static Course readCourse(DataInput in, byte tag) throws IOException {
+        int id = in.readInt();
+        String courseName = in.readUTF();
+        String description = readNullable(in);
+        int durationInWeeks = in.readInt();
+        boolean active = in.readBoolean();
+        int capacity = tag == COURSE_WITH_CAPACITY ? in.readInt() : Course.UNLIMITED_CAPACITY;
+        return new Course(id, courseName, description, durationInWeeks, capacity, active);
+    }
+
+    static void writeEnrollment(DataOutput out, Enrollment enrollment) throws IOException {
+        out.writeInt(enrollment.getId());
+        out.writeInt(enrollment.getStudentId());
+        out.writeInt(enrollment.getCourseId());
+        out.writeLong(enrollment.getEnrollmentDate().toEpochDay());
+        out.writeByte(enrollment.getStatus().ordinal());
+    }
+
+    static Enrollment readEnrollment(DataInput in) throws IOException {
+        int id = in.readInt();
+        int studentId = in.readInt();
+        int courseId = in.readInt();
+        LocalDate enrollmentDate = LocalDate.ofEpochDay(in.readLong());
+        EnrollmentStatus status = STATUSES[in.readByte()];
+        return new Enrollment(id, studentId, courseId, enrollmentDate, status);
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
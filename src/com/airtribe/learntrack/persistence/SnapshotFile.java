@@ -0,0 +1,315 @@
+package com.airtribe.learntrack.persistence;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary snapshot of all three repositories, read through {@link FileChannel#map}.
+ * Records are fixed width, so record i is found by arithmetic instead of parsing
+ * everything before it; strings are stored once in a shared string table and
+ * referenced by index (so a batch name shared by thousands of students is stored once).
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   header        magic, version, counts and section offsets (HEADER_SIZE bytes)
+ *   string index  int[stringCount + 1] start offsets into the string data
+ *   string data   UTF-8 bytes
+ *   students      24 bytes each: id, firstName, lastName, email, batch, active
+ *   courses       24 bytes each: id, courseName, description, durationInWeeks, active, capacity
+ *   enrollments   20 bytes each: id, studentId, courseId, epochDay, status
+ * </pre>
+ * String fields hold a string table index, or -1 for null.
+ * Version 1 files, written before course capacities, have 20-byte course records
+ * without the capacity; they are still read, with every course unlimited.
+ * A mapped snapshot caches decoded strings, so it is meant to be read by one thread.
+ */
+public class SnapshotFile {
+    private static final int MAGIC = 0x4C54534E; // "LTSN"
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_CAPACITY = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int STUDENT_RECORD_SIZE = 24;
+    private static final int COURSE_RECORD_SIZE = 24;
+    private static final int COURSE_RECORD_SIZE_WITHOUT_CAPACITY = 20;
+    private static final int ENROLLMENT_RECORD_SIZE = 20;
+    private static final int NO_STRING = -1;
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+
+    private final int studentCount;
+    private final int courseCount;
+    private final int enrollmentCount;
+    private final int courseRecordSize;
+    private final ByteBuffer stringIndex;
+    private final ByteBuffer stringData;
+    private final ByteBuffer students;
+    private final ByteBuffer courses;
+    private final ByteBuffer enrollments;
+    // Decoded strings and dates are shared between records instead of decoded again
+    private final String[] decodedStrings;
+    private final IntObjectMap<LocalDate> decodedDates = new IntObjectMap<>();
+
+    private SnapshotFile(int studentCount, int courseCount, int enrollmentCount, int stringCount,
+                         int courseRecordSize, ByteBuffer stringIndex, ByteBuffer stringData,
+                         ByteBuffer students, ByteBuffer courses, ByteBuffer enrollments) {
+        this.studentCount = studentCount;
+        this.courseCount = courseCount;
+        this.enrollmentCount = enrollmentCount;
+        this.courseRecordSize = courseRecordSize;
+        this.stringIndex = stringIndex;
+        this.stringData = stringData;
+        this.students = students;
+        this.courses = courses;
+        this.enrollments = enrollments;
+        this.decodedStrings = new String[stringCount];
+    }
+
+    /**
+     * Writes a snapshot file.
+     * @param path the file to write (replaced if it exists)
+     * @param studentList students to store
+     * @param courseList courses to store
+     * @param enrollmentList enrollments to store
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path path, List<Student> studentList, List<Course> courseList,
+                             List<Enrollment> enrollmentList) throws IOException {
+        // The lists may be live views that writers keep changing, so each entity is read
+        // once, and its record kept, in the same pass that collects its strings
+        StringTable strings = new StringTable();
+        int[] studentRecords = new int[STUDENT_RECORD_SIZE / 4 * studentList.size()];
+        int field = 0;
+        for (Student student : studentList) {
+            studentRecords[field++] = student.getId();
+            studentRecords[field++] = strings.add(student.getFirstName());
+            studentRecords[field++] = strings.add(student.getLastName());
+            studentRecords[field++] = strings.add(student.getEmail());
+            studentRecords[field++] = strings.add(student.getBatch());
+            studentRecords[field++] = student.isActive() ? 1 : 0;
+        }
+        int[] courseRecords = new int[COURSE_RECORD_SIZE / 4 * courseList.size()];
+        field = 0;
+        for (Course course : courseList) {
+            courseRecords[field++] = course.getId();
+            courseRecords[field++] = strings.add(course.getCourseName());
+            courseRecords[field++] = strings.add(course.getDescription());
+            courseRecords[field++] = course.getDurationInWeeks();
+            courseRecords[field++] = course.isActive() ? 1 : 0;
+            courseRecords[field++] = course.getCapacity();
+        }
+
+        long stringDataOffset = HEADER_SIZE + 4L * (strings.size() + 1);
+        long studentsOffset = stringDataOffset + strings.byteLength;
+        long coursesOffset = studentsOffset + (long) STUDENT_RECORD_SIZE * studentList.size();
+        long enrollmentsOffset = coursesOffset + (long) COURSE_RECORD_SIZE * courseList.size();
+        long fileLength = enrollmentsOffset + (long) ENROLLMENT_RECORD_SIZE * enrollmentList.size();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(studentList.size());
+            out.writeInt(courseList.size());
+            out.writeInt(enrollmentList.size());
+            out.writeInt(strings.size());
+            out.writeLong(stringDataOffset);
+            out.writeLong(studentsOffset);
+            out.writeLong(coursesOffset);
+            out.writeLong(enrollmentsOffset);
+            out.writeLong(fileLength);
+            int position = 0;
+            for (byte[] bytes : strings.encoded) {
+                out.writeInt(position);
+                position += bytes.length;
+            }
+            out.writeInt(position);
+            for (byte[] bytes : strings.encoded) {
+                out.write(bytes);
+            }
+            for (int value : studentRecords) {
+                out.writeInt(value);
+            }
+            for (int value : courseRecords) {
+                out.writeInt(value);
+            }
+            for (Enrollment enrollment : enrollmentList) {
+                out.writeInt(enrollment.getId());
+                out.writeInt(enrollment.getStudentId());
+                out.writeInt(enrollment.getCourseId());
+                out.writeInt((int) enrollment.getEnrollmentDate().toEpochDay());
+                out.writeInt(enrollment.getStatus().ordinal());
+            }
+            out.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Maps a snapshot file. Nothing is decoded until a record is requested.
+     * @param path the snapshot file
+     * @return the mapped snapshot
+     * @throws IOException if the file is missing or not a valid snapshot
+     */
+    public static SnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+            int version = header.getInt(4);
+            if (header.getInt(0) != MAGIC || (version != VERSION && version != VERSION_WITHOUT_CAPACITY)) {
+                throw new IOException("Snapshot " + path + " has an unknown format");
+            }
+            int studentCount = header.getInt(8);
+            int courseCount = header.getInt(12);
+            int enrollmentCount = header.getInt(16);
+            int stringCount = header.getInt(20);
+            long stringDataOffset = header.getLong(24);
+            long studentsOffset = header.getLong(32);
+            long coursesOffset = header.getLong(40);
+            long enrollmentsOffset = header.getLong(48);
+            long fileLength = header.getLong(56);
+            if (fileLength != size) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            // The mappings stay valid after the channel is closed
+            return new SnapshotFile(studentCount, courseCount, enrollmentCount, stringCount,
+                    version == VERSION ? COURSE_RECORD_SIZE : COURSE_RECORD_SIZE_WITHOUT_CAPACITY,
+                    map(channel, HEADER_SIZE, stringDataOffset),
+                    map(channel, stringDataOffset, studentsOffset),
+                    map(channel, studentsOffset, coursesOffset),
+                    map(channel, coursesOffset, enrollmentsOffset),
+                    map(channel, enrollmentsOffset, fileLength));
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long start, long end) throws IOException {
+        if (end - start > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot section larger than 2 GB");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+
+    public int getCourseCount() {
+        return courseCount;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    /**
+     * Decodes the student record at a position.
+     * @param index position between 0 and getStudentCount() - 1
+     * @return a new Student
+     */
+    public Student getStudent(int index) {
+        int base = index * STUDENT_RECORD_SIZE;
+        return new Student(students.getInt(base), string(students.getInt(base + 4)),
+                string(students.getInt(base + 8)), string(students.getInt(base + 12)),
+                string(students.getInt(base + 16)), students.getInt(base + 20) != 0);
+    }
+
+    /**
+     * Decodes the course record at a position.
+     * @param index position between 0 and getCourseCount() - 1
+     * @return a new Course
+     */
+    public Course getCourse(int index) {
+        int base = index * courseRecordSize;
+        int capacity = courseRecordSize == COURSE_RECORD_SIZE ? courses.getInt(base + 20) : Course.UNLIMITED_CAPACITY;
+        return new Course(courses.getInt(base), string(courses.getInt(base + 4)),
+                string(courses.getInt(base + 8)), courses.getInt(base + 12), capacity,
+                courses.getInt(base + 16) != 0);
+    }
+
+    /**
+     * Decodes the enrollment record at a position.
+     * @param index position between 0 and getEnrollmentCount() - 1
+     * @return a new Enrollment
+     */
+    public Enrollment getEnrollment(int index) {
+        int base = index * ENROLLMENT_RECORD_SIZE;
+        return new Enrollment(enrollments.getInt(base), enrollments.getInt(base + 4),
+                enrollments.getInt(base + 8), date(enrollments.getInt(base + 12)),
+                STATUSES[enrollments.getInt(base + 16)]);
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        String value = decodedStrings[index];
+        if (value == null) {
+            int start = stringIndex.getInt(index * 4);
+            int end = stringIndex.getInt(index * 4 + 4);
+            byte[] bytes = new byte[end - start];
+            stringData.get(start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            decodedStrings[index] = value;
+        }
+        return value;
+    }
+
+    private LocalDate date(int epochDay) {
+        LocalDate date = decodedDates.get(epochDay);
+        if (date == null) {
+            date = LocalDate.ofEpochDay(epochDay);
+            decodedDates.put(epochDay, date);
+        }
+        return date;
+    }
+
+    /**
+     * Deduplicating string table built while writing.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> encoded = new ArrayList<>();
+        private long byteLength;
+
+        // Returns the value's index, adding it if it is new
+        int add(String value) {
+            if (value == null) {
+                return NO_STRING;
+            }
+            Integer index = indexes.get(value);
+            if (index == null) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                index = encoded.size();
+                indexes.put(value, index);
+                encoded.add(bytes);
+                byteLength += bytes.length;
+            }
+            return index;
+        }
+
+        int size() {
+            return encoded.size();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.airtribe.learntrack.repository;
+
+/**
+ * Number of records and how many of them are active: for all students, the students
+ * of one batch, or all courses. A copy of the repository's running counters at the
+ * time it was read.
+ */
+public final class ActiveCounts {
+    private final int total;
+    private final int active;
+
+    ActiveCounts(int total, int active) {
+        this.total = total;
+        this.active = active;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getInactive() {
+        return total - active;
+    }
+
+    @Override
+    public String toString() {
+        return "ActiveCounts{total=" + total + ", active=" + active + '}';
+    }
+}
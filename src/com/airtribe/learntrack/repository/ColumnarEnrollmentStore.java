@@ -0,0 +1,253 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * EnrollmentStore that keeps enrollments as columns (struct of arrays): id, studentId,
+ * courseId and the date as an epoch day in int arrays, and the status ordinal in a byte
+ * array, all indexed by insertion position. An enrollment costs 17 bytes of columns plus
+ * its share of the position table, against about 73 bytes for an Enrollment object, its
+ * LocalDate and the map slots that hold it, and the garbage collector has no per-enrollment
+ * objects to trace. Scans such as {@link #countEnrolledBetween} run down one or two
+ * primitive arrays instead of chasing a reference per enrollment.
+ * Enrollments are not kept as objects: every read builds a new Enrollment view, and
+ * changing a view changes nothing stored; write changes back through the repository.
+ * Not thread-safe: EnrollmentRepository guards it with its lock. Lookups are bounded and
+ * have no visible side effects, so they can run under an optimistic read that is validated
+ * afterwards.
+ */
+public class ColumnarEnrollmentStore implements EnrollmentStore {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+    // Epoch day stored for an enrollment without a date; no LocalDate maps to it
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    private int[] ids;
+    private int[] studentIds;
+    private int[] courseIds;
+    private int[] epochDays;
+    private byte[] statuses;
+    // Slot holds (position in the columns) + 1, so 0 marks an empty slot
+    private int[] table;
+    private int size;
+    // Most enrollments share a few recent dates, so reuse the last one a view decoded.
+    // LocalDate is immutable, so readers racing on this field see either date whole.
+    private LocalDate lastDate = LocalDate.ofEpochDay(0);
+
+    public ColumnarEnrollmentStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ColumnarEnrollmentStore(int expectedSize) {
+        int capacity = Math.max(DEFAULT_CAPACITY, expectedSize);
+        this.ids = new int[capacity];
+        this.studentIds = new int[capacity];
+        this.courseIds = new int[capacity];
+        this.epochDays = new int[capacity];
+        this.statuses = new byte[capacity];
+        this.table = new int[IntObjectMap.tableSizeFor(capacity)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Enrollment get(int id) {
+        int position = indexOf(id);
+        return position < 0 ? null : view(position);
+    }
+
+    @Override
+    public Enrollment put(Enrollment enrollment) {
+        int position = indexOf(enrollment.getId());
+        if (position >= 0) {
+            Enrollment previous = view(position);
+            write(position, enrollment);
+            return previous;
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        write(size, enrollment);
+        size++;
+        insertSlot(table, enrollment.getId(), size);
+        return null;
+    }
+
+    @Override
+    public Enrollment replace(Enrollment enrollment) {
+        int position = indexOf(enrollment.getId());
+        if (position < 0) {
+            return null;
+        }
+        Enrollment previous = view(position);
+        write(position, enrollment);
+        return previous;
+    }
+
+    @Override
+    public void setStatus(Enrollment enrollment, EnrollmentStatus status) {
+        int position = indexOf(enrollment.getId());
+        if (position >= 0) {
+            statuses[position] = (byte) status.ordinal();
+        }
+        enrollment.setStatus(status);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        int[] ids = this.ids;
+        int[] table = this.table;
+        int mask = table.length - 1;
+        int slot = IntObjectMap.hash(id) & mask;
+        // Bounded by the table length so a torn read can never spin forever
+        for (int probes = 0; probes < table.length; probes++) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int position = entry - 1;
+            if (position < ids.length && ids[position] == id) {
+                return position;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public int countEnrolledBetween(long fromEpochDay, long toEpochDay, EnrollmentStatus status) {
+        // Clamp to the int days a column can hold; starting above NO_DATE skips undated enrollments
+        int from = (int) Math.max(fromEpochDay, NO_DATE + 1L);
+        int to = (int) Math.min(toEpochDay, Integer.MAX_VALUE);
+        if (from > to) {
+            return 0;
+        }
+        // day lies in [from, to] exactly when day - from, read as unsigned, is at most span,
+        // so each enrollment costs one comparison and no hard-to-predict branch
+        int span = to - from;
+        int[] epochDays = this.epochDays;
+        byte[] statuses = this.statuses;
+        int size = Math.min(this.size, Math.min(epochDays.length, statuses.length));
+        int count = 0;
+        if (status == null) {
+            for (int i = 0; i < size; i++) {
+                count += Integer.compareUnsigned(epochDays[i] - from, span) <= 0 ? 1 : 0;
+            }
+        } else {
+            byte wanted = (byte) status.ordinal();
+            for (int i = 0; i < size; i++) {
+                count += statuses[i] == wanted & Integer.compareUnsigned(epochDays[i] - from, span) <= 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Enrollment> snapshot() {
+        return new Snapshot(this, ids, studentIds, courseIds, epochDays, statuses, size);
+    }
+
+    private void write(int position, Enrollment enrollment) {
+        LocalDate date = enrollment.getEnrollmentDate();
+        ids[position] = enrollment.getId();
+        studentIds[position] = enrollment.getStudentId();
+        courseIds[position] = enrollment.getCourseId();
+        epochDays[position] = date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+        statuses[position] = (byte) enrollment.getStatus().ordinal();
+    }
+
+    private Enrollment view(int position) {
+        return new Enrollment(ids[position], studentIds[position], courseIds[position],
+                date(epochDays[position]), STATUSES[statuses[position]]);
+    }
+
+    private LocalDate date(int epochDay) {
+        if (epochDay == NO_DATE) {
+            return null;
+        }
+        LocalDate date = lastDate;
+        if (date.toEpochDay() != epochDay) {
+            date = LocalDate.ofEpochDay(epochDay);
+            lastDate = date;
+        }
+        return date;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        int[] newIds = Arrays.copyOf(ids, capacity);
+        int[] newStudentIds = Arrays.copyOf(studentIds, capacity);
+        int[] newCourseIds = Arrays.copyOf(courseIds, capacity);
+        int[] newEpochDays = Arrays.copyOf(epochDays, capacity);
+        byte[] newStatuses = Arrays.copyOf(statuses, capacity);
+        int[] newTable = new int[IntObjectMap.tableSizeFor(capacity)];
+        for (int i = 0; i < size; i++) {
+            insertSlot(newTable, newIds[i], i + 1);
+        }
+        // Publish the table last so a reader never pairs it with shorter columns
+        ids = newIds;
+        studentIds = newStudentIds;
+        courseIds = newCourseIds;
+        epochDays = newEpochDays;
+        statuses = newStatuses;
+        table = newTable;
+    }
+
+    private static void insertSlot(int[] table, int id, int entry) {
+        int mask = table.length - 1;
+        int slot = IntObjectMap.hash(id) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+
+    /**
+     * Fixed-size, read-only list over the columns as they were when it was taken.
+     * Each get builds a new Enrollment view.
+     */
+    private static final class Snapshot extends AbstractList<Enrollment> implements RandomAccess {
+        private final ColumnarEnrollmentStore store;
+        private final int[] ids;
+        private final int[] studentIds;
+        private final int[] courseIds;
+        private final int[] epochDays;
+        private final byte[] statuses;
+        private final int size;
+
+        private Snapshot(ColumnarEnrollmentStore store, int[] ids, int[] studentIds, int[] courseIds,
+                         int[] epochDays, byte[] statuses, int size) {
+            this.store = store;
+            this.ids = ids;
+            this.studentIds = studentIds;
+            this.courseIds = courseIds;
+            this.epochDays = epochDays;
+            this.statuses = statuses;
+            this.size = size;
+        }
+
+        @Override
+        public Enrollment get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return new Enrollment(ids[index], studentIds[index], courseIds[index],
+                    store.date(epochDays[index]), STATUSES[statuses[index]]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
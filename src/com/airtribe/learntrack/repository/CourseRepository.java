@@ -1,18 +1,33 @@
 package com.airtribe.learntrack.repository;
 
 import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.util.IntObjectMap;
+import com.airtribe.learntrack.util.Page;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /**
  * Repository class for managing Course data in memory.
- * Uses ArrayList for dynamic storage.
+ * Uses an insertion-ordered IntObjectMap keyed by ID so lookups and updates
+ * are O(1) without boxing IDs, while listings keep insertion order.
+ * Safe to share between threads: reads are optimistic and never block behind writers.
+ * A running count of active courses is kept up to date by every add and (de)activation.
+ * Each course's contribution to it is remembered separately, since a caller can change a
+ * stored course in place before asking for the update.
  */
 public class CourseRepository {
-    private List<Course> courses;
+    private final RepositoryLock lock = new RepositoryLock(this::afterWrite);
+    private final List<RepositoryListener<Course>> listeners = new CopyOnWriteArrayList<>();
+    private IntObjectMap<Course> courses;
+    private int activeCount;
+    // Whether each course is currently counted in activeCount, by course ID
+    private final IntObjectMap<Boolean> countedActive = new IntObjectMap<>();
 
     public CourseRepository() {
-        this.courses = new ArrayList<>();
+        this.courses = new IntObjectMap<>();
     }
 
     /**
@@ -20,15 +35,63 @@ public class CourseRepository {
      * @param course the course to add
      */
     public void addCourse(Course course) {
-        courses.add(course);
+        lock.write(() -> insert(course));
+    }
+
+    /**
+     * Adds a batch of courses under a single lock acquisition.
+     * @param batch the courses to add
+     */
+    public void addCourses(List<Course> batch) {
+        lock.write(() -> {
+            for (Course course : batch) {
+                insert(course);
+            }
+        });
     }
 
     /**
      * Retrieves all courses.
+     * The list is a read-only view of the courses present at the time of the call, not a copy.
      * @return list of all courses
      */
     public List<Course> getAllCourses() {
-        return new ArrayList<>(courses); // Return a copy to maintain encapsulation
+        return lock.read(() -> courses.snapshot());
+    }
+
+    /**
+     * Streams all courses without building a list.
+     * @return stream of the courses present at the time of the call
+     */
+    public Stream<Course> streamCourses() {
+        return getAllCourses().stream();
+    }
+
+    /**
+     * Retrieves one page of courses by position.
+     * @param offset position of the first course
+     * @param limit maximum number of courses
+     * @return the page; its items are a read-only view
+     */
+    public Page<Course> getCoursesPage(int offset, int limit) {
+        return Page.of(getAllCourses(), offset, limit);
+    }
+
+    /**
+     * Retrieves the courses that follow a given course (keyset paging).
+     * Pass the ID of the last course on the previous page, or 0 for the first page.
+     * Any other ID that is not in the repository gives an empty page, so a stale cursor
+     * ends the listing rather than starting it over.
+     * @param afterId ID of the course to continue after
+     * @param limit maximum number of courses
+     * @return the page; its items are a read-only view
+     */
+    public Page<Course> getCoursesAfter(int afterId, int limit) {
+        return lock.read(() -> {
+            List<Course> all = courses.snapshot();
+            int position = afterId == 0 ? -1 : courses.indexOf(afterId);
+            return Page.of(all, afterId != 0 && position < 0 ? all.size() : position + 1, limit);
+        });
     }
 
     /**
@@ -37,7 +100,7 @@ public class CourseRepository {
      */
     public List<Course> getActiveCourses() {
         List<Course> activeCourses = new ArrayList<>();
-        for (Course course : courses) {
+        for (Course course : getAllCourses()) {
             if (course.isActive()) {
                 activeCourses.add(course);
             }
@@ -51,12 +114,45 @@ public class CourseRepository {
      * @return the course if found, null otherwise
      */
     public Course findById(int id) {
-        for (Course course : courses) {
-            if (course.getId() == id) {
-                return course;
+        return lock.read(() -> courses.get(id));
+    }
+
+    /**
+     * Counts courses and active courses, in constant time.
+     * @return counts over all courses
+     */
+    public ActiveCounts getCounts() {
+        return lock.read(() -> new ActiveCounts(courses.size(), activeCount));
+    }
+
+    /**
+     * Finds several courses in one read.
+     * @param ids the course IDs
+     * @return found[i] is the course with ids[i], or null if there is none
+     */
+    public Course[] findByIds(int[] ids) {
+        return lock.read(() -> {
+            Course[] found = new Course[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                found[i] = courses.get(ids[i]);
             }
-        }
-        return null;
+            return found;
+        });
+    }
+
+    /**
+     * Checks which of the given IDs exist, in one read.
+     * @param ids the course IDs
+     * @return found[i] is true if ids[i] exists
+     */
+    public boolean[] containsIds(int[] ids) {
+        return lock.read(() -> {
+            boolean[] found = new boolean[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                found[i] = courses.containsKey(ids[i]);
+            }
+            return found;
+        });
     }
 
     /**
@@ -65,13 +161,16 @@ public class CourseRepository {
      * @return true if update was successful, false if course not found
      */
     public boolean updateCourse(Course updatedCourse) {
-        Course existingCourse = findById(updatedCourse.getId());
-        if (existingCourse != null) {
-            int index = courses.indexOf(existingCourse);
-            courses.set(index, updatedCourse);
+        // replace() keeps the entry's position, so insertion order is preserved
+        return lock.write(() -> {
+            Course previous = courses.replace(updatedCourse.getId(), updatedCourse);
+            if (previous == null) {
+                return false;
+            }
+            recount(updatedCourse);
+            notifyListeners(MutationType.UPDATED, updatedCourse);
             return true;
-        }
-        return false;
+        });
     }
 
     /**
@@ -80,12 +179,7 @@ public class CourseRepository {
      * @return true if activation was successful, false if course not found
      */
     public boolean activateCourse(int id) {
-        Course course = findById(id);
-        if (course != null) {
-            course.setActive(true);
-            return true;
-        }
-        return false;
+        return setActive(id, true);
     }
 
     /**
@@ -94,12 +188,77 @@ public class CourseRepository {
      * @return true if deactivation was successful, false if course not found
      */
     public boolean deactivateCourse(int id) {
-        Course course = findById(id);
-        if (course != null) {
-            course.setActive(false);
+        return setActive(id, false);
+    }
+
+    /**
+     * Changes a course's seat limit.
+     * @param id the course ID
+     * @param capacity the new limit, or Course.UNLIMITED_CAPACITY
+     * @return true if the course was changed, false if course not found
+     */
+    public boolean setCapacity(int id, int capacity) {
+        return lock.write(() -> {
+            Course course = courses.get(id);
+            if (course == null) {
+                return false;
+            }
+            course.setCapacity(capacity);
+            notifyListeners(MutationType.UPDATED, course);
             return true;
+        });
+    }
+
+    private boolean setActive(int id, boolean active) {
+        return lock.write(() -> {
+            Course course = courses.get(id);
+            if (course != null) {
+                course.setActive(active);
+                recount(course);
+                notifyListeners(active ? MutationType.ACTIVATED : MutationType.DEACTIVATED, course);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Caller holds the write lock
+    private void insert(Course course) {
+        courses.put(course.getId(), course);
+        recount(course);
+        notifyListeners(MutationType.ADDED, course);
+    }
+
+    // Moves the course's contribution to activeCount from what was counted to its current state
+    private void recount(Course course) {
+        boolean active = course.isActive();
+        if (Boolean.TRUE.equals(countedActive.put(course.getId(), active))) {
+            activeCount--;
+        }
+        if (active) {
+            activeCount++;
         }
-        return false;
     }
-}
 
+    /**
+     * Registers a listener notified after every add and change.
+     * @param listener the listener
+     */
+    public void addListener(RepositoryListener<Course> listener) {
+        listeners.add(listener);
+    }
+
+    // Called with the write lock held so listeners see mutations in order
+    private void notifyListeners(MutationType type, Course course) {
+        for (RepositoryListener<Course> listener : listeners) {
+            listener.onMutation(type, course);
+        }
+    }
+
+    // Called after every write, with the write lock released
+    private void afterWrite() {
+        for (RepositoryListener<Course> listener : listeners) {
+            listener.afterWrite();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.airtribe.learntrack.repository;
+
+/**
+ * Size of a repository's string dictionary, such as the students' batch names: distinct
+ * values in use, references held to them, and the heap estimated saved by sharing one
+ * copy of each. A copy taken at the time it was read.
+ */
+public final class DictionaryStats {
+    private final int values;
+    private final long references;
+    private final long savedBytes;
+
+    DictionaryStats(int values, long references, long savedBytes) {
+        this.values = values;
+        this.references = references;
+        this.savedBytes = savedBytes;
+    }
+
+    public int getValues() {
+        return values;
+    }
+
+    public long getReferences() {
+        return references;
+    }
+
+    public long getSavedBytes() {
+        return savedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "DictionaryStats{values=" + values + ", references=" + references + ", savedBytes=" + savedBytes + '}';
+    }
+}
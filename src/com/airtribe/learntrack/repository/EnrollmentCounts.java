@@ -0,0 +1,46 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+
+/**
+ * Number of enrollments in each status, for all enrollments or one course.
+ * A copy of the repository's running counters at the time it was read.
+ */
+public final class EnrollmentCounts {
+    private final int[] byStatus;
+
+    // Takes a copy; a null array means no enrollments
+    EnrollmentCounts(int[] byStatus) {
+        this.byStatus = byStatus == null ? new int[EnrollmentStatus.values().length] : byStatus.clone();
+    }
+
+    /**
+     * Returns the number of enrollments in one status.
+     * @param status the status
+     * @return the count
+     */
+    public int get(EnrollmentStatus status) {
+        return byStatus[status.ordinal()];
+    }
+
+    /**
+     * Returns the number of enrollments in any status.
+     * @return the count
+     */
+    public int getTotal() {
+        int total = 0;
+        for (int count : byStatus) {
+            total += count;
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("EnrollmentCounts{");
+        for (EnrollmentStatus status : EnrollmentStatus.values()) {
+            text.append(status).append('=').append(byStatus[status.ordinal()]).append(", ");
+        }
+        return text.append("total=").append(getTotal()).append('}').toString();
+    }
+}
@@ -1,34 +1,171 @@
 package com.airtribe.learntrack.repository;
 
+import com.airtribe.learntrack.entity.Course;
 import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.util.IntListMultimap;
+import com.airtribe.learntrack.util.IntObjectMap;
+import com.airtribe.learntrack.util.LongIntMap;
+import com.airtribe.learntrack.util.Page;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /**
  * Repository class for managing Enrollment data in memory.
- * Uses ArrayList for dynamic storage.
+ * Enrollments are held by an {@link EnrollmentStore}, keyed by ID so lookups and updates
+ * are O(1) without boxing IDs, while listings keep insertion order. The default
+ * {@link ObjectEnrollmentStore} keeps Enrollment objects; a {@link ColumnarEnrollmentStore}
+ * keeps primitive columns instead and returns a new Enrollment view on every read, so
+ * callers must not rely on getting the same object back twice.
+ * Secondary indexes map student and course IDs to enrollment IDs so
+ * per-student and per-course queries cost time in proportion to the result.
+ * Running counts per status, overall and per course, are kept up to date by every
+ * add and status change, so reading them never scans the enrollments.
+ * Courses with a seat limit admit enrollments through {@link #addEnrollment(Enrollment, int)}:
+ * the seat check and the insert run under the same write lock, so concurrent enrollments
+ * cannot overfill a course, and students who find it full wait in a per-course FIFO waitlist.
+ * A composite (studentId, courseId) index of open enrollments lets the same admission
+ * turn away a student who is already enrolled, in O(1).
+ * Safe to share between threads: reads are optimistic and never block behind writers.
  */
 public class EnrollmentRepository {
-    private List<Enrollment> enrollments;
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+    private static final int STATUS_COUNT = STATUSES.length;
+    // Enrollment IDs are positive, so 0 never names one
+    private static final int NO_ENROLLMENT = 0;
+
+    private final RepositoryLock lock = new RepositoryLock(this::afterWrite);
+    private final List<RepositoryListener<Enrollment>> listeners = new CopyOnWriteArrayList<>();
+    private final EnrollmentStore enrollments;
+    private IntListMultimap enrollmentIdsByStudent;
+    private IntListMultimap enrollmentIdsByCourse;
+    // Indexed by EnrollmentStatus ordinal
+    private final int[] statusCounts = new int[STATUS_COUNT];
+    private final IntObjectMap<int[]> statusCountsByCourse = new IntObjectMap<>();
+    // IDs of each course's WAITLISTED enrollments, oldest first
+    private final Waitlists waitlists = new Waitlists();
+    // (studentId, courseId) packed by LongIntMap.pack, to the ID of the pair's open enrollment
+    private final LongIntMap openEnrollmentIds = new LongIntMap();
+    // Student, course and status ordinal of each enrollment as last counted and indexed,
+    // by its position in the store. An enrollment edited in place before it is passed back
+    // is un-counted from here, not from the object the store returns, which may already
+    // hold the new values.
+    private int[] countedStudentIds = new int[16];
+    private int[] countedCourseIds = new int[16];
+    private byte[] countedStatuses = new byte[16];
 
     public EnrollmentRepository() {
-        this.enrollments = new ArrayList<>();
+        this(new ObjectEnrollmentStore());
+    }
+
+    public EnrollmentRepository(EnrollmentStore store) {
+        this.enrollments = store;
+        this.enrollmentIdsByStudent = new IntListMultimap();
+        this.enrollmentIdsByCourse = new IntListMultimap();
     }
 
     /**
-     * Adds an enrollment to the repository.
+     * Adds an enrollment to the repository as it is, without admission or duplicate
+     * checks. Used to restore saved state.
      * @param enrollment the enrollment to add
      */
     public void addEnrollment(Enrollment enrollment) {
-        enrollments.add(enrollment);
+        lock.write(() -> insert(enrollment));
+    }
+
+    /**
+     * Adds an enrollment to a course that may have a seat limit, unless the student
+     * already has an open (ACTIVE or WAITLISTED) enrollment in the course. The enrollment
+     * becomes ACTIVE if the course has no limit, or has a free seat and nobody waiting for
+     * one; otherwise it becomes WAITLISTED behind everyone already waiting. Seats are held
+     * by ACTIVE and COMPLETED enrollments.
+     * @param enrollment the enrollment to add; its status is set here
+     * @param capacity the course's seat limit, or Course.UNLIMITED_CAPACITY
+     * @return the given enrollment if it was added, otherwise the student's open
+     *         enrollment in the course, which is left unchanged
+     */
+    public Enrollment addEnrollment(Enrollment enrollment, int capacity) {
+        return lock.write(() -> admit(enrollment, capacity));
+    }
+
+    /**
+     * Adds a batch of enrollments under a single lock acquisition, admitting each one
+     * as {@link #addEnrollment(Enrollment, int)} does, in batch order. A pair repeated
+     * within the batch is only added once.
+     * @param batch the enrollments to add; their statuses are set here
+     * @param capacities capacities[i] is the seat limit of batch.get(i)'s course
+     * @return result[i] is batch.get(i) if it was added, otherwise the open enrollment
+     *         that kept it out
+     */
+    public Enrollment[] addEnrollments(List<Enrollment> batch, int[] capacities) {
+        return lock.write(() -> {
+            Enrollment[] added = new Enrollment[capacities.length];
+            for (int i = 0; i < capacities.length; i++) {
+                added[i] = admit(batch.get(i), capacities[i]);
+            }
+            return added;
+        });
+    }
+
+    /**
+     * Adds a batch of enrollments under a single lock acquisition.
+     * @param batch the enrollments to add
+     */
+    public void addEnrollments(List<Enrollment> batch) {
+        lock.write(() -> {
+            for (Enrollment enrollment : batch) {
+                insert(enrollment);
+            }
+        });
     }
 
     /**
      * Retrieves all enrollments.
+     * The list is a read-only view of the enrollments present at the time of the call, not a copy.
      * @return list of all enrollments
      */
     public List<Enrollment> getAllEnrollments() {
-        return new ArrayList<>(enrollments); // Return a copy to maintain encapsulation
+        return lock.read(() -> enrollments.snapshot());
+    }
+
+    /**
+     * Streams all enrollments without building a list.
+     * @return stream of the enrollments present at the time of the call
+     */
+    public Stream<Enrollment> streamEnrollments() {
+        return getAllEnrollments().stream();
+    }
+
+    /**
+     * Retrieves one page of enrollments by position.
+     * @param offset position of the first enrollment
+     * @param limit maximum number of enrollments
+     * @return the page; its items are a read-only view
+     */
+    public Page<Enrollment> getEnrollmentsPage(int offset, int limit) {
+        return Page.of(getAllEnrollments(), offset, limit);
+    }
+
+    /**
+     * Retrieves the enrollments that follow a given enrollment (keyset paging).
+     * Pass the ID of the last enrollment on the previous page, or 0 for the first page.
+     * Any other ID that is not in the repository gives an empty page, so a stale cursor
+     * ends the listing rather than starting it over.
+     * @param afterId ID of the enrollment to continue after
+     * @param limit maximum number of enrollments
+     * @return the page; its items are a read-only view
+     */
+    public Page<Enrollment> getEnrollmentsAfter(int afterId, int limit) {
+        return lock.read(() -> {
+            List<Enrollment> all = enrollments.snapshot();
+            int position = afterId == 0 ? -1 : enrollments.indexOf(afterId);
+            return Page.of(all, afterId != 0 && position < 0 ? all.size() : position + 1, limit);
+        });
     }
 
     /**
@@ -37,13 +174,7 @@ public class EnrollmentRepository {
      * @return list of enrollments for the student
      */
     public List<Enrollment> findByStudentId(int studentId) {
-        List<Enrollment> studentEnrollments = new ArrayList<>();
-        for (Enrollment enrollment : enrollments) {
-            if (enrollment.getStudentId() == studentId) {
-                studentEnrollments.add(enrollment);
-            }
-        }
-        return studentEnrollments;
+        return lock.read(() -> resolve(enrollmentIdsByStudent.get(studentId)));
     }
 
     /**
@@ -52,13 +183,58 @@ public class EnrollmentRepository {
      * @return list of enrollments for the course
      */
     public List<Enrollment> findByCourseId(int courseId) {
-        List<Enrollment> courseEnrollments = new ArrayList<>();
-        for (Enrollment enrollment : enrollments) {
-            if (enrollment.getCourseId() == courseId) {
-                courseEnrollments.add(enrollment);
-            }
-        }
-        return courseEnrollments;
+        return lock.read(() -> resolve(enrollmentIdsByCourse.get(courseId)));
+    }
+
+    /**
+     * Finds a student's open (ACTIVE or WAITLISTED) enrollment in a course, in constant time.
+     * @param studentId the student ID
+     * @param courseId the course ID
+     * @return the enrollment, or null if the student has no open enrollment in the course
+     */
+    public Enrollment findOpenEnrollment(int studentId, int courseId) {
+        return lock.read(() -> {
+            int id = openEnrollmentIds.get(LongIntMap.pack(studentId, courseId), NO_ENROLLMENT);
+            return id == NO_ENROLLMENT ? null : enrollments.get(id);
+        });
+    }
+
+    /**
+     * Lists a course's waitlist.
+     * @param courseId the course ID
+     * @return the course's WAITLISTED enrollments, next to be promoted first
+     */
+    public List<Enrollment> findWaitlistByCourseId(int courseId) {
+        return lock.readLocked(() -> resolve(waitlists.toArray(courseId)));
+    }
+
+    /**
+     * Counts enrollments dated within a range by scanning them, optionally only those
+     * with a given status.
+     * @param from first day of the range
+     * @param to last day of the range, inclusive
+     * @param status the status to count, or null for any
+     * @return the count
+     */
+    public int countEnrolledBetween(LocalDate from, LocalDate to, EnrollmentStatus status) {
+        return lock.read(() -> enrollments.countEnrolledBetween(from.toEpochDay(), to.toEpochDay(), status));
+    }
+
+    /**
+     * Counts enrollments by status, in constant time.
+     * @return counts over all enrollments
+     */
+    public EnrollmentCounts getCounts() {
+        return lock.read(() -> new EnrollmentCounts(statusCounts));
+    }
+
+    /**
+     * Counts a course's enrollments by status, in constant time.
+     * @param courseId the course ID
+     * @return counts over the course's enrollments (all zero if it has none)
+     */
+    public EnrollmentCounts getCountsByCourse(int courseId) {
+        return lock.read(() -> new EnrollmentCounts(statusCountsByCourse.get(courseId)));
     }
 
     /**
@@ -67,12 +243,7 @@ public class EnrollmentRepository {
      * @return the enrollment if found, null otherwise
      */
     public Enrollment findById(int id) {
-        for (Enrollment enrollment : enrollments) {
-            if (enrollment.getId() == id) {
-                return enrollment;
-            }
-        }
-        return null;
+        return lock.read(() -> enrollments.get(id));
     }
 
     /**
@@ -81,13 +252,218 @@ public class EnrollmentRepository {
      * @return true if update was successful, false if enrollment not found
      */
     public boolean updateEnrollment(Enrollment updatedEnrollment) {
-        Enrollment existingEnrollment = findById(updatedEnrollment.getId());
-        if (existingEnrollment != null) {
-            int index = enrollments.indexOf(existingEnrollment);
-            enrollments.set(index, updatedEnrollment);
+        return lock.write(() -> {
+            if (enrollments.replace(updatedEnrollment) == null) {
+                return false;
+            }
+            int id = updatedEnrollment.getId();
+            int position = enrollments.indexOf(id);
+            int previousStudentId = countedStudentIds[position];
+            int previousCourseId = countedCourseIds[position];
+            track(id, position, -1);
+            record(position, updatedEnrollment);
+            track(id, position, 1);
+            // The new object may point at a different student or course
+            if (previousStudentId != countedStudentIds[position] || previousCourseId != countedCourseIds[position]) {
+                unindex(id, previousStudentId, previousCourseId);
+                index(id, position);
+            }
+            notifyListeners(MutationType.UPDATED, updatedEnrollment);
+            return true;
+        });
+    }
+
+    /**
+     * Changes an enrollment's status. Leaving WAITLISTED takes it off the waitlist, but a
+     * freed seat is not handed on here; see {@link #promoteWaitlisted(int, int)}.
+     * @param id the enrollment ID
+     * @param status the new status
+     * @return true if the status was changed, false if enrollment not found
+     */
+    public boolean updateStatus(int id, EnrollmentStatus status) {
+        return lock.write(() -> {
+            Enrollment enrollment = enrollments.get(id);
+            if (enrollment == null) {
+                return false;
+            }
+            changeStatus(enrollment, status);
+            return true;
+        });
+    }
+
+    /**
+     * Changes an enrollment's status only if it is currently in the expected one, with the
+     * check and the change under the same write lock.
+     * @param id the enrollment ID
+     * @param expected the status the enrollment must have
+     * @param status the new status
+     * @return true if the status was changed, false if enrollment not found or not in the
+     *         expected status
+     */
+    public boolean updateStatus(int id, EnrollmentStatus expected, EnrollmentStatus status) {
+        return lock.write(() -> {
+            Enrollment enrollment = enrollments.get(id);
+            if (enrollment == null || enrollment.getStatus() != expected) {
+                return false;
+            }
+            changeStatus(enrollment, status);
             return true;
+        });
+    }
+
+    /**
+     * Moves a course's waitlisted enrollments to ACTIVE, oldest first, while it has free
+     * seats. Call after a seat is freed or the capacity is raised. New enrollments are not
+     * admitted while anyone is waiting, so a freed seat cannot be taken by a later arrival.
+     * @param courseId the course ID
+     * @param capacity the course's seat limit, or Course.UNLIMITED_CAPACITY
+     * @return the promoted enrollments, in promotion order
+     */
+    public List<Enrollment> promoteWaitlisted(int courseId, int capacity) {
+        return lock.write(() -> {
+            List<Enrollment> promoted = new ArrayList<>(1);
+            while (hasFreeSeat(courseId, capacity)) {
+                int next = waitlists.first(courseId, NO_ENROLLMENT);
+                if (next == NO_ENROLLMENT) {
+                    break;
+                }
+                Enrollment enrollment = enrollments.get(next);
+                changeStatus(enrollment, EnrollmentStatus.ACTIVE);
+                promoted.add(enrollment);
+            }
+            return promoted;
+        });
+    }
+
+    // The callers below hold the write lock
+
+    private Enrollment admit(Enrollment enrollment, int capacity) {
+        int openId = openEnrollmentIds.get(
+                LongIntMap.pack(enrollment.getStudentId(), enrollment.getCourseId()), NO_ENROLLMENT);
+        if (openId != NO_ENROLLMENT) {
+            return enrollments.get(openId);
         }
-        return false;
+        boolean seated = waitlists.size(enrollment.getCourseId()) == 0
+                && hasFreeSeat(enrollment.getCourseId(), capacity);
+        enrollment.setStatus(seated ? EnrollmentStatus.ACTIVE : EnrollmentStatus.WAITLISTED);
+        insert(enrollment);
+        return enrollment;
+    }
+
+    private boolean hasFreeSeat(int courseId, int capacity) {
+        if (capacity == Course.UNLIMITED_CAPACITY) {
+            return true;
+        }
+        int[] counts = statusCountsByCourse.get(courseId);
+        int taken = counts == null ? 0
+                : counts[EnrollmentStatus.ACTIVE.ordinal()] + counts[EnrollmentStatus.COMPLETED.ordinal()];
+        return taken < capacity;
+    }
+
+    private void changeStatus(Enrollment enrollment, EnrollmentStatus status) {
+        int position = enrollments.indexOf(enrollment.getId());
+        track(enrollment.getId(), position, -1);
+        enrollments.setStatus(enrollment, status);
+        countedStatuses[position] = (byte) status.ordinal();
+        track(enrollment.getId(), position, 1);
+        notifyListeners(MutationType.STATUS_CHANGED, enrollment);
+    }
+
+    private void insert(Enrollment enrollment) {
+        boolean replaced = enrollments.put(enrollment) != null;
+        int id = enrollment.getId();
+        int position = enrollments.indexOf(id);
+        if (replaced) {
+            unindex(id, countedStudentIds[position], countedCourseIds[position]);
+            track(id, position, -1);
+        } else if (position == countedStatuses.length) {
+            countedStudentIds = Arrays.copyOf(countedStudentIds, position * 2);
+            countedCourseIds = Arrays.copyOf(countedCourseIds, position * 2);
+            countedStatuses = Arrays.copyOf(countedStatuses, position * 2);
+        }
+        record(position, enrollment);
+        index(id, position);
+        track(id, position, 1);
+        notifyListeners(MutationType.ADDED, enrollment);
+    }
+
+    // Stores what the enrollment at a position is counted and indexed as
+    private void record(int position, Enrollment enrollment) {
+        countedStudentIds[position] = enrollment.getStudentId();
+        countedCourseIds[position] = enrollment.getCourseId();
+        countedStatuses[position] = (byte) enrollment.getStatus().ordinal();
+    }
+
+    // Adds (1) or removes (-1) the enrollment, as recorded at its position, in the status
+    // counters, the open enrollment index and, if WAITLISTED, its course's waitlist
+    private void track(int id, int position, int delta) {
+        EnrollmentStatus status = STATUSES[countedStatuses[position]];
+        int courseId = countedCourseIds[position];
+        if (status.isOpen()) {
+            long pair = LongIntMap.pack(countedStudentIds[position], courseId);
+            if (delta > 0) {
+                openEnrollmentIds.put(pair, id);
+            } else {
+                // Only if it is still the indexed one; restored data may hold older duplicates
+                openEnrollmentIds.remove(pair, id);
+            }
+        }
+        if (status == EnrollmentStatus.WAITLISTED) {
+            if (delta > 0) {
+                waitlists.add(courseId, id);
+            } else {
+                waitlists.remove(courseId, id);
+            }
+        }
+        statusCounts[status.ordinal()] += delta;
+        int[] courseCounts = statusCountsByCourse.get(courseId);
+        if (courseCounts == null) {
+            courseCounts = new int[STATUS_COUNT];
+            statusCountsByCourse.put(courseId, courseCounts);
+        }
+        courseCounts[status.ordinal()] += delta;
+    }
+
+    // Adds the enrollment's ID to the indexes of the student and course recorded at its position
+    private void index(int id, int position) {
+        enrollmentIdsByStudent.put(countedStudentIds[position], id);
+        enrollmentIdsByCourse.put(countedCourseIds[position], id);
     }
-}
 
+    // Removes the enrollment's ID from the student and course indexes
+    private void unindex(int id, int studentId, int courseId) {
+        enrollmentIdsByStudent.remove(studentId, id);
+        enrollmentIdsByCourse.remove(courseId, id);
+    }
+
+    // Looks up each indexed ID, in the order the IDs were indexed
+    private List<Enrollment> resolve(int[] ids) {
+        List<Enrollment> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(enrollments.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Registers a listener notified after every add and change.
+     * @param listener the listener
+     */
+    public void addListener(RepositoryListener<Enrollment> listener) {
+        listeners.add(listener);
+    }
+
+    // Called with the write lock held so listeners see mutations in order
+    private void notifyListeners(MutationType type, Enrollment enrollment) {
+        for (RepositoryListener<Enrollment> listener : listeners) {
+            listener.onMutation(type, enrollment);
+        }
+    }
+
+    // Called after every write, with the write lock released
+    private void afterWrite() {
+        for (RepositoryListener<Enrollment> listener : listeners) {
+            listener.afterWrite();
+        }
+    }
+}
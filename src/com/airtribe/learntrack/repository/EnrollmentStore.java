@@ -0,0 +1,78 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import java.util.List;
+
+/**
+ * Primary storage behind an {@link EnrollmentRepository}: enrollments by ID, in insertion order.
+ * The repository guards the store with its lock and keeps every index and counter itself,
+ * so a store only stores. Reads must be bounded and free of side effects, as they can run
+ * under an optimistic read that is validated afterwards.
+ * Three backends are provided:
+ * {@link ObjectEnrollmentStore} keeps the Enrollment objects it is given,
+ * {@link ColumnarEnrollmentStore} keeps each field in a primitive array, and
+ * {@link OffHeapEnrollmentStore} keeps fixed-size records outside the heap. The last two
+ * return a new Enrollment view on every read.
+ */
+public interface EnrollmentStore {
+
+    /**
+     * Returns the number of enrollments.
+     * @return enrollment count
+     */
+    int size();
+
+    /**
+     * Finds an enrollment by ID.
+     * @param id the enrollment ID
+     * @return the enrollment, or null if absent
+     */
+    Enrollment get(int id);
+
+    /**
+     * Adds an enrollment, or replaces the one with the same ID in place.
+     * @param enrollment the enrollment
+     * @return the enrollment it replaced, as it was, or null
+     */
+    Enrollment put(Enrollment enrollment);
+
+    /**
+     * Replaces an existing enrollment, keeping its position.
+     * @param enrollment the enrollment
+     * @return the enrollment it replaced, as it was, or null if the ID is absent (nothing is stored)
+     */
+    Enrollment replace(Enrollment enrollment);
+
+    /**
+     * Changes the status of a stored enrollment.
+     * @param enrollment the stored enrollment, as returned by {@link #get(int)}; its status is set too
+     * @param status the new status
+     */
+    void setStatus(Enrollment enrollment, EnrollmentStatus status);
+
+    /**
+     * Finds the insertion position of an enrollment.
+     * @param id the enrollment ID
+     * @return the position, or -1 if absent
+     */
+    int indexOf(int id);
+
+    /**
+     * Counts enrollments dated within a range, optionally with a given status.
+     * Enrollments without a date are not counted.
+     * @param fromEpochDay first day of the range, as LocalDate.toEpochDay()
+     * @param toEpochDay last day of the range, inclusive
+     * @param status the status to count, or null for any
+     * @return the count
+     */
+    int countEnrolledBetween(long fromEpochDay, long toEpochDay, EnrollmentStatus status);
+
+    /**
+     * Returns the enrollments present now, in insertion order.
+     * Take it under the repository's lock; afterwards it can be read without one.
+     * @return a read-only view; enrollments added later are not in it, while an
+     *         enrollment changed in place later may show the change
+     */
+    List<Enrollment> snapshot();
+}
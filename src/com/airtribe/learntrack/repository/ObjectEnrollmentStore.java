@@ -0,0 +1,76 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * EnrollmentStore that keeps the Enrollment objects it is given, in an insertion-ordered
+ * IntObjectMap. Reads return the stored objects themselves, so they allocate nothing,
+ * but every enrollment costs an object plus a LocalDate on the heap.
+ * The default backend of {@link EnrollmentRepository}.
+ */
+public class ObjectEnrollmentStore implements EnrollmentStore {
+    private final IntObjectMap<Enrollment> enrollments;
+
+    public ObjectEnrollmentStore() {
+        this.enrollments = new IntObjectMap<>();
+    }
+
+    public ObjectEnrollmentStore(int expectedSize) {
+        this.enrollments = new IntObjectMap<>(expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return enrollments.size();
+    }
+
+    @Override
+    public Enrollment get(int id) {
+        return enrollments.get(id);
+    }
+
+    @Override
+    public Enrollment put(Enrollment enrollment) {
+        return enrollments.put(enrollment.getId(), enrollment);
+    }
+
+    @Override
+    public Enrollment replace(Enrollment enrollment) {
+        return enrollments.replace(enrollment.getId(), enrollment);
+    }
+
+    @Override
+    public void setStatus(Enrollment enrollment, EnrollmentStatus status) {
+        enrollment.setStatus(status);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        return enrollments.indexOf(id);
+    }
+
+    @Override
+    public int countEnrolledBetween(long fromEpochDay, long toEpochDay, EnrollmentStatus status) {
+        int count = 0;
+        for (int i = 0; i < enrollments.size(); i++) {
+            Enrollment enrollment = enrollments.valueAt(i);
+            LocalDate date = enrollment.getEnrollmentDate();
+            if (date != null && (status == null || enrollment.getStatus() == status)) {
+                long day = date.toEpochDay();
+                if (day >= fromEpochDay && day <= toEpochDay) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Enrollment> snapshot() {
+        return enrollments.snapshot();
+    }
+}
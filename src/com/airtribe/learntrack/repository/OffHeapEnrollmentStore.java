@@ -0,0 +1,322 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * EnrollmentStore that keeps enrollments outside the Java heap. Each enrollment is a
+ * fixed-size slot in a direct ByteBuffer, or in a memory-mapped file. The slot holds
+ * id, studentId, courseId and the date as an epoch day (ints), and the status ordinal
+ * (a byte). The position table that finds a slot by ID is a direct buffer too.
+ * The store's heap footprint is a handful of objects however many enrollments it holds,
+ * so the garbage collector has nothing to trace or copy for them, and a very large
+ * enrollment history does not lengthen GC pauses.
+ * Like {@link ColumnarEnrollmentStore}, every read builds a new Enrollment view.
+ * Slots are appended in insertion order. Enrollments are never deleted, so a slot is
+ * never freed.
+ * A direct store counts against -XX:MaxDirectMemorySize, which defaults to the maximum
+ * heap size. A {@link #mapped(Path, int) mapped} store is bounded only by the file
+ * system, and the operating system pages it in and out as needed.
+ * Either way a store holds at most {@link #MAX_CAPACITY} enrollments.
+ * Not thread-safe: EnrollmentRepository guards it with its lock. Lookups are bounded and
+ * have no visible side effects, so they can run under an optimistic read that is
+ * validated afterwards (a torn read throws IndexOutOfBoundsException and is retried).
+ */
+public class OffHeapEnrollmentStore implements EnrollmentStore {
+    /** Most enrollments one store can hold: 2^26 slots fill a 1.25 GB buffer. */
+    public static final int MAX_CAPACITY = 1 << 26;
+
+    // Slot layout, in bytes; 3 bytes of padding keep the next slot's ints 4-byte aligned
+    static final int SLOT_SIZE = 20;
+    private static final int ID = 0;
+    private static final int STUDENT_ID = 4;
+    private static final int COURSE_ID = 8;
+    private static final int EPOCH_DAY = 12;
+    private static final int STATUS = 16;
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final EnrollmentStatus[] STATUSES = EnrollmentStatus.values();
+    // Epoch day stored for an enrollment without a date; no LocalDate maps to it
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    // Backing file of a mapped store, or null for direct memory
+    private final Path file;
+    private ByteBuffer slots;
+    // Entry holds (slot number) + 1, so 0 marks an empty entry
+    private IntBuffer table;
+    private int capacity;
+    private int size;
+    // Reused by views of the same day; see ColumnarEnrollmentStore
+    private LocalDate lastDate = LocalDate.ofEpochDay(0);
+
+    public OffHeapEnrollmentStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public OffHeapEnrollmentStore(int expectedSize) {
+        this(null, expectedSize);
+    }
+
+    private OffHeapEnrollmentStore(Path file, int expectedSize) {
+        this.file = file;
+        this.capacity = capacityFor(expectedSize);
+        this.slots = allocateSlots(capacity);
+        this.table = allocateTable(capacity);
+    }
+
+    /**
+     * Creates a store whose slots live in a memory-mapped file. The file is scratch space,
+     * not a save file: it is emptied here, because the journal is the record of changes and
+     * rebuilds the store at startup.
+     * @param file the backing file, created if missing
+     * @param expectedSize number of enrollments to map room for up front
+     * @return the store
+     * @throws IOException if the file cannot be created or mapped
+     */
+    public static OffHeapEnrollmentStore mapped(Path file, int expectedSize) throws IOException {
+        // Create the file, or empty one left by an earlier run
+        FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING).close();
+        try {
+            return new OffHeapEnrollmentStore(file, expectedSize);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Returns the off-heap memory the store has reserved.
+     * @return bytes reserved for slots and the position table
+     */
+    public long offHeapBytes() {
+        return (long) slots.capacity() + (long) table.capacity() * Integer.BYTES;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Enrollment get(int id) {
+        int slot = indexOf(id);
+        return slot < 0 ? null : view(slots, slot);
+    }
+
+    @Override
+    public Enrollment put(Enrollment enrollment) {
+        int slot = indexOf(enrollment.getId());
+        if (slot >= 0) {
+            Enrollment previous = view(slots, slot);
+            write(slot, enrollment);
+            return previous;
+        }
+        if (size == capacity) {
+            grow();
+        }
+        write(size, enrollment);
+        size++;
+        insertEntry(table, enrollment.getId(), size);
+        return null;
+    }
+
+    @Override
+    public Enrollment replace(Enrollment enrollment) {
+        int slot = indexOf(enrollment.getId());
+        if (slot < 0) {
+            return null;
+        }
+        Enrollment previous = view(slots, slot);
+        write(slot, enrollment);
+        return previous;
+    }
+
+    @Override
+    public void setStatus(Enrollment enrollment, EnrollmentStatus status) {
+        int slot = indexOf(enrollment.getId());
+        if (slot >= 0) {
+            slots.put(slot * SLOT_SIZE + STATUS, (byte) status.ordinal());
+        }
+        enrollment.setStatus(status);
+    }
+
+    @Override
+    public int indexOf(int id) {
+        ByteBuffer slots = this.slots;
+        IntBuffer table = this.table;
+        int mask = table.capacity() - 1;
+        int entry = IntObjectMap.hash(id) & mask;
+        // Bounded by the table length so a torn read can never spin forever
+        for (int probes = 0; probes < table.capacity(); probes++) {
+            int slot = table.get(entry) - 1;
+            if (slot < 0) {
+                return -1;
+            }
+            if (slots.getInt(slot * SLOT_SIZE + ID) == id) {
+                return slot;
+            }
+            entry = (entry + 1) & mask;
+        }
+        return -1;
+    }
+
+    @Override
+    public int countEnrolledBetween(long fromEpochDay, long toEpochDay, EnrollmentStatus status) {
+        // Same single unsigned comparison as ColumnarEnrollmentStore.countEnrolledBetween
+        int from = (int) Math.max(fromEpochDay, NO_DATE + 1L);
+        int to = (int) Math.min(toEpochDay, Integer.MAX_VALUE);
+        if (from > to) {
+            return 0;
+        }
+        int span = to - from;
+        ByteBuffer slots = this.slots;
+        int end = Math.min(size, slots.capacity() / SLOT_SIZE) * SLOT_SIZE;
+        int count = 0;
+        if (status == null) {
+            for (int offset = 0; offset < end; offset += SLOT_SIZE) {
+                count += Integer.compareUnsigned(slots.getInt(offset + EPOCH_DAY) - from, span) <= 0 ? 1 : 0;
+            }
+        } else {
+            byte wanted = (byte) status.ordinal();
+            for (int offset = 0; offset < end; offset += SLOT_SIZE) {
+                count += slots.get(offset + STATUS) == wanted
+                        & Integer.compareUnsigned(slots.getInt(offset + EPOCH_DAY) - from, span) <= 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Enrollment> snapshot() {
+        return new Snapshot(this, slots, size);
+    }
+
+    private void write(int slot, Enrollment enrollment) {
+        LocalDate date = enrollment.getEnrollmentDate();
+        int offset = slot * SLOT_SIZE;
+        slots.putInt(offset + ID, enrollment.getId());
+        slots.putInt(offset + STUDENT_ID, enrollment.getStudentId());
+        slots.putInt(offset + COURSE_ID, enrollment.getCourseId());
+        slots.putInt(offset + EPOCH_DAY, date == null ? NO_DATE : Math.toIntExact(date.toEpochDay()));
+        slots.put(offset + STATUS, (byte) enrollment.getStatus().ordinal());
+    }
+
+    private Enrollment view(ByteBuffer slots, int slot) {
+        int offset = slot * SLOT_SIZE;
+        return new Enrollment(slots.getInt(offset + ID), slots.getInt(offset + STUDENT_ID),
+                slots.getInt(offset + COURSE_ID), date(slots.getInt(offset + EPOCH_DAY)),
+                STATUSES[slots.get(offset + STATUS)]);
+    }
+
+    private LocalDate date(int epochDay) {
+        if (epochDay == NO_DATE) {
+            return null;
+        }
+        LocalDate date = lastDate;
+        if (date.toEpochDay() != epochDay) {
+            date = LocalDate.ofEpochDay(epochDay);
+            lastDate = date;
+        }
+        return date;
+    }
+
+    private void grow() {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Off-heap enrollment store is full (" + MAX_CAPACITY + " enrollments)");
+        }
+        int newCapacity = capacity * 2;
+        ByteBuffer newSlots = allocateSlots(newCapacity);
+        // A mapped store remaps the same file, so its slots are already in place
+        if (file == null) {
+            newSlots.put(0, slots, 0, size * SLOT_SIZE);
+        }
+        IntBuffer newTable = allocateTable(newCapacity);
+        for (int slot = 0; slot < size; slot++) {
+            insertEntry(newTable, newSlots.getInt(slot * SLOT_SIZE + ID), slot + 1);
+        }
+        // Publish the table last so a reader never pairs it with a smaller slot buffer.
+        // The old direct buffers are released once the garbage collector finds them unreachable.
+        slots = newSlots;
+        capacity = newCapacity;
+        table = newTable;
+    }
+
+    private ByteBuffer allocateSlots(int capacity) {
+        int bytes = capacity * SLOT_SIZE;
+        if (file == null) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+        // The mapping stays valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes).order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map enrollment store file " + file, e);
+        }
+    }
+
+    private static IntBuffer allocateTable(int capacity) {
+        int entries = IntObjectMap.tableSizeFor(capacity);
+        return ByteBuffer.allocateDirect(entries * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    private static void insertEntry(IntBuffer table, int id, int value) {
+        int mask = table.capacity() - 1;
+        int entry = IntObjectMap.hash(id) & mask;
+        while (table.get(entry) != 0) {
+            entry = (entry + 1) & mask;
+        }
+        table.put(entry, value);
+    }
+
+    // Rounds up to a power of two so growth by doubling ends exactly at MAX_CAPACITY
+    private static int capacityFor(int expectedSize) {
+        if (expectedSize > MAX_CAPACITY) {
+            throw new IllegalArgumentException("An off-heap enrollment store holds at most "
+                    + MAX_CAPACITY + " enrollments");
+        }
+        int capacity = Integer.highestOneBit(Math.max(DEFAULT_CAPACITY, expectedSize) - 1) << 1;
+        return Math.min(capacity, MAX_CAPACITY);
+    }
+
+    /**
+     * Fixed-size, read-only list over the slots as they were when it was taken.
+     * Each get builds a new Enrollment view.
+     */
+    private static final class Snapshot extends AbstractList<Enrollment> implements RandomAccess {
+        private final OffHeapEnrollmentStore store;
+        private final ByteBuffer slots;
+        private final int size;
+
+        private Snapshot(OffHeapEnrollmentStore store, ByteBuffer slots, int size) {
+            this.store = store;
+            this.slots = slots;
+            this.size = size;
+        }
+
+        @Override
+        public Enrollment get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return store.view(slots, index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
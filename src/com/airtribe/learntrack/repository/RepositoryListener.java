@@ -0,0 +1,28 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.enums.MutationType;
+
+/**
+ * Callback notified after a repository record changes.
+ * Listeners run on the writing thread while the repository's write lock is held,
+ * so they see mutations in order and must return quickly without calling back
+ * into the repository. Work that may wait belongs in {@link #afterWrite()}.
+ * @param <T> the entity type
+ */
+@FunctionalInterface
+public interface RepositoryListener<T> {
+
+    /**
+     * Called after a record was added or changed.
+     * @param type what kind of change happened
+     * @param entity the record as it is now
+     */
+    void onMutation(MutationType type, T entity);
+
+    /**
+     * Called on the writing thread after every write, once the write lock is released,
+     * whether or not the write changed anything.
+     */
+    default void afterWrite() {
+    }
+}
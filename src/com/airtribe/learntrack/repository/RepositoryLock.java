@@ -0,0 +1,109 @@
+package com.airtribe.learntrack.repository;
+
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Lock shared by the repository classes.
+ * Reads first run optimistically without blocking and are retried under the
+ * read lock only if a writer got in the way; writes take the exclusive lock.
+ * Writers only hold it for an O(1) index update, so readers rarely fall back.
+ * After every write, once the lock is released, an after-write action runs on the
+ * writing thread, for work that may wait and so must not hold up readers.
+ */
+class RepositoryLock {
+    private final StampedLock lock = new StampedLock();
+    private final Runnable afterWrite;
+
+    /**
+     * Creates a lock.
+     * @param afterWrite run after every write, outside the lock, even if the write threw
+     */
+    RepositoryLock(Runnable afterWrite) {
+        this.afterWrite = afterWrite;
+    }
+
+    /**
+     * Runs a read-only action. The action may run twice and must not have side effects.
+     * @param reader the read action
+     * @return the action's result
+     */
+    <T> T read(Supplier<T> reader) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                T result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Torn read while a writer was resizing; retry under the read lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs a read-only action holding the read lock, without trying an optimistic read
+     * first. For structures whose lookups are not safe against a concurrent write.
+     * @param reader the read action
+     * @return the action's result
+     */
+    <T> T readLocked(Supplier<T> reader) {
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Runs an action holding the exclusive write lock.
+     * @param writer the write action
+     * @return the action's result
+     */
+    <T> T write(Supplier<T> writer) {
+        long stamp = lock.writeLock();
+        try {
+            return writer.get();
+        } finally {
+            lock.unlockWrite(stamp);
+            afterWrite.run();
+        }
+    }
+
+    /**
+     * Runs an action holding the exclusive write lock.
+     * @param writer the write action
+     */
+    void write(Runnable writer) {
+        long stamp = lock.writeLock();
+        try {
+            writer.run();
+        } finally {
+            lock.unlockWrite(stamp);
+            afterWrite.run();
+        }
+    }
+
+    /**
+     * Runs an action holding the exclusive write lock, without the after-write action.
+     * For upkeep of a repository's own structures that changes none of its data, so
+     * listeners have nothing to hear about.
+     * @param action the upkeep action
+     */
+    void maintain(Runnable action) {
+        long stamp = lock.writeLock();
+        try {
+            action.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Unique index from normalized email (trimmed, lower-cased) to the student that owns it.
+ * Students without an email are not indexed.
+ * Not thread-safe, and a HashMap lookup is not safe against a concurrent put, so
+ * StudentRepository writes it under its write lock and reads it under its read lock,
+ * never optimistically.
+ */
+class StudentEmailIndex {
+    private final Map<String, Student> studentsByEmail = new HashMap<>();
+    // Key each student was indexed under, so an update can release it even if the
+    // Student object was changed in place
+    private final IntObjectMap<String> emailsById = new IntObjectMap<>();
+
+    /**
+     * Finds the student that owns an email.
+     * @param email the email, in any case
+     * @return the owner, or null if the email is free
+     */
+    Student find(String email) {
+        String key = normalize(email);
+        return key == null ? null : studentsByEmail.get(key);
+    }
+
+    /**
+     * Finds another student that already owns this student's email.
+     * @param student the student about to be added or updated
+     * @return the other owner, or null if the email is free or already this student's
+     */
+    Student findConflict(Student student) {
+        Student owner = find(student.getEmail());
+        return owner == null || owner.getId() == student.getId() ? null : owner;
+    }
+
+    /**
+     * Points the student's email at the student and releases the email it had before.
+     * An email owned by another student is taken over; callers check findConflict first.
+     * @param student the student's new state
+     */
+    void put(Student student) {
+        String key = normalize(student.getEmail());
+        String previous = emailsById.get(student.getId());
+        if (previous != null && !previous.equals(key)) {
+            Student owner = studentsByEmail.get(previous);
+            if (owner != null && owner.getId() == student.getId()) {
+                studentsByEmail.remove(previous);
+            }
+        }
+        if (key != null) {
+            studentsByEmail.put(key, student);
+            emailsById.put(student.getId(), key);
+        } else if (previous != null) {
+            emailsById.replace(student.getId(), null);
+        }
+    }
+
+    // trim() and toLowerCase() return the same string when nothing changes, so
+    // addresses that are already normalized are looked up without allocating
+    private static String normalize(String email) {
+        if (email == null) {
+            return null;
+        }
+        String key = email.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+}
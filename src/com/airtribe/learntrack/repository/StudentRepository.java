@@ -1,34 +1,145 @@
 package com.airtribe.learntrack.repository;
 
 import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.entity.StringDictionary;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.util.IntObjectMap;
+import com.airtribe.learntrack.util.Page;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 /**
  * Repository class for managing Student data in memory.
- * Uses ArrayList for dynamic storage.
+ * Uses an insertion-ordered IntObjectMap keyed by ID so lookups and updates
+ * are O(1) without boxing IDs, while listings keep insertion order.
+ * Safe to share between threads: reads are optimistic and never block behind writers.
+ * Emails are unique, ignoring case and surrounding whitespace; students without an
+ * email are not checked.
+ * Running counts of students and active students, overall and per batch, are kept up
+ * to date by every add, update and deactivation, so reading them never scans the students.
+ * Batch names are dictionary encoded: each stored student's batch is swapped for the
+ * repository's one copy of the name, and per-batch counts are keyed by the name's code.
+ * A name no student is in any more leaves the dictionary, so it holds only the batches
+ * in use however many distinct names pass through.
  */
 public class StudentRepository {
-    private List<Student> students;
+    private final RepositoryLock lock = new RepositoryLock(this::afterWrite);
+    private final List<RepositoryListener<Student>> listeners = new CopyOnWriteArrayList<>();
+    private final StudentSearchIndex searchIndex = new StudentSearchIndex();
+    private final StudentEmailIndex emailIndex = new StudentEmailIndex();
+    // One reference per student in the batch; written under the write lock
+    private final StringDictionary batchNames = new StringDictionary();
+    // Batch code to {students, active students}; a freed code's entry is left at zero
+    private final IntObjectMap<int[]> countsByBatch = new IntObjectMap<>();
+    // Student ID to {batch code, 1 if active} as last counted, so a student edited in
+    // place before being passed back is un-counted under the values it was counted with
+    private final IntObjectMap<int[]> countedById = new IntObjectMap<>();
+    private IntObjectMap<Student> students;
+    private int activeCount;
 
     public StudentRepository() {
-        this.students = new ArrayList<>();
+        this.students = new IntObjectMap<>();
     }
 
     /**
      * Adds a student to the repository.
      * @param student the student to add
+     * @return true if added, false if another student already has the email
      */
-    public void addStudent(Student student) {
-        students.add(student);
+    public boolean addStudent(Student student) {
+        return lock.write(() -> {
+            if (emailIndex.findConflict(student) != null) {
+                return false;
+            }
+            insert(student);
+            return true;
+        });
+    }
+
+    /**
+     * Adds a batch of students under a single lock acquisition.
+     * A student whose email is already taken, by an existing student or by an earlier
+     * one in the batch, is skipped.
+     * @param batch the students to add
+     * @return added[i] is false if batch.get(i) was skipped as a duplicate
+     */
+    public boolean[] addStudents(List<Student> batch) {
+        return lock.write(() -> {
+            boolean[] added = new boolean[batch.size()];
+            for (int i = 0; i < added.length; i++) {
+                Student student = batch.get(i);
+                if (emailIndex.findConflict(student) == null) {
+                    insert(student);
+                    added[i] = true;
+                }
+            }
+            return added;
+        });
+    }
+
+    /**
+     * Adds a student, or replaces the student with the same ID, without checking that
+     * the email is unique. Only for journal recovery: a checkpoint is written while
+     * writes continue, so replay can pass through states where two students briefly
+     * share an email. The student restored last owns the email in the index.
+     * @param student the student to restore
+     */
+    public void restoreStudent(Student student) {
+        lock.write(() -> {
+            if (students.replace(student.getId(), student) == null) {
+                insert(student);
+            } else {
+                reindex(student);
+            }
+        });
     }
 
     /**
      * Retrieves all students.
+     * The list is a read-only view of the students present at the time of the call, not a copy.
      * @return list of all students
      */
     public List<Student> getAllStudents() {
-        return new ArrayList<>(students); // Return a copy to maintain encapsulation
+        return lock.read(() -> students.snapshot());
+    }
+
+    /**
+     * Streams all students without building a list.
+     * @return stream of the students present at the time of the call
+     */
+    public Stream<Student> streamStudents() {
+        return getAllStudents().stream();
+    }
+
+    /**
+     * Retrieves one page of students by position.
+     * @param offset position of the first student
+     * @param limit maximum number of students
+     * @return the page; its items are a read-only view
+     */
+    public Page<Student> getStudentsPage(int offset, int limit) {
+        return Page.of(getAllStudents(), offset, limit);
+    }
+
+    /**
+     * Retrieves the students that follow a given student (keyset paging).
+     * Pass the ID of the last student on the previous page, or 0 for the first page.
+     * Any other ID that is not in the repository gives an empty page, so a stale cursor
+     * ends the listing rather than starting it over.
+     * @param afterId ID of the student to continue after
+     * @param limit maximum number of students
+     * @return the page; its items are a read-only view
+     */
+    public Page<Student> getStudentsAfter(int afterId, int limit) {
+        return lock.read(() -> {
+            List<Student> all = students.snapshot();
+            int position = afterId == 0 ? -1 : students.indexOf(afterId);
+            return Page.of(all, afterId != 0 && position < 0 ? all.size() : position + 1, limit);
+        });
     }
 
     /**
@@ -37,7 +148,7 @@ public class StudentRepository {
      */
     public List<Student> getActiveStudents() {
         List<Student> activeStudents = new ArrayList<>();
-        for (Student student : students) {
+        for (Student student : getAllStudents()) {
             if (student.isActive()) {
                 activeStudents.add(student);
             }
@@ -51,27 +162,130 @@ public class StudentRepository {
      * @return the student if found, null otherwise
      */
     public Student findById(int id) {
-        for (Student student : students) {
-            if (student.getId() == id) {
-                return student;
-            }
+        return lock.read(() -> students.get(id));
+    }
+
+    /**
+     * Finds students whose first name, last name or email starts with the query,
+     * ignoring case, without scanning all students. Exact matches come first, then
+     * shorter completions. Name or email changes are picked up through
+     * {@link #updateStudent(Student)}.
+     * @param query the prefix, e.g. "lov" or "ada@"
+     * @param limit maximum number of students returned
+     * @return matching students, best match first
+     */
+    public List<Student> searchStudents(String query, int limit) {
+        // New terms are sorted into the index lazily, by the first search that needs them.
+        // The unlocked check only saves taking the lock; it is repeated under it.
+        if (searchIndex.isSortNeeded()) {
+            lock.maintain(() -> {
+                if (searchIndex.isSortNeeded()) {
+                    searchIndex.sort();
+                }
+            });
         }
-        return null;
+        return lock.read(() -> {
+            int[] ids = searchIndex.search(query, limit);
+            List<Student> matches = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                matches.add(students.get(id));
+            }
+            return matches;
+        });
+    }
+
+    /**
+     * Finds the student registered with an email, ignoring case and surrounding whitespace.
+     * @param email the email
+     * @return the student if found, null otherwise
+     */
+    public Student findByEmail(String email) {
+        return lock.readLocked(() -> emailIndex.find(email));
+    }
+
+    /**
+     * Counts students and active students, in constant time.
+     * @return counts over all students
+     */
+    public ActiveCounts getCounts() {
+        return lock.read(() -> new ActiveCounts(students.size(), activeCount));
+    }
+
+    /**
+     * Counts the students in one batch, in constant time.
+     * @param batch the batch name, matched exactly
+     * @return counts over the batch's students (all zero for an unknown batch)
+     */
+    public ActiveCounts getCountsByBatch(String batch) {
+        return lock.read(() -> {
+            int code = batchNames.find(batch);
+            int[] counts = code == StringDictionary.NONE ? null : countsByBatch.get(code);
+            return counts == null ? new ActiveCounts(0, 0) : new ActiveCounts(counts[0], counts[1]);
+        });
+    }
+
+    /**
+     * Counts the students in every batch. Costs time in proportion to the number of
+     * batches, not students.
+     * @return batch name to counts, sorted by batch name; batches emptied by updates are left out
+     */
+    public Map<String, ActiveCounts> getCountsByBatch() {
+        return lock.readLocked(() -> {
+            Map<String, ActiveCounts> result = new TreeMap<>();
+            for (int i = 0; i < countsByBatch.size(); i++) {
+                int[] counts = countsByBatch.valueAt(i);
+                if (counts[0] > 0) {
+                    String batch = batchNames.decode(countsByBatch.keyAt(i));
+                    result.put(batch, new ActiveCounts(counts[0], counts[1]));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns the size of the batch name dictionary. Costs time in proportion to the
+     * number of batches.
+     * @return distinct batch names in use, references to them and the heap saved
+     */
+    public DictionaryStats getBatchNameStats() {
+        return lock.readLocked(() -> new DictionaryStats(batchNames.size(), batchNames.getReferences(),
+                batchNames.getSavedBytes()));
+    }
+
+    /**
+     * Checks which of the given IDs exist, in one read.
+     * @param ids the student IDs
+     * @return found[i] is true if ids[i] exists
+     */
+    public boolean[] containsIds(int[] ids) {
+        return lock.read(() -> {
+            boolean[] found = new boolean[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                found[i] = students.containsKey(ids[i]);
+            }
+            return found;
+        });
     }
 
     /**
      * Updates a student's information.
      * @param updatedStudent the student with updated information
-     * @return true if update was successful, false if student not found
+     * @return true if update was successful, false if student not found or another
+     *         student already has the new email
      */
     public boolean updateStudent(Student updatedStudent) {
-        Student existingStudent = findById(updatedStudent.getId());
-        if (existingStudent != null) {
-            int index = students.indexOf(existingStudent);
-            students.set(index, updatedStudent);
+        // replace() keeps the entry's position, so insertion order is preserved
+        return lock.write(() -> {
+            if (emailIndex.findConflict(updatedStudent) != null) {
+                return false;
+            }
+            if (students.replace(updatedStudent.getId(), updatedStudent) == null) {
+                return false;
+            }
+            reindex(updatedStudent);
             return true;
-        }
-        return false;
+        });
     }
 
     /**
@@ -80,12 +294,92 @@ public class StudentRepository {
      * @return true if deactivation was successful, false if student not found
      */
     public boolean deactivateStudent(int id) {
-        Student student = findById(id);
-        if (student != null) {
-            student.setActive(false);
-            return true;
+        return lock.write(() -> {
+            Student student = students.get(id);
+            if (student != null) {
+                student.setActive(false);
+                recount(student);
+                notifyListeners(MutationType.DEACTIVATED, student);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Registers a listener notified after every add and change.
+     * @param listener the listener
+     */
+    public void addListener(RepositoryListener<Student> listener) {
+        listeners.add(listener);
+    }
+
+    // The callers below run with the write lock held
+
+    private void insert(Student student) {
+        Student previous = students.put(student.getId(), student);
+        if (previous == null) {
+            searchIndex.add(student);
+        } else {
+            // Adding an ID that is already present replaces the student
+            searchIndex.update(student);
         }
-        return false;
+        emailIndex.put(student);
+        recount(student);
+        notifyListeners(MutationType.ADDED, student);
+    }
+
+    private void reindex(Student student) {
+        searchIndex.update(student);
+        emailIndex.put(student);
+        recount(student);
+        notifyListeners(MutationType.UPDATED, student);
+    }
+
+    // Moves the student from the counters it was last counted under to the ones it falls
+    // under now, and from its previous batch name's dictionary reference to its current one
+    private void recount(Student student) {
+        int batch = batchNames.encode(student.getBatch());
+        if (batch != StringDictionary.NONE) {
+            // Share the stored copy; the caller's copy can be collected
+            student.setBatch(batchNames.decode(batch));
+        }
+        int[] counted = {batch, student.isActive() ? 1 : 0};
+        int[] previous = countedById.put(student.getId(), counted);
+        if (previous != null) {
+            count(previous, -1);
+            batchNames.release(previous[0]);
+        }
+        count(counted, 1);
     }
-}
 
+    // Adds delta to the active and per-batch counters of a countedById entry
+    private void count(int[] counted, int delta) {
+        int active = counted[1] * delta;
+        activeCount += active;
+        int batch = counted[0];
+        if (batch != StringDictionary.NONE) {
+            int[] counts = countsByBatch.get(batch);
+            if (counts == null) {
+                counts = new int[2];
+                countsByBatch.put(batch, counts);
+            }
+            counts[0] += delta;
+            counts[1] += active;
+        }
+    }
+
+    // Called with the write lock held so listeners see mutations in order
+    private void notifyListeners(MutationType type, Student student) {
+        for (RepositoryListener<Student> listener : listeners) {
+            listener.onMutation(type, student);
+        }
+    }
+
+    // Called after every write, with the write lock released
+    private void afterWrite() {
+        for (RepositoryListener<Student> listener : listeners) {
+            listener.afterWrite();
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Prefix index over student first names, last names and emails.
+ * Terms are lower-cased and grouped by length, and each group keeps its terms in a
+ * sorted array. A query walks the lengths upward from the prefix length and does one
+ * binary search per length, so results come out closest match first: exact matches,
+ * then the shortest completions. The walk stops once the limit is reached, so its
+ * cost depends on the limit rather than on the number of students.
+ * New terms are appended to an unsorted tail that searches scan directly; a group is
+ * only sorted once its tail passes MAX_UNSORTED. Adds stay O(1), so bulk loads and
+ * journal recovery do not pay for a sorted insert per student.
+ * Not thread-safe: StudentRepository writes and sorts it under its write lock, and
+ * searches it with optimistic reads, which it validates and retries under the read
+ * lock if a write got in the way. Searches only read, and every loop is bounded by
+ * the counts it read, so a search torn by a write ends and its result is discarded.
+ */
+class StudentSearchIndex {
+    // Terms longer than this are indexed by their first MAX_TERM_LENGTH characters
+    static final int MAX_TERM_LENGTH = 64;
+    // New terms a group scans linearly before they are merged into its sorted array
+    private static final int MAX_UNSORTED = 256;
+    private static final int[] NO_IDS = new int[0];
+    private static final Comparator<IdList> BY_TERM = Comparator.comparing(list -> list.term);
+
+    private final TermGroup[] groups = new TermGroup[MAX_TERM_LENGTH + 1];
+    private final Map<String, IdList> listsByTerm = new HashMap<>();
+    // Terms each student was indexed under, so an update can remove them even if the
+    // Student object was changed in place
+    private final IntObjectMap<String[]> termsById = new IntObjectMap<>();
+    private volatile boolean sortNeeded;
+
+    StudentSearchIndex() {
+        for (int length = 0; length <= MAX_TERM_LENGTH; length++) {
+            groups[length] = new TermGroup();
+        }
+    }
+
+    /**
+     * Indexes a new student.
+     * @param student the student
+     */
+    void add(Student student) {
+        String[] terms = termsOf(student);
+        for (int i = 0; i < terms.length; i++) {
+            IdList ids = listsByTerm.get(terms[i]);
+            if (ids == null) {
+                ids = new IdList(terms[i]);
+                listsByTerm.put(terms[i], ids);
+                // Only write the volatile flag when it changes; a fence per add is costly in bulk loads
+                if (groups[terms[i].length()].append(ids) > MAX_UNSORTED && !sortNeeded) {
+                    sortNeeded = true;
+                }
+            }
+            ids.add(student.getId());
+            // Students sharing a name share one lower-cased copy of it
+            terms[i] = ids.term;
+        }
+        termsById.put(student.getId(), terms);
+    }
+
+    /**
+     * Re-indexes a student whose names or email may have changed.
+     * @param student the student's new state
+     */
+    void update(Student student) {
+        String[] previous = termsById.get(student.getId());
+        if (previous != null && Arrays.equals(previous, termsOf(student))) {
+            return;
+        }
+        if (previous != null) {
+            for (String term : previous) {
+                IdList ids = listsByTerm.get(term);
+                if (ids != null && ids.remove(student.getId())) {
+                    // The empty list stays in its group until the next sort and is skipped by searches
+                    listsByTerm.remove(term);
+                }
+            }
+        }
+        add(student);
+    }
+
+    /**
+     * @return true if some group's unsorted tail has grown past MAX_UNSORTED
+     */
+    boolean isSortNeeded() {
+        return sortNeeded;
+    }
+
+    /**
+     * Merges every oversized unsorted tail into its group's sorted array.
+     */
+    void sort() {
+        for (TermGroup group : groups) {
+            if (group.unsortedCount > MAX_UNSORTED) {
+                group.sort();
+            }
+        }
+        sortNeeded = false;
+    }
+
+    /**
+     * Finds students whose first name, last name or email starts with the query,
+     * ignoring case. Exact matches come first, then shorter completions, then
+     * alphabetical order; students with the same term are in ID order.
+     * @param query the prefix
+     * @param limit maximum number of IDs returned
+     * @return matching student IDs, best first, without duplicates
+     */
+    int[] search(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix == null || limit <= 0) {
+            return NO_IDS;
+        }
+        Matches matches = new Matches(limit);
+        for (int length = prefix.length(); length <= MAX_TERM_LENGTH && !matches.isFull(); length++) {
+            groups[length].search(prefix, matches);
+        }
+        return matches.toArray();
+    }
+
+    private static String[] termsOf(Student student) {
+        String[] terms = new String[3];
+        int count = 0;
+        for (String value : new String[] {student.getFirstName(), student.getLastName(), student.getEmail()}) {
+            String term = normalize(value);
+            if (term != null && !contains(terms, count, term)) {
+                terms[count++] = term;
+            }
+        }
+        return count == terms.length ? terms : Arrays.copyOf(terms, count);
+    }
+
+    private static boolean contains(String[] terms, int count, String term) {
+        for (int i = 0; i < count; i++) {
+            if (terms[i].equals(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String term = value.trim().toLowerCase(Locale.ROOT);
+        if (term.isEmpty()) {
+            return null;
+        }
+        return term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term;
+    }
+
+    /**
+     * All terms of one length: a sorted array plus an unsorted tail of recent terms.
+     */
+    private static final class TermGroup {
+        private IdList[] sorted = new IdList[0];
+        private int sortedCount;
+        private IdList[] unsorted = new IdList[4];
+        private int unsortedCount;
+
+        /**
+         * @return the size of the unsorted tail after appending
+         */
+        int append(IdList ids) {
+            if (unsortedCount == unsorted.length) {
+                unsorted = Arrays.copyOf(unsorted, unsortedCount * 2);
+            }
+            unsorted[unsortedCount++] = ids;
+            return unsortedCount;
+        }
+
+        void sort() {
+            IdList[] tail = Arrays.copyOf(unsorted, unsortedCount);
+            Arrays.sort(tail, BY_TERM);
+            IdList[] merged = new IdList[sortedCount + tail.length];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < sortedCount || j < tail.length) {
+                IdList next;
+                if (j == tail.length || (i < sortedCount && sorted[i].term.compareTo(tail[j].term) <= 0)) {
+                    next = sorted[i++];
+                } else {
+                    next = tail[j++];
+                }
+                // Drop lists emptied by updates
+                if (next.size > 0) {
+                    merged[count++] = next;
+                }
+            }
+            sorted = merged;
+            sortedCount = count;
+            unsorted = new IdList[4];
+            unsortedCount = 0;
+        }
+
+        void search(String prefix, Matches matches) {
+            // Tail matches are few; sort them so they merge into the sorted range in order
+            IdList[] tailMatches = null;
+            int tailCount = 0;
+            for (int i = 0; i < unsortedCount; i++) {
+                if (unsorted[i].term.startsWith(prefix)) {
+                    if (tailMatches == null) {
+                        tailMatches = new IdList[Math.min(unsortedCount, 16)];
+                    } else if (tailCount == tailMatches.length) {
+                        tailMatches = Arrays.copyOf(tailMatches, tailCount * 2);
+                    }
+                    tailMatches[tailCount++] = unsorted[i];
+                }
+            }
+            if (tailCount > 1) {
+                Arrays.sort(tailMatches, 0, tailCount, BY_TERM);
+            }
+
+            int i = lowerBound(prefix);
+            int j = 0;
+            while (!matches.isFull()) {
+                boolean sortedHasNext = i < sortedCount && sorted[i].term.startsWith(prefix);
+                if (!sortedHasNext && j == tailCount) {
+                    return;
+                }
+                if (sortedHasNext && (j == tailCount || sorted[i].term.compareTo(tailMatches[j].term) <= 0)) {
+                    matches.addAll(sorted[i++]);
+                } else {
+                    matches.addAll(tailMatches[j++]);
+                }
+            }
+        }
+
+        private int lowerBound(String prefix) {
+            int low = 0;
+            int high = sortedCount;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid].term.compareTo(prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * IDs of the students indexed under one term, in the order they were added.
+     * Most emails belong to one student, so the first ID is kept in a field and the
+     * array is only allocated for a second one.
+     */
+    private static final class IdList {
+        private final String term;
+        private int first;
+        private int[] rest;
+        private int size;
+
+        IdList(String term) {
+            this.term = term;
+        }
+
+        int get(int index) {
+            return index == 0 ? first : rest[index - 1];
+        }
+
+        void add(int id) {
+            if (size == 0) {
+                first = id;
+            } else if (rest == null) {
+                rest = new int[] {id, 0};
+            } else {
+                if (size - 1 == rest.length) {
+                    rest = Arrays.copyOf(rest, rest.length * 2);
+                }
+                rest[size - 1] = id;
+            }
+            size++;
+        }
+
+        /**
+         * @return true if the list is now empty
+         */
+        boolean remove(int id) {
+            for (int i = 0; i < size; i++) {
+                if (get(i) == id) {
+                    for (int j = i; j < size - 1; j++) {
+                        set(j, get(j + 1));
+                    }
+                    size--;
+                    break;
+                }
+            }
+            return size == 0;
+        }
+
+        private void set(int index, int id) {
+            if (index == 0) {
+                first = id;
+            } else {
+                rest[index - 1] = id;
+            }
+        }
+    }
+
+    /**
+     * Collects up to limit distinct IDs in the order found.
+     */
+    private static final class Matches {
+        private final int limit;
+        private int[] ids;
+        private int count;
+
+        Matches(int limit) {
+            this.limit = limit;
+            this.ids = new int[Math.min(limit, 64)];
+        }
+
+        boolean isFull() {
+            return count == limit;
+        }
+
+        void addAll(IdList list) {
+            for (int i = 0; i < list.size && count < limit; i++) {
+                int id = list.get(i);
+                // A student matching on two fields is found twice; result lists are short, so scan
+                if (!contains(id)) {
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, Math.min(limit, count * 2));
+                    }
+                    ids[count++] = id;
+                }
+            }
+        }
+
+        private boolean contains(int id) {
+            for (int i = 0; i < count; i++) {
+                if (ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int[] toArray() {
+            return count == ids.length ? ids : Arrays.copyOf(ids, count);
+        }
+    }
+}
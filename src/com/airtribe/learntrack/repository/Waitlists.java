@@ -0,0 +1,116 @@
+package com.airtribe.learntrack.repository;
+
+import com.airtribe.learntrack.util.IntObjectMap;
+import java.util.Arrays;
+
+/**
+ * First-come first-served waitlists of enrollment IDs, one per course.
+ * Each waitlist is an array with a moving head, so promoting the next enrollment is
+ * O(1) however long the list is; an enrollment leaving from the middle only shifts
+ * the entries behind it.
+ * Not thread-safe: EnrollmentRepository writes it under its write lock and reads it
+ * under its read lock.
+ */
+class Waitlists {
+    private static final int[] EMPTY = new int[0];
+
+    private final IntObjectMap<Queue> queuesByCourse = new IntObjectMap<>();
+
+    /**
+     * Adds an enrollment to the back of a course's waitlist.
+     * @param courseId the course ID
+     * @param enrollmentId the enrollment ID
+     */
+    void add(int courseId, int enrollmentId) {
+        Queue queue = queuesByCourse.get(courseId);
+        if (queue == null) {
+            queue = new Queue();
+            queuesByCourse.put(courseId, queue);
+        }
+        queue.add(enrollmentId);
+    }
+
+    /**
+     * Removes an enrollment from a course's waitlist, keeping the order of the rest.
+     * @param courseId the course ID
+     * @param enrollmentId the enrollment ID
+     * @return true if the enrollment was waiting
+     */
+    boolean remove(int courseId, int enrollmentId) {
+        Queue queue = queuesByCourse.get(courseId);
+        return queue != null && queue.remove(enrollmentId);
+    }
+
+    /**
+     * @param courseId the course ID
+     * @param absent value returned when nobody is waiting
+     * @return the enrollment waiting longest, or absent
+     */
+    int first(int courseId, int absent) {
+        Queue queue = queuesByCourse.get(courseId);
+        return queue == null || queue.size() == 0 ? absent : queue.ids[queue.head];
+    }
+
+    /**
+     * @param courseId the course ID
+     * @return the number of enrollments waiting
+     */
+    int size(int courseId) {
+        Queue queue = queuesByCourse.get(courseId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * @param courseId the course ID
+     * @return a copy of the waitlist, longest waiting first
+     */
+    int[] toArray(int courseId) {
+        Queue queue = queuesByCourse.get(courseId);
+        return queue == null ? EMPTY : Arrays.copyOfRange(queue.ids, queue.head, queue.tail);
+    }
+
+    /**
+     * Enrollment IDs in ids[head..tail), oldest first.
+     */
+    private static final class Queue {
+        private int[] ids = new int[4];
+        private int head;
+        private int tail;
+
+        int size() {
+            return tail - head;
+        }
+
+        void add(int id) {
+            if (tail == ids.length) {
+                int size = size();
+                // Reuse the space promotions freed at the front before growing
+                int[] target = size * 2 <= ids.length ? ids : new int[ids.length * 2];
+                System.arraycopy(ids, head, target, 0, size);
+                ids = target;
+                head = 0;
+                tail = size;
+            }
+            ids[tail++] = id;
+        }
+
+        boolean remove(int id) {
+            for (int i = head; i < tail; i++) {
+                if (ids[i] == id) {
+                    if (i == head) {
+                        head++;
+                    } else {
+                        System.arraycopy(ids, i + 1, ids, i, tail - i - 1);
+                        tail--;
+                    }
+                    if (head == tail) {
+                        head = 0;
+                        tail = 0;
+                    }
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.util.Page;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking variants of the {@link CourseService} methods, run on an executor the same
+ * way as {@link AsyncStudentService}. EntityNotFoundException completes the future
+ * exceptionally.
+ */
+public class AsyncCourseService {
+    private final CourseService courseService;
+    private final Executor executor;
+
+    public AsyncCourseService(CourseService courseService, Executor executor) {
+        this.courseService = courseService;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the blocking service the calls run on.
+     * @return the wrapped service
+     */
+    public CourseService getService() {
+        return courseService;
+    }
+
+    /**
+     * Async {@link CourseService#addCourse(String, String, int)}.
+     */
+    public CompletableFuture<Course> addCourse(String courseName, String description, int durationInWeeks) {
+        return AsyncSupport.supply(executor, () -> courseService.addCourse(courseName, description, durationInWeeks));
+    }
+
+    /**
+     * Async {@link CourseService#addCourse(String, String, int, int)}.
+     */
+    public CompletableFuture<Course> addCourse(String courseName, String description, int durationInWeeks,
+                                               int capacity) {
+        return AsyncSupport.supply(executor,
+                () -> courseService.addCourse(courseName, description, durationInWeeks, capacity));
+    }
+
+    /**
+     * Async {@link CourseService#getAllCourses()}.
+     */
+    public CompletableFuture<List<Course>> getAllCourses() {
+        return AsyncSupport.supply(executor, courseService::getAllCourses);
+    }
+
+    /**
+     * Async {@link CourseService#getCoursesPage(int, int)}.
+     */
+    public CompletableFuture<Page<Course>> getCoursesPage(int offset, int limit) {
+        return AsyncSupport.supply(executor, () -> courseService.getCoursesPage(offset, limit));
+    }
+
+    /**
+     * Async {@link CourseService#getCoursesAfter(int, int)}.
+     */
+    public CompletableFuture<Page<Course>> getCoursesAfter(int afterId, int limit) {
+        return AsyncSupport.supply(executor, () -> courseService.getCoursesAfter(afterId, limit));
+    }
+
+    /**
+     * Async {@link CourseService#getActiveCourses()}.
+     */
+    public CompletableFuture<List<Course>> getActiveCourses() {
+        return AsyncSupport.supply(executor, courseService::getActiveCourses);
+    }
+
+    /**
+     * Async {@link CourseService#findCourseById(int)}.
+     */
+    public CompletableFuture<Course> findCourseById(int id) {
+        return AsyncSupport.supply(executor, () -> courseService.findCourseById(id));
+    }
+
+    /**
+     * Async {@link CourseService#findCoursesByIds(int[])}.
+     */
+    public CompletableFuture<Course[]> findCoursesByIds(int[] ids) {
+        return AsyncSupport.supply(executor, () -> courseService.findCoursesByIds(ids));
+    }
+
+    /**
+     * Async {@link CourseService#getCourseCounts()}.
+     */
+    public CompletableFuture<ActiveCounts> getCourseCounts() {
+        return AsyncSupport.supply(executor, courseService::getCourseCounts);
+    }
+
+    /**
+     * Async {@link CourseService#coursesExist(int[])}.
+     */
+    public CompletableFuture<boolean[]> coursesExist(int[] ids) {
+        return AsyncSupport.supply(executor, () -> courseService.coursesExist(ids));
+    }
+
+    /**
+     * Async {@link CourseService#activateCourse(int)}.
+     */
+    public CompletableFuture<Void> activateCourse(int id) {
+        return AsyncSupport.supply(executor, () -> {
+            courseService.activateCourse(id);
+            return null;
+        });
+    }
+
+    /**
+     * Async {@link CourseService#setCourseCapacity(int, int)}.
+     */
+    public CompletableFuture<Course> setCourseCapacity(int id, int capacity) {
+        return AsyncSupport.supply(executor, () -> courseService.setCourseCapacity(id, capacity));
+    }
+
+    /**
+     * Async {@link CourseService#deactivateCourse(int)}.
+     */
+    public CompletableFuture<Void> deactivateCourse(int id) {
+        return AsyncSupport.supply(executor, () -> {
+            courseService.deactivateCourse(id);
+            return null;
+        });
+    }
+}
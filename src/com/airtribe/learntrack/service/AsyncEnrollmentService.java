@@ -0,0 +1,218 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.repository.EnrollmentCounts;
+import com.airtribe.learntrack.util.IntObjectMap;
+import com.airtribe.learntrack.util.Page;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking variants of the {@link EnrollmentService} methods, run on an executor the
+ * same way as {@link AsyncStudentService}. EntityNotFoundException, DuplicateEntityException
+ * and InvalidInputException complete the future exceptionally.
+ * The enrollment details methods fan out: they look up every student or course an
+ * enrollment list names at the same time, through the async student and course services,
+ * and fan back in to one list, so a report waits for the slowest lookup instead of the
+ * sum of them all.
+ */
+public class AsyncEnrollmentService {
+    private final EnrollmentService enrollmentService;
+    private final AsyncStudentService studentService;
+    private final AsyncCourseService courseService;
+    private final Executor executor;
+
+    public AsyncEnrollmentService(EnrollmentService enrollmentService, AsyncStudentService studentService,
+                                  AsyncCourseService courseService, Executor executor) {
+        this.enrollmentService = enrollmentService;
+        this.studentService = studentService;
+        this.courseService = courseService;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the blocking service the calls run on.
+     * @return the wrapped service
+     */
+    public EnrollmentService getService() {
+        return enrollmentService;
+    }
+
+    /**
+     * Async {@link EnrollmentService#enrollStudent(int, int)}.
+     */
+    public CompletableFuture<Enrollment> enrollStudent(int studentId, int courseId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.enrollStudent(studentId, courseId));
+    }
+
+    /**
+     * Async {@link EnrollmentService#findOpenEnrollment(int, int)}.
+     */
+    public CompletableFuture<Enrollment> findOpenEnrollment(int studentId, int courseId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.findOpenEnrollment(studentId, courseId));
+    }
+
+    /**
+     * Async {@link EnrollmentService#enrollStudents(int, int[])}.
+     */
+    public CompletableFuture<List<EnrollmentResult>> enrollStudents(int courseId, int[] studentIds) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.enrollStudents(courseId, studentIds));
+    }
+
+    /**
+     * Async {@link EnrollmentService#enrollAll(int[], int[])}.
+     */
+    public CompletableFuture<List<EnrollmentResult>> enrollAll(int[] studentIds, int[] courseIds) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.enrollAll(studentIds, courseIds));
+    }
+
+    /**
+     * Async {@link EnrollmentService#getEnrollmentsByStudent(int)}.
+     */
+    public CompletableFuture<List<Enrollment>> getEnrollmentsByStudent(int studentId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.getEnrollmentsByStudent(studentId));
+    }
+
+    /**
+     * Async {@link EnrollmentService#getEnrollmentsByCourse(int)}.
+     */
+    public CompletableFuture<List<Enrollment>> getEnrollmentsByCourse(int courseId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.getEnrollmentsByCourse(courseId));
+    }
+
+    /**
+     * Async {@link EnrollmentService#getWaitlist(int)}.
+     */
+    public CompletableFuture<List<Enrollment>> getWaitlist(int courseId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.getWaitlist(courseId));
+    }
+
+    /**
+     * Lists a student's enrollments with each enrollment's course. The student, the
+     * enrollment list and then every distinct course are looked up concurrently.
+     * @param studentId the student ID
+     * @return the details, in the order of {@link EnrollmentService#getEnrollmentsByStudent(int)};
+     *         fails with EntityNotFoundException if the student is unknown
+     */
+    public CompletableFuture<List<EnrollmentDetails>> getEnrollmentDetailsByStudent(int studentId) {
+        CompletableFuture<Student> student = studentService.findStudentById(studentId);
+        return getEnrollmentsByStudent(studentId).thenCompose(enrollments -> {
+            IntObjectMap<CompletableFuture<Course>> courses = new IntObjectMap<>();
+            List<CompletableFuture<EnrollmentDetails>> details = new ArrayList<>(enrollments.size());
+            for (Enrollment enrollment : enrollments) {
+                CompletableFuture<Course> course = courses.get(enrollment.getCourseId());
+                if (course == null) {
+                    course = courseService.findCourseById(enrollment.getCourseId());
+                    courses.put(enrollment.getCourseId(), course);
+                }
+                details.add(student.thenCombine(course,
+                        (found, foundCourse) -> new EnrollmentDetails(enrollment, found, foundCourse)));
+            }
+            return AsyncSupport.all(details);
+        });
+    }
+
+    /**
+     * Lists a course's enrollments with each enrollment's student. The course, the
+     * enrollment list and then every distinct student are looked up concurrently.
+     * @param courseId the course ID
+     * @return the details, in the order of {@link EnrollmentService#getEnrollmentsByCourse(int)};
+     *         fails with EntityNotFoundException if the course is unknown
+     */
+    public CompletableFuture<List<EnrollmentDetails>> getEnrollmentDetailsByCourse(int courseId) {
+        CompletableFuture<Course> course = courseService.findCourseById(courseId);
+        return getEnrollmentsByCourse(courseId).thenCompose(enrollments -> {
+            IntObjectMap<CompletableFuture<Student>> students = new IntObjectMap<>();
+            List<CompletableFuture<EnrollmentDetails>> details = new ArrayList<>(enrollments.size());
+            for (Enrollment enrollment : enrollments) {
+                CompletableFuture<Student> student = students.get(enrollment.getStudentId());
+                if (student == null) {
+                    student = studentService.findStudentById(enrollment.getStudentId());
+                    students.put(enrollment.getStudentId(), student);
+                }
+                details.add(student.thenCombine(course,
+                        (foundStudent, found) -> new EnrollmentDetails(enrollment, foundStudent, found)));
+            }
+            return AsyncSupport.all(details);
+        });
+    }
+
+    /**
+     * Async {@link EnrollmentService#getEnrollmentCounts()}.
+     */
+    public CompletableFuture<EnrollmentCounts> getEnrollmentCounts() {
+        return AsyncSupport.supply(executor, enrollmentService::getEnrollmentCounts);
+    }
+
+    /**
+     * Async {@link EnrollmentService#countEnrollmentsBetween(LocalDate, LocalDate, EnrollmentStatus)}.
+     */
+    public CompletableFuture<Integer> countEnrollmentsBetween(LocalDate from, LocalDate to, EnrollmentStatus status) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.countEnrollmentsBetween(from, to, status));
+    }
+
+    /**
+     * Async {@link EnrollmentService#getEnrollmentCountsByCourse(int)}.
+     */
+    public CompletableFuture<EnrollmentCounts> getEnrollmentCountsByCourse(int courseId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.getEnrollmentCountsByCourse(courseId));
+    }
+
+    /**
+     * Async {@link EnrollmentService#findEnrollmentById(int)}.
+     */
+    public CompletableFuture<Enrollment> findEnrollmentById(int id) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.findEnrollmentById(id));
+    }
+
+    /**
+     * Async {@link EnrollmentService#markEnrollmentCompleted(int)}.
+     */
+    public CompletableFuture<Void> markEnrollmentCompleted(int enrollmentId) {
+        return AsyncSupport.supply(executor, () -> {
+            enrollmentService.markEnrollmentCompleted(enrollmentId);
+            return null;
+        });
+    }
+
+    /**
+     * Async {@link EnrollmentService#markEnrollmentCancelled(int)}.
+     */
+    public CompletableFuture<Enrollment> markEnrollmentCancelled(int enrollmentId) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.markEnrollmentCancelled(enrollmentId));
+    }
+
+    /**
+     * Async {@link EnrollmentService#setCourseCapacity(int, int)}.
+     */
+    public CompletableFuture<List<Enrollment>> setCourseCapacity(int courseId, int capacity) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.setCourseCapacity(courseId, capacity));
+    }
+
+    /**
+     * Async {@link EnrollmentService#getAllEnrollments()}.
+     */
+    public CompletableFuture<List<Enrollment>> getAllEnrollments() {
+        return AsyncSupport.supply(executor, enrollmentService::getAllEnrollments);
+    }
+
+    /**
+     * Async {@link EnrollmentService#getEnrollmentsPage(int, int)}.
+     */
+    public CompletableFuture<Page<Enrollment>> getEnrollmentsPage(int offset, int limit) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.getEnrollmentsPage(offset, limit));
+    }
+
+    /**
+     * Async {@link EnrollmentService#getEnrollmentsAfter(int, int)}.
+     */
+    public CompletableFuture<Page<Enrollment>> getEnrollmentsAfter(int afterId, int limit) {
+        return AsyncSupport.supply(executor, () -> enrollmentService.getEnrollmentsAfter(afterId, limit));
+    }
+}
@@ -0,0 +1,152 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.util.Page;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Non-blocking variants of the {@link StudentService} methods. Each call runs the blocking
+ * method as a task on the executor and returns at once with a CompletableFuture, so a
+ * caller can start many lookups together and combine their results.
+ * A checked exception from the service (EntityNotFoundException, DuplicateEntityException)
+ * completes the future exceptionally; join() and get() report it as the cause.
+ * Wrap an InstrumentedStudentService to keep recording each call's latency.
+ * Use an executor from {@link com.airtribe.learntrack.util.VirtualThreads#newPerTaskExecutor},
+ * so a task that waits costs a virtual thread, not a platform thread.
+ */
+public class AsyncStudentService {
+    private final StudentService studentService;
+    private final Executor executor;
+
+    public AsyncStudentService(StudentService studentService, Executor executor) {
+        this.studentService = studentService;
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the blocking service the calls run on.
+     * @return the wrapped service
+     */
+    public StudentService getService() {
+        return studentService;
+    }
+
+    /**
+     * Async {@link StudentService#addStudent(String, String, String, String)}.
+     */
+    public CompletableFuture<Student> addStudent(String firstName, String lastName, String email, String batch) {
+        return AsyncSupport.supply(executor, () -> studentService.addStudent(firstName, lastName, email, batch));
+    }
+
+    /**
+     * Async {@link StudentService#addStudent(String, String, String)}.
+     */
+    public CompletableFuture<Student> addStudent(String firstName, String lastName, String batch) {
+        return AsyncSupport.supply(executor, () -> studentService.addStudent(firstName, lastName, batch));
+    }
+
+    /**
+     * Async {@link StudentService#getAllStudents()}.
+     */
+    public CompletableFuture<List<Student>> getAllStudents() {
+        return AsyncSupport.supply(executor, studentService::getAllStudents);
+    }
+
+    /**
+     * Async {@link StudentService#getStudentsPage(int, int)}.
+     */
+    public CompletableFuture<Page<Student>> getStudentsPage(int offset, int limit) {
+        return AsyncSupport.supply(executor, () -> studentService.getStudentsPage(offset, limit));
+    }
+
+    /**
+     * Async {@link StudentService#getStudentsAfter(int, int)}.
+     */
+    public CompletableFuture<Page<Student>> getStudentsAfter(int afterId, int limit) {
+        return AsyncSupport.supply(executor, () -> studentService.getStudentsAfter(afterId, limit));
+    }
+
+    /**
+     * Async {@link StudentService#getActiveStudents()}.
+     */
+    public CompletableFuture<List<Student>> getActiveStudents() {
+        return AsyncSupport.supply(executor, studentService::getActiveStudents);
+    }
+
+    /**
+     * Async {@link StudentService#findStudentById(int)}.
+     */
+    public CompletableFuture<Student> findStudentById(int id) {
+        return AsyncSupport.supply(executor, () -> studentService.findStudentById(id));
+    }
+
+    /**
+     * Finds several students at once, one lookup per ID, all running together.
+     * @param ids the student IDs
+     * @return the students, in ID order; fails with EntityNotFoundException if any ID is unknown
+     */
+    public CompletableFuture<List<Student>> findStudentsByIds(int[] ids) {
+        List<CompletableFuture<Student>> lookups = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            lookups.add(findStudentById(id));
+        }
+        return AsyncSupport.all(lookups);
+    }
+
+    /**
+     * Async {@link StudentService#findStudentByEmail(String)}.
+     */
+    public CompletableFuture<Student> findStudentByEmail(String email) {
+        return AsyncSupport.supply(executor, () -> studentService.findStudentByEmail(email));
+    }
+
+    /**
+     * Async {@link StudentService#searchStudents(String, int)}.
+     */
+    public CompletableFuture<List<Student>> searchStudents(String query, int limit) {
+        return AsyncSupport.supply(executor, () -> studentService.searchStudents(query, limit));
+    }
+
+    /**
+     * Async {@link StudentService#getStudentCounts()}.
+     */
+    public CompletableFuture<ActiveCounts> getStudentCounts() {
+        return AsyncSupport.supply(executor, studentService::getStudentCounts);
+    }
+
+    /**
+     * Async {@link StudentService#getStudentCountsByBatch(String)}.
+     */
+    public CompletableFuture<ActiveCounts> getStudentCountsByBatch(String batch) {
+        return AsyncSupport.supply(executor, () -> studentService.getStudentCountsByBatch(batch));
+    }
+
+    /**
+     * Async {@link StudentService#getStudentCountsByBatch()}.
+     */
+    public CompletableFuture<Map<String, ActiveCounts>> getStudentCountsByBatch() {
+        return AsyncSupport.supply(executor, () -> studentService.getStudentCountsByBatch());
+    }
+
+    /**
+     * Async {@link StudentService#studentsExist(int[])}.
+     */
+    public CompletableFuture<boolean[]> studentsExist(int[] ids) {
+        return AsyncSupport.supply(executor, () -> studentService.studentsExist(ids));
+    }
+
+    /**
+     * Async {@link StudentService#deactivateStudent(int)}.
+     */
+    public CompletableFuture<Void> deactivateStudent(int id) {
+        return AsyncSupport.supply(executor, () -> {
+            studentService.deactivateStudent(id);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package com.airtribe.learntrack.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs service calls on an executor for the async services.
+ * A call that throws completes its future exceptionally with the exception itself, checked
+ * or not, so join() and get() report it as the cause, as CompletableFuture.supplyAsync does.
+ */
+final class AsyncSupport {
+
+    /**
+     * A service call that may throw the service's checked exceptions.
+     * @param <T> the result type
+     */
+    @FunctionalInterface
+    interface Call<T> {
+        T call() throws Exception;
+    }
+
+    // Private constructor to prevent instantiation
+    private AsyncSupport() {
+    }
+
+    static <T> CompletableFuture<T> supply(Executor executor, Call<T> call) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    future.complete(call.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Waits for every future, without blocking a thread.
+     * @param futures the futures
+     * @return a future of their results, in the same order; it fails as soon as any of them fails
+     */
+    static <T> CompletableFuture<List<T>> all(List<CompletableFuture<T>> futures) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        futures.forEach(future -> future.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+            }
+        }));
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            List<T> values = new ArrayList<>(futures.size());
+            for (CompletableFuture<T> future : futures) {
+                values.add(future.join());
+            }
+            result.complete(values);
+        });
+        return result;
+    }
+}
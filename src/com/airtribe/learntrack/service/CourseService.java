@@ -2,9 +2,12 @@ package com.airtribe.learntrack.service;
 
 import com.airtribe.learntrack.entity.Course;
 import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.repository.ActiveCounts;
 import com.airtribe.learntrack.repository.CourseRepository;
 import com.airtribe.learntrack.util.IdGenerator;
+import com.airtribe.learntrack.util.Page;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service class for Course business logic.
@@ -25,8 +28,21 @@ public class CourseService {
      * @return the created course
      */
     public Course addCourse(String courseName, String description, int durationInWeeks) {
+        return addCourse(courseName, description, durationInWeeks, Course.UNLIMITED_CAPACITY);
+    }
+
+    /**
+     * Adds a new course with a seat limit.
+     * @param courseName name of the course
+     * @param description course description
+     * @param durationInWeeks duration in weeks
+     * @param capacity maximum number of seated students, or Course.UNLIMITED_CAPACITY
+     * @return the created course
+     */
+    public Course addCourse(String courseName, String description, int durationInWeeks, int capacity) {
+        checkCapacity(capacity);
         int id = IdGenerator.getNextCourseId();
-        Course course = new Course(id, courseName, description, durationInWeeks, true);
+        Course course = new Course(id, courseName, description, durationInWeeks, capacity, true);
         courseRepository.addCourse(course);
         return course;
     }
@@ -39,6 +55,34 @@ public class CourseService {
         return courseRepository.getAllCourses();
     }
 
+    /**
+     * Streams all courses without building a list.
+     * @return stream of courses
+     */
+    public Stream<Course> streamCourses() {
+        return courseRepository.streamCourses();
+    }
+
+    /**
+     * Retrieves one page of courses by position.
+     * @param offset position of the first course
+     * @param limit maximum number of courses
+     * @return the page
+     */
+    public Page<Course> getCoursesPage(int offset, int limit) {
+        return courseRepository.getCoursesPage(offset, limit);
+    }
+
+    /**
+     * Retrieves the courses that follow a given course (keyset paging).
+     * @param afterId ID of the last course already seen, or 0 for the first page
+     * @param limit maximum number of courses
+     * @return the page
+     */
+    public Page<Course> getCoursesAfter(int afterId, int limit) {
+        return courseRepository.getCoursesAfter(afterId, limit);
+    }
+
     /**
      * Retrieves all active courses.
      * @return list of active courses
@@ -61,6 +105,32 @@ public class CourseService {
         return course;
     }
 
+    /**
+     * Finds several courses in one repository read.
+     * @param ids the course IDs
+     * @return found[i] is the course with ID ids[i], or null if there is none
+     */
+    public Course[] findCoursesByIds(int[] ids) {
+        return courseRepository.findByIds(ids);
+    }
+
+    /**
+     * Counts courses and active courses, without scanning them.
+     * @return the counts
+     */
+    public ActiveCounts getCourseCounts() {
+        return courseRepository.getCounts();
+    }
+
+    /**
+     * Checks which of the given course IDs exist, in one repository read.
+     * @param ids the course IDs
+     * @return found[i] is true if ids[i] exists
+     */
+    public boolean[] coursesExist(int[] ids) {
+        return courseRepository.containsIds(ids);
+    }
+
     /**
      * Activates a course.
      * @param id the course ID
@@ -74,6 +144,22 @@ public class CourseService {
         courseRepository.activateCourse(id);
     }
 
+    /**
+     * Changes a course's seat limit. Students already seated keep their seats if the
+     * limit is lowered below their number.
+     * @param id the course ID
+     * @param capacity the new limit, or Course.UNLIMITED_CAPACITY
+     * @return the updated course
+     * @throws EntityNotFoundException if course not found
+     */
+    public Course setCourseCapacity(int id, int capacity) throws EntityNotFoundException {
+        checkCapacity(capacity);
+        if (!courseRepository.setCapacity(id, capacity)) {
+            throw new EntityNotFoundException("Course", id);
+        }
+        return courseRepository.findById(id);
+    }
+
     /**
      * Deactivates a course.
      * @param id the course ID
@@ -86,5 +172,11 @@ public class CourseService {
         }
         courseRepository.deactivateCourse(id);
     }
+
+    private static void checkCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+    }
 }
 
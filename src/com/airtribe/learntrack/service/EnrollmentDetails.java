@@ -0,0 +1,38 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.entity.Student;
+
+/**
+ * An enrollment together with its student and course, as a report line needs them.
+ */
+public class EnrollmentDetails {
+    private final Enrollment enrollment;
+    private final Student student;
+    private final Course course;
+
+    EnrollmentDetails(Enrollment enrollment, Student student, Course course) {
+        this.enrollment = enrollment;
+        this.student = student;
+        this.course = course;
+    }
+
+    public Enrollment getEnrollment() {
+        return enrollment;
+    }
+
+    public Student getStudent() {
+        return student;
+    }
+
+    public Course getCourse() {
+        return course;
+    }
+
+    @Override
+    public String toString() {
+        return "Enrollment " + enrollment.getId() + ": " + student.getDisplayName() + " in "
+                + course.getCourseName() + " (" + enrollment.getStatus() + ")";
+    }
+}
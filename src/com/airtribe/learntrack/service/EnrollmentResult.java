@@ -0,0 +1,62 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Enrollment;
+
+/**
+ * Outcome of one item in a batch enrollment: either the created enrollment
+ * or the reason the student could not be enrolled.
+ */
+public class EnrollmentResult {
+    private final int studentId;
+    private final int courseId;
+    private final Enrollment enrollment;
+    private final String error;
+
+    private EnrollmentResult(int studentId, int courseId, Enrollment enrollment, String error) {
+        this.studentId = studentId;
+        this.courseId = courseId;
+        this.enrollment = enrollment;
+        this.error = error;
+    }
+
+    static EnrollmentResult enrolled(Enrollment enrollment) {
+        return new EnrollmentResult(enrollment.getStudentId(), enrollment.getCourseId(), enrollment, null);
+    }
+
+    static EnrollmentResult rejected(int studentId, int courseId, String error) {
+        return new EnrollmentResult(studentId, courseId, null, error);
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    /**
+     * @return the created enrollment, or null if the item was rejected
+     */
+    public Enrollment getEnrollment() {
+        return enrollment;
+    }
+
+    /**
+     * @return why the item was rejected, or null if it succeeded
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return enrollment != null;
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? "Enrolled student " + studentId + " in course " + courseId + " (enrollment " + enrollment.getId() + ")"
+                : "Student " + studentId + ", course " + courseId + ": " + error;
+    }
+}
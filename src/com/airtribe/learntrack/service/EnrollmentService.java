@@ -1,16 +1,28 @@
 package com.airtribe.learntrack.service;
 
+import com.airtribe.learntrack.entity.Course;
 import com.airtribe.learntrack.entity.Enrollment;
 import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
 import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.repository.EnrollmentCounts;
 import com.airtribe.learntrack.repository.EnrollmentRepository;
 import com.airtribe.learntrack.util.IdGenerator;
+import com.airtribe.learntrack.util.Page;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service class for Enrollment business logic.
  * Handles operations like enrolling students, retrieving enrollments, and updating status.
+ * Enrolling in a full course puts the student on the course's waitlist; cancelling a
+ * seated enrollment or raising the capacity promotes the longest-waiting students.
+ * A student can hold only one open (ACTIVE or WAITLISTED) enrollment per course; a
+ * completed or cancelled course can be enrolled in again.
  */
 public class EnrollmentService {
     private EnrollmentRepository enrollmentRepository;
@@ -29,20 +41,126 @@ public class EnrollmentService {
      * Enrolls a student in a course.
      * @param studentId the student ID
      * @param courseId the course ID
-     * @return the created enrollment
+     * @return the created enrollment, ACTIVE or, if the course is full, WAITLISTED
      * @throws EntityNotFoundException if student or course not found
+     * @throws DuplicateEntityException if the student already has an open enrollment in the course
      */
-    public Enrollment enrollStudent(int studentId, int courseId) throws EntityNotFoundException {
+    public Enrollment enrollStudent(int studentId, int courseId)
+            throws EntityNotFoundException, DuplicateEntityException {
         // Validate that student exists
         studentService.findStudentById(studentId);
         
         // Validate that course exists
-        courseService.findCourseById(courseId);
-        
-        int id = IdGenerator.getNextEnrollmentId();
-        Enrollment enrollment = new Enrollment(id, studentId, courseId, LocalDate.now(), EnrollmentStatus.ACTIVE);
-        enrollmentRepository.addEnrollment(enrollment);
-        return enrollment;
+        Course course = courseService.findCourseById(courseId);
+
+        // A resubmitted enrollment is turned away here, by a read that takes no lock and no ID;
+        // the add below checks again, atomically, for one submitted at the same time
+        Enrollment open = enrollmentRepository.findOpenEnrollment(studentId, courseId);
+        if (open == null) {
+            int id = IdGenerator.getNextEnrollmentId();
+            Enrollment enrollment = new Enrollment(id, studentId, courseId, LocalDate.now(), EnrollmentStatus.ACTIVE);
+            open = enrollmentRepository.addEnrollment(enrollment, course.getCapacity());
+            if (open == enrollment) {
+                return enrollment;
+            }
+        }
+        throw new DuplicateEntityException(alreadyEnrolled(open));
+    }
+
+    /**
+     * Finds a student's open (ACTIVE or WAITLISTED) enrollment in a course, in constant time.
+     * @param studentId the student ID
+     * @param courseId the course ID
+     * @return the enrollment, or null if the student has no open enrollment in the course
+     */
+    public Enrollment findOpenEnrollment(int studentId, int courseId) {
+        return enrollmentRepository.findOpenEnrollment(studentId, courseId);
+    }
+
+    /**
+     * Enrolls many students in one course. The course is looked up once, the
+     * students are checked in one repository read, and all accepted enrollments
+     * get their IDs from one reserved range and are added as one batch.
+     * @param courseId the course ID
+     * @param studentIds the students to enroll
+     * @return one result per student, in the same order
+     * @throws EntityNotFoundException if the course is not found
+     */
+    public List<EnrollmentResult> enrollStudents(int courseId, int[] studentIds) throws EntityNotFoundException {
+        Course course = courseService.findCourseById(courseId);
+        int[] courseIds = new int[studentIds.length];
+        Arrays.fill(courseIds, courseId);
+        Course[] courses = new Course[studentIds.length];
+        Arrays.fill(courses, course);
+        return enrollAll(studentIds, courseIds, studentService.studentsExist(studentIds), courses);
+    }
+
+    /**
+     * Enrolls studentIds[i] in courseIds[i] for every i, with the same batching as
+     * {@link #enrollStudents(int, int[])}. Pairs naming an unknown student or
+     * course, or a student already enrolled in the course, are rejected; the rest
+     * are still enrolled.
+     * @param studentIds the student IDs
+     * @param courseIds the course IDs, one per student ID
+     * @return one result per pair, in the same order
+     */
+    public List<EnrollmentResult> enrollAll(int[] studentIds, int[] courseIds) {
+        if (studentIds.length != courseIds.length) {
+            throw new IllegalArgumentException("Got " + studentIds.length + " student IDs but "
+                    + courseIds.length + " course IDs");
+        }
+        return enrollAll(studentIds, courseIds, studentService.studentsExist(studentIds),
+                courseService.findCoursesByIds(courseIds));
+    }
+
+    // courses[i] is the course of courseIds[i], or null if it does not exist
+    private List<EnrollmentResult> enrollAll(int[] studentIds, int[] courseIds,
+                                             boolean[] studentsFound, Course[] courses) {
+        int accepted = 0;
+        for (int i = 0; i < studentIds.length; i++) {
+            if (studentsFound[i] && courses[i] != null) {
+                accepted++;
+            }
+        }
+        int nextId = accepted == 0 ? 0 : IdGenerator.reserveEnrollmentIds(accepted);
+        LocalDate today = LocalDate.now();
+        List<Enrollment> batch = new ArrayList<>(accepted);
+        int[] capacities = new int[accepted];
+        List<EnrollmentResult> results = new ArrayList<>(studentIds.length);
+        for (int i = 0; i < studentIds.length; i++) {
+            if (!studentsFound[i]) {
+                results.add(EnrollmentResult.rejected(studentIds[i], courseIds[i],
+                        "Student with ID " + studentIds[i] + " not found."));
+            } else if (courses[i] == null) {
+                results.add(EnrollmentResult.rejected(studentIds[i], courseIds[i],
+                        "Course with ID " + courseIds[i] + " not found."));
+            } else {
+                Enrollment enrollment = new Enrollment(nextId++, studentIds[i], courseIds[i], today,
+                        EnrollmentStatus.ACTIVE);
+                capacities[batch.size()] = courses[i].getCapacity();
+                batch.add(enrollment);
+                results.add(EnrollmentResult.enrolled(enrollment));
+            }
+        }
+        if (!batch.isEmpty()) {
+            Enrollment[] added = enrollmentRepository.addEnrollments(batch, capacities);
+            int next = 0;
+            for (int i = 0; i < results.size(); i++) {
+                if (results.get(i).isSuccess()) {
+                    Enrollment open = added[next];
+                    if (open != batch.get(next)) {
+                        results.set(i, EnrollmentResult.rejected(studentIds[i], courseIds[i], alreadyEnrolled(open)));
+                    }
+                    next++;
+                }
+            }
+        }
+        return results;
+    }
+
+    private static String alreadyEnrolled(Enrollment open) {
+        return "Student " + open.getStudentId() + " is already enrolled in course " + open.getCourseId()
+                + " (enrollment " + open.getId() + ", " + open.getStatus() + ").";
     }
 
     /**
@@ -58,31 +176,125 @@ public class EnrollmentService {
     }
 
     /**
-     * Marks an enrollment as completed.
-     * @param enrollmentId the enrollment ID
+     * Retrieves all enrollments for a course.
+     * @param courseId the course ID
+     * @return list of enrollments for the course
+     * @throws EntityNotFoundException if course not found
+     */
+    public List<Enrollment> getEnrollmentsByCourse(int courseId) throws EntityNotFoundException {
+        // Validate that course exists
+        courseService.findCourseById(courseId);
+        return enrollmentRepository.findByCourseId(courseId);
+    }
+
+    /**
+     * Retrieves a course's waitlist.
+     * @param courseId the course ID
+     * @return the course's WAITLISTED enrollments, next to be promoted first
+     * @throws EntityNotFoundException if course not found
+     */
+    public List<Enrollment> getWaitlist(int courseId) throws EntityNotFoundException {
+        // Validate that course exists
+        courseService.findCourseById(courseId);
+        return enrollmentRepository.findWaitlistByCourseId(courseId);
+    }
+
+    /**
+     * Counts all enrollments by status, without scanning them.
+     * @return counts per status
+     */
+    public EnrollmentCounts getEnrollmentCounts() {
+        return enrollmentRepository.getCounts();
+    }
+
+    /**
+     * Counts enrollments made within a date range, optionally only those with a given status.
+     * There is no index by date, so this scans every enrollment; the columnar store makes
+     * the scan several times faster than the object store.
+     * @param from first day of the range
+     * @param to last day of the range, inclusive
+     * @param status the status to count, or null for any
+     * @return the count
+     * @throws InvalidInputException if the range ends before it starts
+     */
+    public int countEnrollmentsBetween(LocalDate from, LocalDate to, EnrollmentStatus status)
+            throws InvalidInputException {
+        if (to.isBefore(from)) {
+            throw new InvalidInputException("Date range ends (" + to + ") before it starts (" + from + ")");
+        }
+        return enrollmentRepository.countEnrolledBetween(from, to, status);
+    }
+
+    /**
+     * Counts a course's enrollments by status, without scanning them.
+     * @param courseId the course ID
+     * @return counts per status
+     * @throws EntityNotFoundException if course not found
+     */
+    public EnrollmentCounts getEnrollmentCountsByCourse(int courseId) throws EntityNotFoundException {
+        // Validate that course exists
+        courseService.findCourseById(courseId);
+        return enrollmentRepository.getCountsByCourse(courseId);
+    }
+
+    /**
+     * Finds an enrollment by ID.
+     * @param id the enrollment ID
+     * @return the enrollment if found
      * @throws EntityNotFoundException if enrollment not found
      */
-    public void markEnrollmentCompleted(int enrollmentId) throws EntityNotFoundException {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId);
+    public Enrollment findEnrollmentById(int id) throws EntityNotFoundException {
+        Enrollment enrollment = enrollmentRepository.findById(id);
         if (enrollment == null) {
-            throw new EntityNotFoundException("Enrollment", enrollmentId);
+            throw new EntityNotFoundException("Enrollment", id);
         }
-        enrollment.setStatus(EnrollmentStatus.COMPLETED);
-        enrollmentRepository.updateEnrollment(enrollment);
+        return enrollment;
     }
 
     /**
-     * Marks an enrollment as cancelled.
+     * Marks an active enrollment as completed. Only ACTIVE enrollments hold a seat that
+     * completing keeps: a waitlisted one never had a seat, and a cancelled one gave its
+     * seat up, possibly to someone promoted from the waitlist.
      * @param enrollmentId the enrollment ID
      * @throws EntityNotFoundException if enrollment not found
+     * @throws InvalidInputException if the enrollment is not active
      */
-    public void markEnrollmentCancelled(int enrollmentId) throws EntityNotFoundException {
-        Enrollment enrollment = enrollmentRepository.findById(enrollmentId);
-        if (enrollment == null) {
-            throw new EntityNotFoundException("Enrollment", enrollmentId);
+    public void markEnrollmentCompleted(int enrollmentId) throws EntityNotFoundException, InvalidInputException {
+        Enrollment enrollment = findEnrollmentById(enrollmentId);
+        // The repository re-checks the status under its lock, in case it changed since
+        if (enrollment.getStatus() != EnrollmentStatus.ACTIVE || !enrollmentRepository.updateStatus(
+                enrollmentId, EnrollmentStatus.ACTIVE, EnrollmentStatus.COMPLETED)) {
+            throw new InvalidInputException("Enrollment " + enrollmentId + " is "
+                    + findEnrollmentById(enrollmentId).getStatus().name().toLowerCase() + " and cannot be completed.");
         }
-        enrollment.setStatus(EnrollmentStatus.CANCELLED);
-        enrollmentRepository.updateEnrollment(enrollment);
+    }
+
+    /**
+     * Marks an enrollment as cancelled. If that frees a seat, the longest-waiting
+     * enrollment for the course takes it.
+     * @param enrollmentId the enrollment ID
+     * @return the enrollment promoted from the waitlist, or null if none was
+     * @throws EntityNotFoundException if enrollment not found
+     */
+    public Enrollment markEnrollmentCancelled(int enrollmentId) throws EntityNotFoundException {
+        Enrollment enrollment = findEnrollmentById(enrollmentId);
+        enrollmentRepository.updateStatus(enrollmentId, EnrollmentStatus.CANCELLED);
+        Course course = courseService.findCourseById(enrollment.getCourseId());
+        List<Enrollment> promoted = enrollmentRepository.promoteWaitlisted(course.getId(), course.getCapacity());
+        return promoted.isEmpty() ? null : promoted.get(0);
+    }
+
+    /**
+     * Changes a course's seat limit and, if it was raised, promotes waitlisted
+     * enrollments into the new seats.
+     * @param courseId the course ID
+     * @param capacity the new limit, or Course.UNLIMITED_CAPACITY
+     * @return the promoted enrollments, in promotion order
+     * @throws EntityNotFoundException if course not found
+     */
+    public List<Enrollment> setCourseCapacity(int courseId, int capacity) throws EntityNotFoundException {
+        courseService.setCourseCapacity(courseId, capacity);
+        return enrollmentRepository.promoteWaitlisted(courseId, capacity);
     }
 
     /**
@@ -92,5 +304,32 @@ public class EnrollmentService {
     public List<Enrollment> getAllEnrollments() {
         return enrollmentRepository.getAllEnrollments();
     }
-}
 
+    /**
+     * Streams all enrollments without building a list.
+     * @return stream of enrollments
+     */
+    public Stream<Enrollment> streamEnrollments() {
+        return enrollmentRepository.streamEnrollments();
+    }
+
+    /**
+     * Retrieves one page of enrollments by position.
+     * @param offset position of the first enrollment
+     * @param limit maximum number of enrollments
+     * @return the page
+     */
+    public Page<Enrollment> getEnrollmentsPage(int offset, int limit) {
+        return enrollmentRepository.getEnrollmentsPage(offset, limit);
+    }
+
+    /**
+     * Retrieves the enrollments that follow a given enrollment (keyset paging).
+     * @param afterId ID of the last enrollment already seen, or 0 for the first page
+     * @param limit maximum number of enrollments
+     * @return the page
+     */
+    public Page<Enrollment> getEnrollmentsAfter(int afterId, int limit) {
+        return enrollmentRepository.getEnrollmentsAfter(afterId, limit);
+    }
+}
@@ -0,0 +1,104 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.metrics.OperationStats;
+import com.airtribe.learntrack.metrics.ServiceMetrics;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.util.Page;
+import java.util.List;
+
+/**
+ * CourseService that records the latency and errors of each call in a
+ * {@link ServiceMetrics} registry, under "CourseService.&lt;method&gt;".
+ * Methods that only return a view (getAllCourses, streamCourses) are not timed.
+ */
+public class InstrumentedCourseService extends CourseService {
+    private final OperationStats addCourse;
+    private final OperationStats getCoursesPage;
+    private final OperationStats getCoursesAfter;
+    private final OperationStats getActiveCourses;
+    private final OperationStats findCourseById;
+    private final OperationStats findCoursesByIds;
+    private final OperationStats getCourseCounts;
+    private final OperationStats coursesExist;
+    private final OperationStats setCourseCapacity;
+    private final OperationStats activateCourse;
+    private final OperationStats deactivateCourse;
+
+    public InstrumentedCourseService(CourseRepository courseRepository, ServiceMetrics metrics) {
+        super(courseRepository);
+        addCourse = metrics.operation("CourseService.addCourse");
+        getCoursesPage = metrics.operation("CourseService.getCoursesPage");
+        getCoursesAfter = metrics.operation("CourseService.getCoursesAfter");
+        getActiveCourses = metrics.operation("CourseService.getActiveCourses");
+        findCourseById = metrics.operation("CourseService.findCourseById");
+        findCoursesByIds = metrics.operation("CourseService.findCoursesByIds");
+        getCourseCounts = metrics.operation("CourseService.getCourseCounts");
+        coursesExist = metrics.operation("CourseService.coursesExist");
+        setCourseCapacity = metrics.operation("CourseService.setCourseCapacity");
+        activateCourse = metrics.operation("CourseService.activateCourse");
+        deactivateCourse = metrics.operation("CourseService.deactivateCourse");
+    }
+
+    @Override
+    public Course addCourse(String courseName, String description, int durationInWeeks) {
+        return addCourse.time(() -> super.addCourse(courseName, description, durationInWeeks));
+    }
+
+    @Override
+    public Course addCourse(String courseName, String description, int durationInWeeks, int capacity) {
+        return addCourse.time(() -> super.addCourse(courseName, description, durationInWeeks, capacity));
+    }
+
+    @Override
+    public Page<Course> getCoursesPage(int offset, int limit) {
+        return getCoursesPage.time(() -> super.getCoursesPage(offset, limit));
+    }
+
+    @Override
+    public Page<Course> getCoursesAfter(int afterId, int limit) {
+        return getCoursesAfter.time(() -> super.getCoursesAfter(afterId, limit));
+    }
+
+    @Override
+    public List<Course> getActiveCourses() {
+        return getActiveCourses.time(super::getActiveCourses);
+    }
+
+    @Override
+    public Course findCourseById(int id) throws EntityNotFoundException {
+        return findCourseById.time(() -> super.findCourseById(id));
+    }
+
+    @Override
+    public Course[] findCoursesByIds(int[] ids) {
+        return findCoursesByIds.time(() -> super.findCoursesByIds(ids));
+    }
+
+    @Override
+    public ActiveCounts getCourseCounts() {
+        return getCourseCounts.time(super::getCourseCounts);
+    }
+
+    @Override
+    public boolean[] coursesExist(int[] ids) {
+        return coursesExist.time(() -> super.coursesExist(ids));
+    }
+
+    @Override
+    public Course setCourseCapacity(int id, int capacity) throws EntityNotFoundException {
+        return setCourseCapacity.time(() -> super.setCourseCapacity(id, capacity));
+    }
+
+    @Override
+    public void activateCourse(int id) throws EntityNotFoundException {
+        activateCourse.run(() -> super.activateCourse(id));
+    }
+
+    @Override
+    public void deactivateCourse(int id) throws EntityNotFoundException {
+        deactivateCourse.run(() -> super.deactivateCourse(id));
+    }
+}
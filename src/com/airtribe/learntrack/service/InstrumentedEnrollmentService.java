@@ -0,0 +1,160 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.metrics.OperationStats;
+import com.airtribe.learntrack.metrics.ServiceMetrics;
+import com.airtribe.learntrack.repository.EnrollmentCounts;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.util.Page;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * EnrollmentService that records the latency and errors of each call in a
+ * {@link ServiceMetrics} registry, under "EnrollmentService.&lt;method&gt;".
+ * Methods that only return a view (getAllEnrollments, streamEnrollments) are not timed.
+ * Lookups this service makes through instrumented student and course services are
+ * recorded there as well.
+ */
+public class InstrumentedEnrollmentService extends EnrollmentService {
+    private final OperationStats enrollStudent;
+    private final OperationStats enrollStudents;
+    private final OperationStats enrollAll;
+    private final OperationStats findOpenEnrollment;
+    private final OperationStats getEnrollmentsByStudent;
+    private final OperationStats getEnrollmentsByCourse;
+    private final OperationStats getWaitlist;
+    private final OperationStats getEnrollmentCounts;
+    private final OperationStats getEnrollmentCountsByCourse;
+    private final OperationStats countEnrollmentsBetween;
+    private final OperationStats findEnrollmentById;
+    private final OperationStats markEnrollmentCompleted;
+    private final OperationStats markEnrollmentCancelled;
+    private final OperationStats setCourseCapacity;
+    private final OperationStats getEnrollmentsPage;
+    private final OperationStats getEnrollmentsAfter;
+
+    public InstrumentedEnrollmentService(EnrollmentRepository enrollmentRepository, StudentService studentService,
+                                         CourseService courseService, ServiceMetrics metrics) {
+        super(enrollmentRepository, studentService, courseService);
+        enrollStudent = metrics.operation("EnrollmentService.enrollStudent");
+        enrollStudents = metrics.operation("EnrollmentService.enrollStudents");
+        enrollAll = metrics.operation("EnrollmentService.enrollAll");
+        findOpenEnrollment = metrics.operation("EnrollmentService.findOpenEnrollment");
+        getEnrollmentsByStudent = metrics.operation("EnrollmentService.getEnrollmentsByStudent");
+        getEnrollmentsByCourse = metrics.operation("EnrollmentService.getEnrollmentsByCourse");
+        getWaitlist = metrics.operation("EnrollmentService.getWaitlist");
+        getEnrollmentCounts = metrics.operation("EnrollmentService.getEnrollmentCounts");
+        getEnrollmentCountsByCourse = metrics.operation("EnrollmentService.getEnrollmentCountsByCourse");
+        countEnrollmentsBetween = metrics.operation("EnrollmentService.countEnrollmentsBetween");
+        findEnrollmentById = metrics.operation("EnrollmentService.findEnrollmentById");
+        markEnrollmentCompleted = metrics.operation("EnrollmentService.markEnrollmentCompleted");
+        markEnrollmentCancelled = metrics.operation("EnrollmentService.markEnrollmentCancelled");
+        setCourseCapacity = metrics.operation("EnrollmentService.setCourseCapacity");
+        getEnrollmentsPage = metrics.operation("EnrollmentService.getEnrollmentsPage");
+        getEnrollmentsAfter = metrics.operation("EnrollmentService.getEnrollmentsAfter");
+    }
+
+    @Override
+    public Enrollment enrollStudent(int studentId, int courseId)
+            throws EntityNotFoundException, DuplicateEntityException {
+        // Two checked exceptions, which time(...) cannot carry, so time the call directly
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Enrollment enrollment = super.enrollStudent(studentId, courseId);
+            failed = false;
+            return enrollment;
+        } finally {
+            enrollStudent.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public Enrollment findOpenEnrollment(int studentId, int courseId) {
+        return findOpenEnrollment.time(() -> super.findOpenEnrollment(studentId, courseId));
+    }
+
+    @Override
+    public List<EnrollmentResult> enrollStudents(int courseId, int[] studentIds) throws EntityNotFoundException {
+        return enrollStudents.time(() -> super.enrollStudents(courseId, studentIds));
+    }
+
+    @Override
+    public List<EnrollmentResult> enrollAll(int[] studentIds, int[] courseIds) {
+        return enrollAll.time(() -> super.enrollAll(studentIds, courseIds));
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsByStudent(int studentId) throws EntityNotFoundException {
+        return getEnrollmentsByStudent.time(() -> super.getEnrollmentsByStudent(studentId));
+    }
+
+    @Override
+    public List<Enrollment> getEnrollmentsByCourse(int courseId) throws EntityNotFoundException {
+        return getEnrollmentsByCourse.time(() -> super.getEnrollmentsByCourse(courseId));
+    }
+
+    @Override
+    public List<Enrollment> getWaitlist(int courseId) throws EntityNotFoundException {
+        return getWaitlist.time(() -> super.getWaitlist(courseId));
+    }
+
+    @Override
+    public EnrollmentCounts getEnrollmentCounts() {
+        return getEnrollmentCounts.time(super::getEnrollmentCounts);
+    }
+
+    @Override
+    public EnrollmentCounts getEnrollmentCountsByCourse(int courseId) throws EntityNotFoundException {
+        return getEnrollmentCountsByCourse.time(() -> super.getEnrollmentCountsByCourse(courseId));
+    }
+
+    @Override
+    public int countEnrollmentsBetween(LocalDate from, LocalDate to, EnrollmentStatus status)
+            throws InvalidInputException {
+        return countEnrollmentsBetween.time(() -> super.countEnrollmentsBetween(from, to, status));
+    }
+
+    @Override
+    public Enrollment findEnrollmentById(int id) throws EntityNotFoundException {
+        return findEnrollmentById.time(() -> super.findEnrollmentById(id));
+    }
+
+    @Override
+    public void markEnrollmentCompleted(int enrollmentId) throws EntityNotFoundException, InvalidInputException {
+        // Two checked exceptions, which run(...) cannot carry, so time the call directly
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            super.markEnrollmentCompleted(enrollmentId);
+            failed = false;
+        } finally {
+            markEnrollmentCompleted.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public Enrollment markEnrollmentCancelled(int enrollmentId) throws EntityNotFoundException {
+        return markEnrollmentCancelled.time(() -> super.markEnrollmentCancelled(enrollmentId));
+    }
+
+    @Override
+    public List<Enrollment> setCourseCapacity(int courseId, int capacity) throws EntityNotFoundException {
+        return setCourseCapacity.time(() -> super.setCourseCapacity(courseId, capacity));
+    }
+
+    @Override
+    public Page<Enrollment> getEnrollmentsPage(int offset, int limit) {
+        return getEnrollmentsPage.time(() -> super.getEnrollmentsPage(offset, limit));
+    }
+
+    @Override
+    public Page<Enrollment> getEnrollmentsAfter(int afterId, int limit) {
+        return getEnrollmentsAfter.time(() -> super.getEnrollmentsAfter(afterId, limit));
+    }
+}
@@ -0,0 +1,112 @@
+package com.airtribe.learntrack.service;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
+import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.metrics.OperationStats;
+import com.airtribe.learntrack.metrics.ServiceMetrics;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.util.Page;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StudentService that records the latency and errors of each call in a
+ * {@link ServiceMetrics} registry, under "StudentService.&lt;method&gt;".
+ * Methods that only return a view (getAllStudents, streamStudents) are not timed.
+ */
+public class InstrumentedStudentService extends StudentService {
+    private final OperationStats addStudent;
+    private final OperationStats getStudentsPage;
+    private final OperationStats getStudentsAfter;
+    private final OperationStats getActiveStudents;
+    private final OperationStats findStudentById;
+    private final OperationStats findStudentByEmail;
+    private final OperationStats searchStudents;
+    private final OperationStats getStudentCounts;
+    private final OperationStats getStudentCountsByBatch;
+    private final OperationStats studentsExist;
+    private final OperationStats deactivateStudent;
+
+    public InstrumentedStudentService(StudentRepository studentRepository, ServiceMetrics metrics) {
+        super(studentRepository);
+        addStudent = metrics.operation("StudentService.addStudent");
+        getStudentsPage = metrics.operation("StudentService.getStudentsPage");
+        getStudentsAfter = metrics.operation("StudentService.getStudentsAfter");
+        getActiveStudents = metrics.operation("StudentService.getActiveStudents");
+        findStudentById = metrics.operation("StudentService.findStudentById");
+        findStudentByEmail = metrics.operation("StudentService.findStudentByEmail");
+        searchStudents = metrics.operation("StudentService.searchStudents");
+        getStudentCounts = metrics.operation("StudentService.getStudentCounts");
+        getStudentCountsByBatch = metrics.operation("StudentService.getStudentCountsByBatch");
+        studentsExist = metrics.operation("StudentService.studentsExist");
+        deactivateStudent = metrics.operation("StudentService.deactivateStudent");
+    }
+
+    @Override
+    public Student addStudent(String firstName, String lastName, String email, String batch)
+            throws DuplicateEntityException {
+        return addStudent.time(() -> super.addStudent(firstName, lastName, email, batch));
+    }
+
+    @Override
+    public Student addStudent(String firstName, String lastName, String batch) {
+        return addStudent.time(() -> super.addStudent(firstName, lastName, batch));
+    }
+
+    @Override
+    public Page<Student> getStudentsPage(int offset, int limit) {
+        return getStudentsPage.time(() -> super.getStudentsPage(offset, limit));
+    }
+
+    @Override
+    public Page<Student> getStudentsAfter(int afterId, int limit) {
+        return getStudentsAfter.time(() -> super.getStudentsAfter(afterId, limit));
+    }
+
+    @Override
+    public List<Student> getActiveStudents() {
+        return getActiveStudents.time(super::getActiveStudents);
+    }
+
+    @Override
+    public Student findStudentById(int id) throws EntityNotFoundException {
+        return findStudentById.time(() -> super.findStudentById(id));
+    }
+
+    @Override
+    public Student findStudentByEmail(String email) throws EntityNotFoundException {
+        return findStudentByEmail.time(() -> super.findStudentByEmail(email));
+    }
+
+    @Override
+    public List<Student> searchStudents(String query, int limit) {
+        return searchStudents.time(() -> super.searchStudents(query, limit));
+    }
+
+    @Override
+    public ActiveCounts getStudentCounts() {
+        return getStudentCounts.time(super::getStudentCounts);
+    }
+
+    @Override
+    public ActiveCounts getStudentCountsByBatch(String batch) {
+        return getStudentCountsByBatch.time(() -> super.getStudentCountsByBatch(batch));
+    }
+
+    @Override
+    public Map<String, ActiveCounts> getStudentCountsByBatch() {
+        return getStudentCountsByBatch.time(() -> super.getStudentCountsByBatch());
+    }
+
+    @Override
+    public boolean[] studentsExist(int[] ids) {
+        return studentsExist.time(() -> super.studentsExist(ids));
+    }
+
+    @Override
+    public void deactivateStudent(int id) throws EntityNotFoundException {
+        deactivateStudent.run(() -> super.deactivateStudent(id));
+    }
+}
@@ -1,10 +1,16 @@
 package com.airtribe.learntrack.service;
 
 import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.exception.DuplicateEntityException;
 import com.airtribe.learntrack.exception.EntityNotFoundException;
+import com.airtribe.learntrack.repository.ActiveCounts;
+import com.airtribe.learntrack.repository.DictionaryStats;
 import com.airtribe.learntrack.repository.StudentRepository;
 import com.airtribe.learntrack.util.IdGenerator;
+import com.airtribe.learntrack.util.Page;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Service class for Student business logic.
@@ -21,14 +27,18 @@ public class StudentService {
      * Adds a new student to the system.
      * @param firstName student's first name
      * @param lastName student's last name
-     * @param email student's email
+     * @param email student's email; surrounding whitespace is dropped
      * @param batch student's batch
      * @return the created student
+     * @throws DuplicateEntityException if another student already has the email
      */
-    public Student addStudent(String firstName, String lastName, String email, String batch) {
+    public Student addStudent(String firstName, String lastName, String email, String batch)
+            throws DuplicateEntityException {
         int id = IdGenerator.getNextStudentId();
-        Student student = new Student(id, firstName, lastName, email, batch, true);
-        studentRepository.addStudent(student);
+        Student student = new Student(id, firstName, lastName, email.trim(), batch, true);
+        if (!studentRepository.addStudent(student)) {
+            throw new DuplicateEntityException("Student", "email", student.getEmail());
+        }
         return student;
     }
 
@@ -54,6 +64,34 @@ public class StudentService {
         return studentRepository.getAllStudents();
     }
 
+    /**
+     * Streams all students without building a list.
+     * @return stream of students
+     */
+    public Stream<Student> streamStudents() {
+        return studentRepository.streamStudents();
+    }
+
+    /**
+     * Retrieves one page of students by position.
+     * @param offset position of the first student
+     * @param limit maximum number of students
+     * @return the page
+     */
+    public Page<Student> getStudentsPage(int offset, int limit) {
+        return studentRepository.getStudentsPage(offset, limit);
+    }
+
+    /**
+     * Retrieves the students that follow a given student (keyset paging).
+     * @param afterId ID of the last student already seen, or 0 for the first page
+     * @param limit maximum number of students
+     * @return the page
+     */
+    public Page<Student> getStudentsAfter(int afterId, int limit) {
+        return studentRepository.getStudentsAfter(afterId, limit);
+    }
+
     /**
      * Retrieves all active students.
      * @return list of active students
@@ -76,6 +114,72 @@ public class StudentService {
         return student;
     }
 
+    /**
+     * Finds the student registered with an email, ignoring case.
+     * @param email the email
+     * @return the student
+     * @throws EntityNotFoundException if no student has the email
+     */
+    public Student findStudentByEmail(String email) throws EntityNotFoundException {
+        Student student = studentRepository.findByEmail(email);
+        if (student == null) {
+            throw new EntityNotFoundException("Student with email " + email + " not found.");
+        }
+        return student;
+    }
+
+    /**
+     * Searches students by the start of their first name, last name or email.
+     * @param query the prefix to look for, ignoring case
+     * @param limit maximum number of students returned
+     * @return matching students, best match first
+     */
+    public List<Student> searchStudents(String query, int limit) {
+        return studentRepository.searchStudents(query, limit);
+    }
+
+    /**
+     * Counts students and active students, without scanning them.
+     * @return the counts
+     */
+    public ActiveCounts getStudentCounts() {
+        return studentRepository.getCounts();
+    }
+
+    /**
+     * Counts the students in one batch, without scanning them.
+     * @param batch the batch name
+     * @return the counts (all zero for an unknown batch)
+     */
+    public ActiveCounts getStudentCountsByBatch(String batch) {
+        return studentRepository.getCountsByBatch(batch);
+    }
+
+    /**
+     * Counts the students in every batch.
+     * @return batch name to counts, sorted by batch name
+     */
+    public Map<String, ActiveCounts> getStudentCountsByBatch() {
+        return studentRepository.getCountsByBatch();
+    }
+
+    /**
+     * Returns the size of the shared batch name dictionary.
+     * @return distinct batch names in use, references to them and the heap saved
+     */
+    public DictionaryStats getBatchNameStats() {
+        return studentRepository.getBatchNameStats();
+    }
+
+    /**
+     * Checks which of the given student IDs exist, in one repository read.
+     * @param ids the student IDs
+     * @return found[i] is true if ids[i] exists
+     */
+    public boolean[] studentsExist(int[] ids) {
+        return studentRepository.containsIds(ids);
+    }
+
     /**
      * Deactivates a student.
      * @param id the student ID
@@ -1,14 +1,38 @@
 package com.airtribe.learntrack.util;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Utility class for generating unique IDs.
  * Demonstrates static members and methods.
+ * Each sequence hands out IDs from one shared atomic counter, without locking, so
+ * IDs stay dense however many threads ask, including short-lived virtual threads.
+ * When a persistent store is configured, the highest ID that may have been handed
+ * out is written to disk before it is used, so IDs are never reissued after a restart.
  */
 public class IdGenerator {
+    // IDs reserved ahead on every high-water mark write, so the file is rarely touched
+    private static final int RESERVE_SIZE = 4096;
+
     // Static fields to maintain counters across all instances
-    private static int studentIdCounter = 1000;
-    private static int courseIdCounter = 2000;
-    private static int enrollmentIdCounter = 3000;
+    private static final Sequence studentIds = new Sequence("student", 1000);
+    private static final Sequence courseIds = new Sequence("course", 2000);
+    private static final Sequence enrollmentIds = new Sequence("enrollment", 3000);
+
+    // File holding the high-water marks, or null when IDs are not persisted
+    private static Path highWaterFile;
 
     // Private constructor to prevent instantiation (utility class pattern)
     private IdGenerator() {
@@ -19,7 +43,7 @@ public class IdGenerator {
      * @return next student ID
      */
     public static int getNextStudentId() {
-        return ++studentIdCounter;
+        return studentIds.next();
     }
 
     /**
@@ -27,7 +51,7 @@ public class IdGenerator {
      * @return next course ID
      */
     public static int getNextCourseId() {
-        return ++courseIdCounter;
+        return courseIds.next();
     }
 
     /**
@@ -35,16 +59,147 @@ public class IdGenerator {
      * @return next enrollment ID
      */
     public static int getNextEnrollmentId() {
-        return ++enrollmentIdCounter;
+        return enrollmentIds.next();
+    }
+
+    /**
+     * Reserves a contiguous range of enrollment IDs in one step, for batch inserts.
+     * @param count number of IDs to reserve (at least 1)
+     * @return the first ID of the range; the range ends at first + count - 1
+     */
+    public static int reserveEnrollmentIds(int count) {
+        return enrollmentIds.reserve(count);
+    }
+
+    /**
+     * Persists high-water marks to the given file and continues numbering after
+     * any marks already stored there.
+     * @param file the high-water mark file (created if missing)
+     * @throws IOException if the file cannot be read or written
+     */
+    public static synchronized void usePersistentStore(Path file) throws IOException {
+        Properties marks = new Properties();
+        if (Files.exists(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                marks.load(reader);
+            }
+        } else if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        highWaterFile = file;
+        for (Sequence sequence : allSequences()) {
+            String mark = marks.getProperty(sequence.name);
+            sequence.restartAfter(mark == null ? 0 : Integer.parseInt(mark.trim()));
+        }
+    }
+
+    /**
+     * Makes sure future IDs are greater than IDs already in use, e.g. after
+     * records were restored from disk.
+     * @param studentId highest student ID in use
+     * @param courseId highest course ID in use
+     * @param enrollmentId highest enrollment ID in use
+     */
+    public static synchronized void advancePast(int studentId, int courseId, int enrollmentId) {
+        studentIds.restartAfter(studentId);
+        courseIds.restartAfter(courseId);
+        enrollmentIds.restartAfter(enrollmentId);
     }
 
     /**
      * Resets all counters (useful for testing).
      */
-    public static void resetCounters() {
-        studentIdCounter = 1000;
-        courseIdCounter = 2000;
-        enrollmentIdCounter = 3000;
+    public static synchronized void resetCounters() {
+        for (Sequence sequence : allSequences()) {
+            sequence.reset();
+        }
     }
-}
 
+    private static Sequence[] allSequences() {
+        return new Sequence[] {studentIds, courseIds, enrollmentIds};
+    }
+
+    // Writes every sequence's mark; fsync + rename so a crash never leaves a partial file
+    private static void writeHighWaterMarks() throws IOException {
+        Properties marks = new Properties();
+        for (Sequence sequence : allSequences()) {
+            // Never write less than what was already claimed or stored for this sequence
+            int mark = Math.max(sequence.persistedMark, sequence.claimed.get());
+            marks.setProperty(sequence.name, Integer.toString(mark));
+        }
+        StringWriter text = new StringWriter();
+        marks.store(text, "LearnTrack ID high-water marks");
+        Path temp = highWaterFile.resolveSibling(highWaterFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temp, highWaterFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * One ID sequence: a shared counter of claimed IDs.
+     */
+    private static final class Sequence {
+        private final String name;
+        private final int initialValue;
+        private final AtomicInteger claimed;
+        // Highest ID covered by the high-water file; guarded by IdGenerator.class
+        private volatile int persistedMark;
+
+        Sequence(String name, int initialValue) {
+            this.name = name;
+            this.initialValue = initialValue;
+            this.claimed = new AtomicInteger(initialValue);
+        }
+
+        int next() {
+            return reserve(1);
+        }
+
+        // Claims count IDs straight from the shared counter and returns the first
+        int reserve(int count) {
+            if (count < 1) {
+                throw new IllegalArgumentException("count must be at least 1: " + count);
+            }
+            int first = claimed.getAndAdd(count) + 1;
+            int last = first + count - 1;
+            if (last > persistedMark) {
+                reserveThrough(last);
+            }
+            return first;
+        }
+
+        private void reserveThrough(int last) {
+            synchronized (IdGenerator.class) {
+                if (highWaterFile == null) {
+                    persistedMark = Integer.MAX_VALUE;
+                    return;
+                }
+                if (last <= persistedMark) {
+                    return;
+                }
+                int previous = persistedMark;
+                persistedMark = last + RESERVE_SIZE;
+                try {
+                    writeHighWaterMarks();
+                } catch (IOException e) {
+                    persistedMark = previous;
+                    throw new UncheckedIOException("Could not persist " + name + " ID high-water mark", e);
+                }
+            }
+        }
+
+        // Continues numbering after the given ID
+        void restartAfter(int id) {
+            claimed.accumulateAndGet(id, Math::max);
+            persistedMark = 0; // Force a fresh reservation on first use
+        }
+
+        void reset() {
+            claimed.set(initialValue);
+            persistedMark = 0;
+        }
+    }
+}
@@ -5,6 +5,10 @@ package com.airtribe.learntrack.util;
  * Demonstrates static methods for common validation tasks.
  */
 public class InputValidator {
+    private static final int MAX_EMAIL_LENGTH = 254;
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LABEL_LENGTH = 63;
+    private static final String LOCAL_PART_SYMBOLS = "!#$%&'*+/=?^_`{|}~-";
     
     // Private constructor to prevent instantiation
     private InputValidator() {
@@ -47,15 +51,78 @@ public class InputValidator {
     }
 
     /**
-     * Validates email format (basic validation).
+     * Validates email format in a single pass, without copying the string.
+     * Surrounding whitespace is ignored. The part before the single '@' may contain
+     * letters, digits, dots (not leading, trailing or doubled) and the symbols
+     * !#$%&amp;'*+/=?^_`{|}~- and is at most 64 characters. The domain needs at least
+     * two dot-separated labels of letters, digits and inner hyphens, each 1-63
+     * characters, and a last label of two or more characters that is not all digits.
+     * The whole address is at most 254 characters.
      * @param email the email to validate
      * @return true if valid format, false otherwise
      */
     public static boolean isValidEmail(String email) {
-        if (email == null || email.trim().isEmpty()) {
+        if (email == null) {
             return false;
         }
-        return email.contains("@") && email.contains(".");
+        int start = 0;
+        int end = email.length();
+        while (start < end && email.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && email.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start > MAX_EMAIL_LENGTH) {
+            return false;
+        }
+        int at = -1;
+        int labelStart = -1;
+        int labels = 0;
+        boolean labelHasLetter = false;
+        // A dot before the first character makes a leading dot look doubled
+        char previous = '.';
+        for (int i = start; i < end; i++) {
+            char c = email.charAt(i);
+            if (at < 0) {
+                if (c == '@') {
+                    if (i == start || previous == '.' || i - start > MAX_LOCAL_PART_LENGTH) {
+                        return false;
+                    }
+                    at = i;
+                    labelStart = i + 1;
+                } else if (c == '.' ? previous == '.' : !isLocalPartChar(c)) {
+                    return false;
+                }
+            } else if (c == '.') {
+                if (!isValidLabel(email, labelStart, i)) {
+                    return false;
+                }
+                labels++;
+                labelStart = i + 1;
+                labelHasLetter = false;
+            } else if (isAsciiLetter(c)) {
+                labelHasLetter = true;
+            } else if ((c < '0' || c > '9') && c != '-') {
+                return false;
+            }
+            previous = c;
+        }
+        return at >= 0 && labels > 0 && isValidLabel(email, labelStart, end)
+                && end - labelStart >= 2 && labelHasLetter;
     }
-}
 
+    private static boolean isValidLabel(String email, int start, int end) {
+        int length = end - start;
+        return length > 0 && length <= MAX_DOMAIN_LABEL_LENGTH
+                && email.charAt(start) != '-' && email.charAt(end - 1) != '-';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9') || LOCAL_PART_SYMBOLS.indexOf(c) >= 0;
+    }
+}
@@ -0,0 +1,168 @@
+package com.airtribe.learntrack.util;
+
+import java.util.Arrays;
+
+/**
+ * Multimap from primitive int keys to lists of primitive int values.
+ * Each key owns a growable int[] instead of a List of boxed Integers,
+ * and keys are located through an open-addressing table like {@link IntObjectMap}.
+ * Not thread-safe: callers are expected to guard it with their own lock.
+ * Lookups are bounded and side-effect free, so they can run under an optimistic
+ * read that is validated afterwards (a torn read may throw and must be retried).
+ */
+public class IntListMultimap {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int INITIAL_LIST_CAPACITY = 4;
+    private static final int[] EMPTY = new int[0];
+
+    private int[] keys;
+    private int[][] lists;
+    private int[] sizes;
+    // Slot holds (position in keys) + 1, so 0 marks an empty slot
+    private int[] table;
+    private int keyCount;
+
+    public IntListMultimap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntListMultimap(int expectedKeys) {
+        int capacity = Math.max(DEFAULT_CAPACITY, expectedKeys);
+        this.keys = new int[capacity];
+        this.lists = new int[capacity][];
+        this.sizes = new int[capacity];
+        this.table = new int[IntObjectMap.tableSizeFor(capacity)];
+    }
+
+    /**
+     * Appends a value to a key's list.
+     * @param key the key
+     * @param value the value to append
+     */
+    public void put(int key, int value) {
+        int index = indexOf(key);
+        if (index < 0) {
+            index = addKey(key);
+        }
+        int[] list = lists[index];
+        int count = sizes[index];
+        if (count == list.length) {
+            list = Arrays.copyOf(list, count * 2);
+            lists[index] = list;
+        }
+        list[count] = value;
+        sizes[index] = count + 1;
+    }
+
+    /**
+     * Removes the first occurrence of a value from a key's list, keeping the order of the rest.
+     * @param key the key
+     * @param value the value to remove
+     * @return true if the value was present
+     */
+    public boolean remove(int key, int value) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        int[] list = lists[index];
+        int count = sizes[index];
+        for (int i = 0; i < count; i++) {
+            if (list[i] == value) {
+                System.arraycopy(list, i + 1, list, i, count - i - 1);
+                sizes[index] = count - 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns a copy of a key's values in insertion order.
+     * @param key the key
+     * @return the values, empty if the key is absent
+     */
+    public int[] get(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return EMPTY;
+        }
+        int count = sizes[index];
+        return count == 0 ? EMPTY : Arrays.copyOf(lists[index], count);
+    }
+
+    /**
+     * Returns how many values a key has.
+     * @param key the key
+     * @return the value count, 0 if the key is absent
+     */
+    public int count(int key) {
+        int index = indexOf(key);
+        return index < 0 ? 0 : sizes[index];
+    }
+
+    /**
+     * Removes all keys and values.
+     */
+    public void clear() {
+        Arrays.fill(lists, 0, keyCount, null);
+        Arrays.fill(sizes, 0, keyCount, 0);
+        Arrays.fill(table, 0);
+        keyCount = 0;
+    }
+
+    private int indexOf(int key) {
+        int[] keys = this.keys;
+        int[] table = this.table;
+        int mask = table.length - 1;
+        int slot = IntObjectMap.hash(key) & mask;
+        for (int probes = 0; probes < table.length; probes++) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (index < keys.length && keys[index] == key) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int addKey(int key) {
+        if (keyCount == keys.length) {
+            grow();
+        }
+        int index = keyCount++;
+        keys[index] = key;
+        lists[index] = new int[INITIAL_LIST_CAPACITY];
+        sizes[index] = 0;
+        insertSlot(table, key, index + 1);
+        return index;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        int[] newKeys = Arrays.copyOf(keys, capacity);
+        int[][] newLists = Arrays.copyOf(lists, capacity);
+        int[] newSizes = Arrays.copyOf(sizes, capacity);
+        int[] newTable = new int[IntObjectMap.tableSizeFor(capacity)];
+        for (int i = 0; i < keyCount; i++) {
+            insertSlot(newTable, newKeys[i], i + 1);
+        }
+        keys = newKeys;
+        lists = newLists;
+        sizes = newSizes;
+        table = newTable;
+    }
+
+    private static void insertSlot(int[] table, int key, int entry) {
+        int mask = table.length - 1;
+        int slot = IntObjectMap.hash(key) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+}
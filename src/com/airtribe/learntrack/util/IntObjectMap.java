@@ -0,0 +1,248 @@
+package com.airtribe.learntrack.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Map from primitive int keys to objects, kept in insertion order.
+ * Entries live in dense key/value arrays; an open-addressing table of
+ * positions (linear probing) locates them without boxing the key or
+ * allocating a node per entry.
+ * Not thread-safe: callers are expected to guard it with their own lock.
+ * Lookups are bounded and side-effect free, so they can run under an optimistic
+ * read that is validated afterwards (a torn read may throw and must be retried).
+ * @param <V> the value type
+ */
+public class IntObjectMap<V> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] keys;
+    private Object[] values;
+    // Slot holds (position in keys/values) + 1, so 0 marks an empty slot
+    private int[] table;
+    private int size;
+
+    public IntObjectMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        int capacity = Math.max(DEFAULT_CAPACITY, expectedSize);
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.table = new int[tableSizeFor(capacity)];
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     * @return true if there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Looks up the value for a key.
+     * @param key the key
+     * @return the value, or null if absent
+     */
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    /**
+     * Checks whether a key is present.
+     * @param key the key
+     * @return true if present
+     */
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns the insertion position of a key.
+     * @param key the key
+     * @return position between 0 and size - 1, or -1 if absent
+     */
+    public int indexOf(int key) {
+        int[] keys = this.keys;
+        int[] table = this.table;
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        // Bounded by the table length so a torn read can never spin forever
+        for (int probes = 0; probes < table.length; probes++) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            int index = entry - 1;
+            if (index < keys.length && keys[index] == key) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds or replaces the value for a key. A replaced entry keeps its position.
+     * @param key the key
+     * @param value the value
+     * @return the previous value, or null if the key was new
+     */
+    public V put(int key, V value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            V previous = valueAt(index);
+            values[index] = value;
+            return previous;
+        }
+        if (size == keys.length) {
+            grow();
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        insertSlot(table, key, size);
+        return null;
+    }
+
+    /**
+     * Replaces the value for an existing key, leaving absent keys alone.
+     * @param key the key
+     * @param value the new value
+     * @return the previous value, or null if the key was absent
+     */
+    public V replace(int key, V value) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = valueAt(index);
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Returns the key at an insertion position.
+     * @param index position between 0 and size - 1
+     * @return the key
+     */
+    public int keyAt(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the value at an insertion position.
+     * @param index position between 0 and size - 1
+     * @return the value
+     */
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    /**
+     * Returns a read-only view of the values as they are now, without copying.
+     * The view keeps the current value array and size, so entries added later are not
+     * visible to it, while a value replaced in place later may be.
+     * Take it under the caller's lock; afterwards it can be read without one.
+     * @return the view, in insertion order
+     */
+    public Snapshot<V> snapshot() {
+        return new Snapshot<>(values, size);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(values, 0, size, null);
+        Arrays.fill(table, 0);
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = keys.length * 2;
+        int[] newKeys = Arrays.copyOf(keys, capacity);
+        Object[] newValues = Arrays.copyOf(values, capacity);
+        int[] newTable = new int[tableSizeFor(capacity)];
+        for (int i = 0; i < size; i++) {
+            insertSlot(newTable, newKeys[i], i + 1);
+        }
+        // Publish the table last so a reader never pairs it with shorter arrays
+        keys = newKeys;
+        values = newValues;
+        table = newTable;
+    }
+
+    private static void insertSlot(int[] table, int key, int entry) {
+        int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry;
+    }
+
+    /**
+     * Sizes an open-addressing table for a number of entries. The table is kept at most
+     * half full, which keeps linear-probe chains short.
+     * @param capacity the number of entries the table must hold
+     * @return a power of two at least twice the capacity
+     */
+    public static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+        return Math.max(n, 4);
+    }
+
+    /**
+     * Hashes an int key for an open-addressing table. Fibonacci hashing spreads
+     * sequential IDs across the table.
+     * @param key the key
+     * @return the hash; mask it with the table size minus one
+     */
+    public static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Fixed-size, read-only list over a map's values.
+     * Sub-lists and streams read the shared array directly.
+     * @param <V> the value type
+     */
+    public static final class Snapshot<V> extends AbstractList<V> implements RandomAccess {
+        private final Object[] values;
+        private final int size;
+
+        private Snapshot(Object[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return (V) values[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
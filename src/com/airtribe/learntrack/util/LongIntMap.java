@@ -0,0 +1,217 @@
+package com.airtribe.learntrack.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive long keys to primitive int values, for composite keys such as
+ * a (studentId, courseId) pair packed by {@link #pack(int, int)}.
+ * Keys and values live directly in an open-addressing table (linear probing), so
+ * entries cost 12 bytes plus free slots, with no boxing and no node per entry.
+ * Removal shifts the following entries back instead of leaving tombstones, so
+ * lookups stay short however many entries come and go.
+ * Not thread-safe: callers are expected to guard it with their own lock.
+ * Lookups are bounded and side-effect free, so they can run under an optimistic
+ * read that is validated afterwards.
+ */
+public class LongIntMap {
+    private static final int DEFAULT_CAPACITY = 16;
+    // Marks an empty slot; a real 0 key is kept outside the table
+    private static final long FREE = 0L;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public LongIntMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongIntMap(int expectedSize) {
+        int tableSize = IntObjectMap.tableSizeFor(Math.max(DEFAULT_CAPACITY, expectedSize));
+        this.keys = new long[tableSize];
+        this.values = new int[tableSize];
+    }
+
+    /**
+     * Packs two ints into one key.
+     * @param high the first component
+     * @param low the second component
+     * @return the key
+     */
+    public static long pack(int high, int low) {
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the number of entries.
+     * @return entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the value for a key.
+     * @param key the key
+     * @param absent value returned if the key is absent
+     * @return the value, or absent
+     */
+    public int get(long key, int absent) {
+        if (key == FREE) {
+            return hasZeroKey ? zeroValue : absent;
+        }
+        long[] keys = this.keys;
+        int[] values = this.values;
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        // Bounded by the table length so a torn read can never spin forever
+        for (int probes = 0; probes < keys.length; probes++) {
+            long current = keys[slot];
+            if (current == FREE) {
+                return absent;
+            }
+            if (current == key) {
+                return slot < values.length ? values[slot] : absent;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return absent;
+    }
+
+    /**
+     * Checks whether a key is present.
+     * @param key the key
+     * @return true if present
+     */
+    public boolean containsKey(long key) {
+        if (key == FREE) {
+            return hasZeroKey;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        for (int probes = 0; probes < keys.length; probes++) {
+            long current = keys[slot];
+            if (current == FREE) {
+                return false;
+            }
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Adds or replaces the value for a key.
+     * @param key the key
+     * @param value the value
+     */
+    public void put(long key, int value) {
+        if (key == FREE) {
+            size += hasZeroKey ? 0 : 1;
+            hasZeroKey = true;
+            zeroValue = value;
+            return;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != FREE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        values[slot] = value;
+        keys[slot] = key;
+        size++;
+        // Keep the table at most half full, which keeps probe chains short
+        if (size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Removes a key, but only while it still maps to the given value, so a caller
+     * cannot remove an entry that has since been replaced.
+     * @param key the key
+     * @param value the value the key must map to
+     * @return true if the entry was removed
+     */
+    public boolean remove(long key, int value) {
+        if (key == FREE) {
+            if (!hasZeroKey || zeroValue != value) {
+                return false;
+            }
+            hasZeroKey = false;
+            size--;
+            return true;
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != key) {
+            if (keys[slot] == FREE) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (values[slot] != value) {
+            return false;
+        }
+        // Shift later entries of the probe chain back into the gap
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = hash(keys[next]) & mask;
+            // Move the entry unless its home slot lies cyclically in (gap, next]
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = FREE;
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        hasZeroKey = false;
+        size = 0;
+    }
+
+    private void rehash(int tableSize) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        long[] newKeys = new long[tableSize];
+        int[] newValues = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (newKeys[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                newKeys[slot] = oldKeys[i];
+                newValues[slot] = oldValues[i];
+            }
+        }
+        // Publish values first so a reader that sees the new keys finds values at least as long
+        values = newValues;
+        keys = newKeys;
+    }
+
+    // Mixes both halves so pairs differing only in one component spread across the table
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
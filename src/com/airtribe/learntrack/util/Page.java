@@ -0,0 +1,68 @@
+package com.airtribe.learntrack.util;
+
+import java.util.List;
+
+/**
+ * One page of a listing: the items plus where they sit in the full listing.
+ * @param <T> the item type
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final int offset;
+    private final int totalCount;
+
+    public Page(List<T> items, int offset, int totalCount) {
+        this.items = items;
+        this.offset = offset;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Cuts one page out of a listing. Out-of-range offsets give an empty page.
+     * @param all the full listing (a random-access list; the page is a view of it)
+     * @param offset position of the first item
+     * @param limit maximum number of items
+     * @return the page
+     */
+    public static <T> Page<T> of(List<T> all, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        int from = Math.min(offset, all.size());
+        int to = (int) Math.min((long) from + limit, all.size());
+        return new Page<>(all.subList(from, to), from, all.size());
+    }
+
+    /**
+     * @return the items on this page (read-only)
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return position of the first item in the full listing
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return number of items in the full listing when the page was taken
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public boolean hasNext() {
+        return offset + items.size() < totalCount;
+    }
+
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
@@ -0,0 +1,173 @@
+package com.airtribe.learntrack.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes fixed-width text tables.
+ * Each row is padded into one reusable buffer and handed to the writer in a single
+ * call, so rendering does not go through String.format or a per-line flush.
+ * The writer should be buffered; call {@link #flush()} when the table is done.
+ * Not thread-safe.
+ */
+public class TableRenderer {
+    private final Writer out;
+    private final int[] widths;
+    private final StringBuilder row = new StringBuilder(128);
+    // Row characters are copied here so the writer gets a char range, not a new String
+    private char[] chars = new char[128];
+    private int column;
+
+    /**
+     * Creates a renderer.
+     * @param out where rows are written
+     * @param widths minimum width of each column; longer values are not cut
+     */
+    public TableRenderer(Writer out, int... widths) {
+        this.out = out;
+        this.widths = widths.clone();
+    }
+
+    /**
+     * Writes a header row followed by a separator line as wide as the table.
+     * @param titles one title per column
+     * @throws IOException if the writer fails
+     */
+    public void header(String... titles) throws IOException {
+        for (String title : titles) {
+            cell(title);
+        }
+        endRow();
+        int tableWidth = widths.length - 1;
+        for (int width : widths) {
+            tableWidth += width;
+        }
+        for (int i = 0; i < tableWidth; i++) {
+            row.append('-');
+        }
+        writeRow();
+    }
+
+    /**
+     * Adds a text cell to the current row.
+     * @param value the value (null is shown as "null")
+     * @return this renderer
+     */
+    public TableRenderer cell(String value) {
+        int start = beginCell();
+        row.append(value);
+        return pad(start);
+    }
+
+    /**
+     * Adds a text cell, cutting values longer than maxChars and marking the cut with "...".
+     * @param value the value
+     * @param maxChars characters kept before the "..."
+     * @return this renderer
+     */
+    public TableRenderer cell(String value, int maxChars) {
+        if (value == null || value.length() <= maxChars) {
+            return cell(value);
+        }
+        int start = beginCell();
+        row.append(value, 0, maxChars).append("...");
+        return pad(start);
+    }
+
+    /**
+     * Adds a cell made of two values separated by a space, e.g. first and last name.
+     * @param first the first value
+     * @param second the second value
+     * @return this renderer
+     */
+    public TableRenderer cell(String first, String second) {
+        int start = beginCell();
+        row.append(first).append(' ').append(second);
+        return pad(start);
+    }
+
+    /**
+     * Adds a number cell.
+     * @param value the value
+     * @return this renderer
+     */
+    public TableRenderer cell(int value) {
+        int start = beginCell();
+        row.append(value);
+        return pad(start);
+    }
+
+    /**
+     * Adds a cell showing any object's toString().
+     * @param value the value
+     * @return this renderer
+     */
+    public TableRenderer cell(Object value) {
+        int start = beginCell();
+        row.append(value);
+        return pad(start);
+    }
+
+    /**
+     * Adds a Yes/No cell.
+     * @param value the value
+     * @return this renderer
+     */
+    public TableRenderer cell(boolean value) {
+        return cell(value ? "Yes" : "No");
+    }
+
+    /**
+     * Writes the current row and starts a new one.
+     * @throws IOException if the writer fails
+     */
+    public void endRow() throws IOException {
+        writeRow();
+        column = 0;
+    }
+
+    /**
+     * Writes a line of free text outside the table columns.
+     * @param text the text
+     * @throws IOException if the writer fails
+     */
+    public void line(String text) throws IOException {
+        out.write(text);
+        out.write(System.lineSeparator());
+    }
+
+    /**
+     * Flushes the underlying writer.
+     * @throws IOException if the writer fails
+     */
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private int beginCell() {
+        if (column > 0) {
+            row.append(' ');
+        }
+        return row.length();
+    }
+
+    private TableRenderer pad(int start) {
+        int width = column < widths.length ? widths[column] : 0;
+        for (int i = row.length() - start; i < width; i++) {
+            row.append(' ');
+        }
+        column++;
+        return this;
+    }
+
+    private void writeRow() throws IOException {
+        row.append(System.lineSeparator());
+        int length = row.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        row.getChars(0, length, chars, 0);
+        out.write(chars, 0, length);
+        row.setLength(0);
+    }
+}
@@ -0,0 +1,58 @@
+package com.airtribe.learntrack.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates thread-per-task executors backed by virtual threads when the JDK has them (21+).
+ * The project targets JDK 17, so the lookup is reflective; on older JDKs a fixed
+ * pool of daemon platform threads is used instead.
+ */
+public class VirtualThreads {
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+
+    // Private constructor to prevent instantiation
+    private VirtualThreads() {
+    }
+
+    /**
+     * Checks whether virtual threads are available in this JDK.
+     * @return true on JDK 21 and later
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that runs each task on its own virtual thread, or a
+     * fixed pool of platform threads when virtual threads are not available.
+     * @param name thread name prefix used by the fallback pool
+     * @param fallbackThreads size of the fallback pool
+     * @return the executor
+     */
+    public static ExecutorService newPerTaskExecutor(String name, int fallbackThreads) {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall through to the platform thread pool
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(fallbackThreads, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Method findFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.airtribe.learntrack.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import com.airtribe.learntrack.service.CourseService;
+import com.airtribe.learntrack.service.EnrollmentService;
+import com.airtribe.learntrack.service.StudentService;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ApiServerTest {
+    private final Logger log = Logger.getLogger(ApiServer.class.getName());
+    private Level logLevel;
+    private ApiServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        StudentService studentService = new FailingStudentService(new StudentRepository());
+        CourseService courseService = new CourseService(new CourseRepository());
+        EnrollmentService enrollmentService = new EnrollmentService(new EnrollmentRepository(), studentService,
+                courseService);
+        server = ApiServer.start(0, studentService, courseService, enrollmentService);
+        // The failure below is expected; keep it out of the test output
+        logLevel = log.getLevel();
+        log.setLevel(Level.OFF);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        log.setLevel(logLevel);
+    }
+
+    @Test
+    void listensOnLoopbackByDefault() {
+        assertTrue(server.getAddress().getAddress().isLoopbackAddress());
+    }
+
+    @Test
+    void unexpectedFailureAnswersGenericMessage() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + "/students/1")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(500, response.statusCode());
+        assertEquals("{\"error\":\"Internal server error.\"}", response.body());
+        assertFalse(response.body().contains("secret"));
+    }
+
+    /**
+     * StudentService whose lookups by ID fail with an internal detail in the message.
+     */
+    private static final class FailingStudentService extends StudentService {
+        private FailingStudentService(StudentRepository studentRepository) {
+            super(studentRepository);
+        }
+
+        @Override
+        public Student findStudentById(int id) {
+            throw new IllegalStateException("secret table learntrack_students is corrupt");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.airtribe.learntrack.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.BackpressurePolicy;
+import com.airtribe.learntrack.enums.EntityType;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class ChangeStreamTest {
+    private static final int ENROLLMENTS = 2_000;
+
+    @Test
+    void blockedWriterDoesNotStallSubscriberReads() {
+        EnrollmentRepository enrollments = new EnrollmentRepository();
+        ChangeStream stream = new ChangeStream(2, BackpressurePolicy.BLOCK);
+        stream.attach(new StudentRepository(), new CourseRepository(), enrollments);
+        List<Long> sequences = new ArrayList<>();
+        AtomicInteger found = new AtomicInteger();
+        stream.subscribe("reader", 1, events -> {
+            for (ChangeEvent event : events) {
+                sequences.add(event.getSequence());
+                if (event.getEntityType() == EntityType.ENROLLMENT
+                        && enrollments.findById(event.getEntityId()) != null) {
+                    found.incrementAndGet();
+                }
+            }
+        });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            LocalDate today = LocalDate.of(2024, 1, 15);
+            for (int i = 1; i <= ENROLLMENTS; i++) {
+                enrollments.addEnrollment(new Enrollment(i, 10 + i, 20, today));
+                enrollments.updateStatus(i, EnrollmentStatus.COMPLETED);
+            }
+            stream.close();
+        });
+
+        assertEquals(2L * ENROLLMENTS, stream.getPublished());
+        assertEquals(2 * ENROLLMENTS, sequences.size());
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(i, sequences.get(i));
+        }
+        assertEquals(2 * ENROLLMENTS, found.get());
+        assertNotNull(enrollments.findById(ENROLLMENTS));
+    }
+}
@@ -0,0 +1,43 @@
+package com.airtribe.learntrack.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvImporterTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void reportsParseAndInsertErrorsInLineOrder() throws Exception {
+        Path file = directory.resolve("students.csv");
+        Files.write(file, List.of(
+                "firstName,lastName,email,batch",
+                "Ada,Lovelace,ada@example.com,B1",
+                "Grace,Hopper,ada@example.com,B1",
+                "Alan,Turing",
+                "Edsger,Dijkstra,B2",
+                "Barbara,Liskov,ada@example.com,B2"));
+        CsvImporter importer = new CsvImporter(new StudentRepository(), new CourseRepository(),
+                new EnrollmentRepository(), 1);
+
+        ImportReport report = importer.importStudents(file);
+
+        assertEquals(5, report.getRowsRead());
+        assertEquals(2, report.getRowsImported());
+        List<ImportReport.RowError> errors = report.getErrors();
+        assertEquals(3, errors.size());
+        assertEquals(3, errors.get(0).getLineNumber());
+        assertEquals(4, errors.get(1).getLineNumber());
+        assertEquals(6, errors.get(2).getLineNumber());
+        assertTrue(errors.get(1).getMessage().startsWith("Expected 3 or 4 columns"), errors.get(1).getMessage());
+    }
+}
@@ -0,0 +1,36 @@
+package com.airtribe.learntrack.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airtribe.learntrack.entity.Course;
+import org.junit.jupiter.api.Test;
+
+class CourseRepositoryTest {
+
+    @Test
+    void updateAfterEditInPlaceMovesActiveCount() {
+        CourseRepository repository = new CourseRepository();
+        repository.addCourse(new Course(1, "Java", "Core Java", 8, true));
+
+        Course stored = repository.findById(1);
+        stored.setActive(false);
+        assertTrue(repository.updateCourse(stored));
+
+        assertEquals(1, repository.getCounts().getTotal());
+        assertEquals(0, repository.getCounts().getActive());
+    }
+
+    @Test
+    void deactivateAfterEditInPlaceKeepsActiveCount() {
+        CourseRepository repository = new CourseRepository();
+        repository.addCourse(new Course(1, "Java", "Core Java", 8, true));
+
+        repository.findById(1).setActive(false);
+        assertTrue(repository.deactivateCourse(1));
+        assertEquals(0, repository.getCounts().getActive());
+
+        assertTrue(repository.activateCourse(1));
+        assertEquals(1, repository.getCounts().getActive());
+    }
+}
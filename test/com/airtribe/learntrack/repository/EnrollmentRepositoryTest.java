@@ -0,0 +1,69 @@
+package com.airtribe.learntrack.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class EnrollmentRepositoryTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 15);
+
+    @Test
+    void updateAfterEditInPlaceMovesCounts() {
+        EnrollmentRepository repository = new EnrollmentRepository();
+        Enrollment enrollment = new Enrollment(1, 10, 20, TODAY);
+        repository.addEnrollment(enrollment, Course.UNLIMITED_CAPACITY);
+
+        // The default store hands back the stored object, so this edits it in place
+        Enrollment stored = repository.findById(1);
+        stored.setStatus(EnrollmentStatus.COMPLETED);
+        assertTrue(repository.updateEnrollment(stored));
+
+        assertEquals(0, repository.getCounts().get(EnrollmentStatus.ACTIVE));
+        assertEquals(1, repository.getCounts().get(EnrollmentStatus.COMPLETED));
+        assertEquals(1, repository.getCountsByCourse(20).get(EnrollmentStatus.COMPLETED));
+        assertNull(repository.findOpenEnrollment(10, 20));
+
+        Enrollment again = new Enrollment(2, 10, 20, TODAY);
+        assertSame(again, repository.addEnrollment(again, Course.UNLIMITED_CAPACITY));
+    }
+
+    @Test
+    void updateAfterEditInPlaceMovesIndexes() {
+        EnrollmentRepository repository = new EnrollmentRepository();
+        repository.addEnrollment(new Enrollment(1, 10, 20, TODAY), Course.UNLIMITED_CAPACITY);
+
+        Enrollment stored = repository.findById(1);
+        stored.setCourseId(21);
+        assertTrue(repository.updateEnrollment(stored));
+
+        assertTrue(repository.findByCourseId(20).isEmpty());
+        assertEquals(1, repository.findByCourseId(21).size());
+        assertEquals(0, repository.getCountsByCourse(20).get(EnrollmentStatus.ACTIVE));
+        assertEquals(1, repository.getCountsByCourse(21).get(EnrollmentStatus.ACTIVE));
+        assertNull(repository.findOpenEnrollment(10, 20));
+        assertSame(stored, repository.findOpenEnrollment(10, 21));
+    }
+
+    @Test
+    void statusChangeAfterEditInPlaceLeavesWaitlist() {
+        EnrollmentRepository repository = new EnrollmentRepository();
+        repository.addEnrollment(new Enrollment(1, 10, 20, TODAY), 1);
+        repository.addEnrollment(new Enrollment(2, 11, 20, TODAY), 1);
+        assertEquals(1, repository.findWaitlistByCourseId(20).size());
+
+        repository.findById(2).setStatus(EnrollmentStatus.ACTIVE);
+        assertTrue(repository.updateStatus(2, EnrollmentStatus.CANCELLED));
+
+        assertTrue(repository.findWaitlistByCourseId(20).isEmpty());
+        assertEquals(0, repository.getCounts().get(EnrollmentStatus.WAITLISTED));
+        assertEquals(1, repository.getCounts().get(EnrollmentStatus.ACTIVE));
+        assertEquals(1, repository.getCounts().get(EnrollmentStatus.CANCELLED));
+    }
+}
@@ -0,0 +1,106 @@
+package com.airtribe.learntrack.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.airtribe.learntrack.entity.Student;
+import com.airtribe.learntrack.enums.MutationType;
+import com.airtribe.learntrack.util.Page;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class StudentRepositoryTest {
+
+    @Test
+    void updateAfterEditInPlaceMovesBatchCounts() {
+        StudentRepository repository = new StudentRepository();
+        repository.addStudent(new Student(1, "Asha", "Rao", "asha@example.com", "B1", true));
+
+        Student stored = repository.findById(1);
+        stored.setBatch("B2");
+        stored.setActive(false);
+        assertTrue(repository.updateStudent(stored));
+
+        assertEquals(0, repository.getCountsByBatch("B1").getTotal());
+        assertEquals(1, repository.getCountsByBatch("B2").getTotal());
+        assertEquals(0, repository.getCountsByBatch("B2").getActive());
+        assertEquals(1, repository.getCounts().getTotal());
+        assertEquals(0, repository.getCounts().getActive());
+    }
+
+    @Test
+    void deactivateAfterEditInPlaceKeepsActiveCount() {
+        StudentRepository repository = new StudentRepository();
+        repository.addStudent(new Student(1, "Asha", "Rao", "asha@example.com", "B1", true));
+
+        repository.findById(1).setActive(false);
+        assertTrue(repository.deactivateStudent(1));
+
+        assertEquals(0, repository.getCounts().getActive());
+        assertEquals(0, repository.getCountsByBatch("B1").getActive());
+    }
+
+    @Test
+    void batchNameLeavesDictionaryWithItsLastStudent() {
+        StudentRepository repository = new StudentRepository();
+        repository.addStudent(new Student(1, "Asha", "Rao", "asha@example.com", "B1", true));
+        repository.addStudent(new Student(2, "Ravi", "Iyer", "ravi@example.com", new String("B1"), true));
+        assertSame(repository.findById(1).getBatch(), repository.findById(2).getBatch());
+
+        for (int i = 0; i < 1_000; i++) {
+            Student moved = new Student(repository.findById(1));
+            moved.setBatch("Temp-" + i);
+            assertTrue(repository.updateStudent(moved));
+        }
+
+        DictionaryStats stats = repository.getBatchNameStats();
+        assertEquals(2, stats.getValues());
+        assertEquals(2, stats.getReferences());
+        assertEquals(1, repository.getCountsByBatch("B1").getTotal());
+        assertEquals(1, repository.getCountsByBatch("Temp-999").getTotal());
+        assertEquals(0, repository.getCountsByBatch("Temp-0").getTotal());
+        assertEquals(2, repository.getCountsByBatch().size());
+    }
+
+    @Test
+    void searchThatSortsTheIndexIsNotAWrite() {
+        StudentRepository repository = new StudentRepository();
+        AtomicInteger writes = new AtomicInteger();
+        repository.addListener(new RepositoryListener<>() {
+            @Override
+            public void onMutation(MutationType type, Student student) {
+            }
+
+            @Override
+            public void afterWrite() {
+                writes.incrementAndGet();
+            }
+        });
+        // Enough new terms of one length to leave the index waiting for a sort
+        for (int i = 0; i < 1_000; i++) {
+            repository.addStudent(new Student(i + 1, "N" + (1_000 + i), "L" + (1_000 + i),
+                    "e" + (1_000 + i) + "@x.io", "B1", true));
+        }
+        int writesBefore = writes.get();
+
+        assertEquals(1, repository.searchStudents("n1500", 10).size());
+        assertEquals(10, repository.searchStudents("n1", 10).size());
+        assertEquals(writesBefore, writes.get());
+    }
+
+    @Test
+    void unknownCursorGivesEmptyPage() {
+        StudentRepository repository = new StudentRepository();
+        repository.addStudent(new Student(1, "Asha", "Rao", "asha@example.com", "B1", true));
+        repository.addStudent(new Student(2, "Ravi", "Iyer", "ravi@example.com", "B1", true));
+
+        assertEquals(2, repository.getStudentsAfter(0, 10).getItems().size());
+        assertEquals(2, repository.getStudentsAfter(1, 10).getItems().get(0).getId());
+
+        Page<Student> stale = repository.getStudentsAfter(99, 10);
+        assertTrue(stale.isEmpty());
+        assertFalse(stale.hasNext());
+    }
+}
@@ -0,0 +1,72 @@
+package com.airtribe.learntrack.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.airtribe.learntrack.entity.Course;
+import com.airtribe.learntrack.entity.Enrollment;
+import com.airtribe.learntrack.enums.EnrollmentStatus;
+import com.airtribe.learntrack.exception.InvalidInputException;
+import com.airtribe.learntrack.repository.CourseRepository;
+import com.airtribe.learntrack.repository.EnrollmentRepository;
+import com.airtribe.learntrack.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EnrollmentServiceTest {
+    private StudentService studentService;
+    private EnrollmentService enrollmentService;
+    private Course course;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        studentService = new StudentService(new StudentRepository());
+        CourseService courseService = new CourseService(new CourseRepository());
+        enrollmentService = new EnrollmentService(new EnrollmentRepository(), studentService, courseService);
+        course = courseService.addCourse("Java 101", "Intro to Java", 6, 1);
+    }
+
+    @Test
+    void completesActiveEnrollment() throws Exception {
+        Enrollment enrollment = enroll("Ada");
+
+        enrollmentService.markEnrollmentCompleted(enrollment.getId());
+
+        assertEquals(EnrollmentStatus.COMPLETED,
+                enrollmentService.findEnrollmentById(enrollment.getId()).getStatus());
+    }
+
+    @Test
+    void cancelledEnrollmentCannotBeCompleted() throws Exception {
+        Enrollment cancelled = enroll("Ada");
+        Enrollment waiting = enroll("Grace");
+        assertEquals(EnrollmentStatus.WAITLISTED, waiting.getStatus());
+        // Cancelling hands the only seat to the waitlisted student
+        enrollmentService.markEnrollmentCancelled(cancelled.getId());
+
+        assertThrows(InvalidInputException.class,
+                () -> enrollmentService.markEnrollmentCompleted(cancelled.getId()));
+
+        assertEquals(EnrollmentStatus.CANCELLED,
+                enrollmentService.findEnrollmentById(cancelled.getId()).getStatus());
+        assertEquals(1, enrollmentService.getEnrollmentCountsByCourse(course.getId()).get(EnrollmentStatus.ACTIVE));
+        assertEquals(0, enrollmentService.getEnrollmentCountsByCourse(course.getId()).get(EnrollmentStatus.COMPLETED));
+    }
+
+    @Test
+    void waitlistedAndCompletedEnrollmentsCannotBeCompleted() throws Exception {
+        Enrollment seated = enroll("Ada");
+        Enrollment waiting = enroll("Grace");
+        enrollmentService.markEnrollmentCompleted(seated.getId());
+
+        assertThrows(InvalidInputException.class,
+                () -> enrollmentService.markEnrollmentCompleted(waiting.getId()));
+        assertThrows(InvalidInputException.class,
+                () -> enrollmentService.markEnrollmentCompleted(seated.getId()));
+    }
+
+    private Enrollment enroll(String firstName) throws Exception {
+        int studentId = studentService.addStudent(firstName, "Test", "Batch 1").getId();
+        return enrollmentService.enrollStudent(studentId, course.getId());
+    }
+}